@@ -1,8 +1,5 @@
 package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 
-import java.util.Calendar;
-import java.util.TimeZone;
-
 /**
  * Ein Kalenderdatum, bestehend aus Tag, Monat und Jahr.
  * 
@@ -10,36 +7,47 @@ import java.util.TimeZone;
  * Datum zu ermitteln und zu überprüfen, ob drei Ganzzahlen ein gültiges Datum
  * bilden.
  * 
+ * Intern merkt sich ein Datum neben Tag, Monat und Jahr die Anzahl der Tage
+ * seit dem 1.1.1970 (gregorianischer Kalender, auch für Jahre vor seiner
+ * Einführung). Rechnen und Vergleichen sind damit reine Ganzzahlarithmetik
+ * ohne gemeinsamen Zustand.
+ * 
+ * Gültig sind nur die Jahre {@link #KLEINSTES_JAHR} bis
+ * {@link #GROESSTES_JAHR}. In diesem Bereich passt die Anzahl der Tage seit
+ * dem 1.1.1970 weit in einen int, so dass Vergleiche und Differenzen nicht
+ * überlaufen.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Datum implements Comparable<Datum>
 {
-    /*
-     * WICHTIGER HINWEIS AN DIE STUDIERENDEN
-     * 
-     * Alle Exemplare der Klasse Datum teilen sich ein veränderliches Calender-Objekt.
-     * Dieses Vorgehen ist extrem untypisch für Fachwerte.
-     * Also nehmt diese Klasse bitte nicht als Musterbeispiel für Fachwerte!
-     * Orientiert euch lieber an den Klassen Uhrzeit oder Geldbetrag. 
-     * 
-     * Die Klassen java.util.Date und java.util.Calendar sind so schrecklich,
-     * dass sie in Java 8 durch das Paket java.time abgelöst wurden:
-     * http://www.oracle.com/technetwork/articles/java/jf14-date-time-2125367.html 
+    /**
+     * Das kleinste Jahr, für das {@link #istGueltig} ein Datum zulässt.
      */
-    private static final Calendar kalender = Calendar.getInstance();
+    public static final int KLEINSTES_JAHR = 0;
+
+    /**
+     * Das größte Jahr, für das {@link #istGueltig} ein Datum zulässt.
+     */
+    public static final int GROESSTES_JAHR = 9999;
+
     private static final long MILLISEKUNDEN_PRO_TAG = 24L * 60 * 60 * 1000;
 
+    // Umrechnung nach dem Verfahren von H. Hinnant ("chrono-Compatible
+    // Low-Level Date Algorithms"): Das Jahr beginnt rechnerisch am 1. März, so
+    // dass der Schalttag am Jahresende liegt, und 400 Jahre bilden eine Ära
+    // von genau 146097 Tagen.
+    private static final int TAGE_PRO_AERA = 146097;
+    private static final int JAHRE_PRO_AERA = 400;
+    // Tage vom 1.3.0000 (proleptisch gregorianisch), dem Beginn der Ära 0,
+    // bis zum 1.1.1970
+    private static final int TAGE_VOM_1_3_0000_BIS_1970 = 719468;
+
     private final int _jahr;
     private final int _monat;
     private final int _tag;
-
-    // Statische Initialisierungsblöcke dienen der Initialisierung von Klassenvariablen.
-    static
-    {
-        kalender.setLenient(false);
-        kalender.setTimeZone(TimeZone.getTimeZone("GMT"));
-    }
+    private final int _tageSeitEpoche;
 
     /**
      * Wählt ein Datum aus (tag, monat, jahr).
@@ -58,37 +66,24 @@ public final class Datum implements Comparable<Datum>
     {
         assert istGueltig(tag, monat, jahr) : "Vorbedingung verletzt: istGueltig(tag, monat, jahr)";
 
-        return new Datum(tag, monat, jahr);
+        return new Datum(tag, monat, jahr, tageSeitEpoche(tag, monat, jahr));
     }
 
-    private Datum(int tag, int monat, int jahr)
+    private Datum(int tag, int monat, int jahr, int tageSeitEpoche)
     {
         _tag = tag;
         _monat = monat;
         _jahr = jahr;
+        _tageSeitEpoche = tageSeitEpoche;
     }
 
     /**
-     * Liefert das heutige Datum zurück.
+     * Liefert das heutige Datum zurück (nach GMT).
      */
     public static Datum heute()
     {
-        synchronized (kalender)
-        {
-            kalender.clear();
-            kalender.setTimeInMillis(System.currentTimeMillis());
-
-            return aktuellesDatumDesKalenders();
-        }
-    }
-
-    private static Datum aktuellesDatumDesKalenders()
-    {
-        int tag = kalender.get(Calendar.DAY_OF_MONTH);
-        int monat = kalender.get(Calendar.MONTH) + 1;
-        int jahr = kalender.get(Calendar.YEAR);
-
-        return get(tag, monat, jahr);
+        return ausTagenSeitEpoche((int) Math.floorDiv(
+                System.currentTimeMillis(), MILLISEKUNDEN_PRO_TAG));
     }
 
     /**
@@ -98,12 +93,19 @@ public final class Datum implements Comparable<Datum>
      * @param monat Der Monat im Jahr (1..12).
      * @param jahr Das Jahr.
      * 
-     * @return true wenn drei übergebene Zahlen ein gültiges Datum ergeben,
-     *         ansonsten false.
+     * @return true wenn drei übergebene Zahlen ein gültiges Datum ergeben und
+     *         das Jahr zwischen {@link #KLEINSTES_JAHR} und
+     *         {@link #GROESSTES_JAHR} liegt, ansonsten false.
      */
     public static boolean istGueltig(int tag, int monat, int jahr)
     {
-        return istGueltigerMonat(monat) && istGueltigerTag(tag, monat, jahr);
+        return istGueltigesJahr(jahr) && istGueltigerMonat(monat)
+                && istGueltigerTag(tag, monat, jahr);
+    }
+
+    private static boolean istGueltigesJahr(int jahr)
+    {
+        return (jahr >= KLEINSTES_JAHR) && (jahr <= GROESSTES_JAHR);
     }
 
     private static boolean istGueltigerMonat(int monat)
@@ -113,16 +115,67 @@ public final class Datum implements Comparable<Datum>
 
     private static boolean istGueltigerTag(int tag, int monat, int jahr)
     {
-        synchronized (kalender)
-        {
-            kalender.clear();
-            kalender.set(Calendar.YEAR, jahr);
-            kalender.set(Calendar.MONTH, monat - 1);
+        return (tag >= 1) && (tag <= tageImMonat(monat, jahr));
+    }
 
-            return (tag >= 1) && (tag <= kalender.getActualMaximum(Calendar.DAY_OF_MONTH));
+    private static int tageImMonat(int monat, int jahr)
+    {
+        switch (monat)
+        {
+        case 2:
+            return istSchaltjahr(jahr) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
         }
     }
 
+    private static boolean istSchaltjahr(int jahr)
+    {
+        return (jahr % 4 == 0) && ((jahr % 100 != 0) || (jahr % 400 == 0));
+    }
+
+    /**
+     * Berechnet die Anzahl der Tage vom 1.1.1970 bis zum angegebenen Datum.
+     */
+    private static int tageSeitEpoche(int tag, int monat, int jahr)
+    {
+        int j = (monat <= 2) ? jahr - 1 : jahr;
+        int aera = Math.floorDiv(j, JAHRE_PRO_AERA);
+        int jahrDerAera = j - aera * JAHRE_PRO_AERA;
+        int tagDesJahres = (153 * (monat > 2 ? monat - 3 : monat + 9) + 2) / 5
+                + tag - 1;
+        int tagDerAera = jahrDerAera * 365 + jahrDerAera / 4 - jahrDerAera
+                / 100 + tagDesJahres;
+        return aera * TAGE_PRO_AERA + tagDerAera - TAGE_VOM_1_3_0000_BIS_1970;
+    }
+
+    /**
+     * Gibt das Datum zurück, das die angegebene Anzahl Tage nach dem 1.1.1970
+     * liegt; bei negativer Anzahl entsprechend davor.
+     * 
+     * @ensure result.getTageSeitEpoche() == tageSeitEpoche
+     */
+    public static Datum ausTagenSeitEpoche(int tageSeitEpoche)
+    {
+        int z = tageSeitEpoche + TAGE_VOM_1_3_0000_BIS_1970;
+        int aera = Math.floorDiv(z, TAGE_PRO_AERA);
+        int tagDerAera = z - aera * TAGE_PRO_AERA;
+        int jahrDerAera = (tagDerAera - tagDerAera / 1460 + tagDerAera / 36524
+                - tagDerAera / (TAGE_PRO_AERA - 1)) / 365;
+        int tagDesJahres = tagDerAera
+                - (365 * jahrDerAera + jahrDerAera / 4 - jahrDerAera / 100);
+        int m = (5 * tagDesJahres + 2) / 153;
+        int tag = tagDesJahres - (153 * m + 2) / 5 + 1;
+        int monat = (m < 10) ? m + 3 : m - 9;
+        int jahr = jahrDerAera + aera * JAHRE_PRO_AERA + (monat <= 2 ? 1 : 0);
+        return new Datum(tag, monat, jahr, tageSeitEpoche);
+    }
+
     /**
      * Addiert auf dieses Datum eine übergebene Anzahl von Tage und gibt das
      * Ergebnis als neues Datum zurück.
@@ -133,14 +186,7 @@ public final class Datum implements Comparable<Datum>
      */
     public Datum plus(int tage)
     {
-        synchronized (kalender)
-        {
-            kalender.clear();
-            kalender.set(_jahr, _monat - 1, _tag);
-            kalender.add(Calendar.DAY_OF_MONTH, tage);
-            
-            return aktuellesDatumDesKalenders();
-        }
+        return ausTagenSeitEpoche(_tageSeitEpoche + tage);
     }
 
     /**
@@ -188,21 +234,16 @@ public final class Datum implements Comparable<Datum>
     {
         assert start != null : "Vorbedingung verletzt: start != null";
 
-        long millisekunden = this.inMillisekunden() - start.inMillisekunden();
-        long tage = millisekunden / MILLISEKUNDEN_PRO_TAG;
-        
-        return (int) tage;
+        return _tageSeitEpoche - start._tageSeitEpoche;
     }
 
-    private long inMillisekunden()
+    /**
+     * Gibt die Anzahl der Tage vom 1.1.1970 bis zu diesem Datum zurück; für
+     * frühere Tage ist das Ergebnis negativ.
+     */
+    public int getTageSeitEpoche()
     {
-        synchronized (kalender)
-        {
-            kalender.clear();
-            kalender.set(_jahr, _monat - 1, _tag);
-            
-            return kalender.getTimeInMillis();
-        }
+        return _tageSeitEpoche;
     }
 
     @Override
@@ -213,19 +254,19 @@ public final class Datum implements Comparable<Datum>
 
     private boolean equals(Datum anderesDatum)
     {
-        return (_tag == anderesDatum._tag) && (_monat == anderesDatum._monat) && (_jahr == anderesDatum._jahr);
+        return _tageSeitEpoche == anderesDatum._tageSeitEpoche;
     }
 
     @Override
     public int hashCode()
     {
-        return _jahr * 366 + _monat * 31 + _tag;
+        return _tageSeitEpoche;
     }
 
     @Override
     public int compareTo(Datum anderesDatum)
     {
-        return tageSeit(anderesDatum);
+        return Integer.compare(_tageSeitEpoche, anderesDatum._tageSeitEpoche);
     }
 
     /**
@@ -115,4 +115,61 @@ public class DatumTest
     {
         assertNotNull(Datum.heute());
     }
+
+    @Test
+    public void testSchaltjahre()
+    {
+        assertTrue(Datum.istGueltig(29, 2, 2020));
+        assertFalse(Datum.istGueltig(29, 2, 2021));
+        assertFalse(Datum.istGueltig(29, 2, 1900));
+        assertTrue(Datum.istGueltig(29, 2, 2000));
+        assertFalse(Datum.istGueltig(31, 4, 2021));
+        assertEquals(Datum.get(1, 3, 2020), Datum.get(28, 2, 2020).plus(2));
+        assertEquals(Datum.get(1, 3, 2021), Datum.get(28, 2, 2021).plus(1));
+    }
+
+    @Test
+    public void testTageSeitEpoche()
+    {
+        assertEquals(0, Datum.get(1, 1, 1970).getTageSeitEpoche());
+        assertEquals(-1, Datum.get(31, 12, 1969).getTageSeitEpoche());
+        assertEquals(18628, Datum.get(1, 1, 2021).getTageSeitEpoche());
+        assertEquals(146097, Datum.get(1, 1, 2000).tageSeit(Datum.get(1, 1, 1600)));
+
+        // Rückrechnung über einige Jahrhunderte in beide Richtungen
+        Datum datum = Datum.get(1, 1, 1890);
+        for (int i = 0; i < 100000; i++)
+        {
+            Datum naechster = datum.naechsterTag();
+            assertEquals(1, naechster.tageSeit(datum));
+            assertEquals(naechster, Datum.get(naechster.getTag(),
+                    naechster.getMonat(), naechster.getJahr()));
+            assertEquals(datum, naechster.vorherigerTag());
+            datum = naechster;
+        }
+        assertEquals(Datum.get(1, 1, 1890).plus(100000), datum);
+    }
+
+    @Test
+    public void testJahresgrenzen()
+    {
+        assertTrue(Datum.istGueltig(1, 1, Datum.KLEINSTES_JAHR));
+        assertFalse(Datum.istGueltig(31, 12, Datum.KLEINSTES_JAHR - 1));
+        assertTrue(Datum.istGueltig(31, 12, Datum.GROESSTES_JAHR));
+        assertFalse(Datum.istGueltig(1, 1, Datum.GROESSTES_JAHR + 1));
+        assertFalse(Datum.istGueltig(1, 1, 6000000));
+        assertFalse(Datum.istGueltig(1, 1, 10000000));
+        assertFalse(Datum.istGueltig(1, 1, Integer.MIN_VALUE));
+
+        // Auch an den Grenzen bleiben Reihenfolge und Abstände richtig
+        Datum erster = Datum.get(1, 1, Datum.KLEINSTES_JAHR);
+        Datum letzter = Datum.get(31, 12, Datum.GROESSTES_JAHR);
+        assertTrue(erster.compareTo(Datum.get(1, 1, 1970)) < 0);
+        assertTrue(letzter.compareTo(Datum.get(1, 1, 1970)) > 0);
+        assertEquals(10000 / 400 * 146097 - 1, letzter.tageSeit(erster));
+        assertEquals(letzter, Datum.ausTagenSeitEpoche(letzter
+                .getTageSeitEpoche()));
+        assertEquals(erster, Datum.ausTagenSeitEpoche(erster
+                .getTageSeitEpoche()));
+    }
 }
@@ -1,11 +1,68 @@
 package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
-public class Geldbetrag
+/**
+ * An amount of money in euro cents.
+ *
+ * Small amounts from {@link #KLEINSTER_VORBELEGTER_BETRAG} to
+ * {@link #GROESSTER_VORBELEGTER_BETRAG} cents, which covers single tickets,
+ * typical totals and change, are created once when the class is loaded. Other
+ * amounts go through a small, fixed-size cache in which a newer amount simply
+ * replaces an older one sharing its slot. Neither structure needs a lock and
+ * neither grows, so equal amounts are not necessarily the same object: compare
+ * with {@link #equals(Object)}.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Geldbetrag
 {
+    /**
+     * The smallest amount in cents that is preallocated.
+     */
+    public static final int KLEINSTER_VORBELEGTER_BETRAG = -1000;
+
+    /**
+     * The largest amount in cents that is preallocated.
+     */
+    public static final int GROESSTER_VORBELEGTER_BETRAG = 10000;
+
+    // Must be a power of two.
+    private static final int CACHE_GROESSE = 1024;
+
+    /**
+     * Returned by {@link #leseEurocent(CharSequence)} for text that does not
+     * depict a Geldbetrag. No Geldbetrag has this many cents.
+     */
+    public static final long KEIN_GELDBETRAG = Long.MIN_VALUE;
+
+    // Above this many euros no amount fits into an int, whatever the sign.
+    private static final long GROESSTE_EURO = -(long) Integer.MIN_VALUE / 100;
+
+    private static final Geldbetrag[] VORBELEGT = new Geldbetrag[GROESSTER_VORBELEGTER_BETRAG
+            - KLEINSTER_VORBELEGTER_BETRAG + 1];
+
+    private static final AtomicReferenceArray<Geldbetrag> CACHE = new AtomicReferenceArray<Geldbetrag>(
+            CACHE_GROESSE);
+
+    private static final LongAdder TREFFER = new LongAdder();
+    private static final LongAdder FEHLGRIFFE = new LongAdder();
+
+    static
+    {
+        for (int i = 0; i < VORBELEGT.length; i++)
+        {
+            VORBELEGT[i] = new Geldbetrag(KLEINSTER_VORBELEGTER_BETRAG + i);
+        }
+    }
+
     private final int _eurocent;
-    private static final HashMap<Integer, Geldbetrag> UNIVERSUM = new HashMap<>();
+
+    // Created on first use. Threads racing here build equal strings, so it
+    // does not matter which one is kept.
+    private String _formatierterString;
 
     private Geldbetrag(int eurocent)
     {
@@ -13,20 +70,94 @@ public class Geldbetrag
     }
 
     /**
-     * Returns a @Geldbetrag object from the @UNIVERSUM pool of possible @Geldbetrag objects.
-     * If none exists, a new one is created and added to the pool.
+     * Returns a @Geldbetrag object for the given amount. Preallocated and
+     * cached objects are reused; otherwise a new one is created and put into
+     * the cache, replacing whatever amount occupied its slot before.
      *
      * @param eurocent The amount of Euro Cents
      * @return A @Geldbetrag object depicting the eurocents passed via argument
+     *
+     * @ensure result != null
+     * @ensure result.getEurocent() == eurocent
      */
     public static Geldbetrag select(int eurocent)
     {
-        if (!UNIVERSUM.containsKey(eurocent))
+        if (eurocent >= KLEINSTER_VORBELEGTER_BETRAG
+                && eurocent <= GROESSTER_VORBELEGTER_BETRAG)
         {
-            UNIVERSUM.put(eurocent, new Geldbetrag(eurocent));
+            TREFFER.increment();
+            return VORBELEGT[eurocent - KLEINSTER_VORBELEGTER_BETRAG];
         }
 
-        return UNIVERSUM.get(eurocent);
+        int fach = cacheFach(eurocent);
+        Geldbetrag betrag = CACHE.get(fach);
+        if (betrag != null && betrag._eurocent == eurocent)
+        {
+            TREFFER.increment();
+            return betrag;
+        }
+        FEHLGRIFFE.increment();
+        betrag = new Geldbetrag(eurocent);
+        CACHE.lazySet(fach, betrag);
+        return betrag;
+    }
+
+    /**
+     * Spreads neighbouring amounts over the cache so that series such as
+     * multiples of a ticket price do not collide.
+     */
+    private static int cacheFach(int eurocent)
+    {
+        int h = eurocent * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (CACHE_GROESSE - 1);
+    }
+
+    /**
+     * Returns how many calls to {@link #select(int)} were answered with an
+     * existing object.
+     */
+    public static long getAnzahlTreffer()
+    {
+        return TREFFER.sum();
+    }
+
+    /**
+     * Returns how many calls to {@link #select(int)} had to create a new
+     * object.
+     */
+    public static long getAnzahlFehlgriffe()
+    {
+        return FEHLGRIFFE.sum();
+    }
+
+    /**
+     * Returns the share of calls to {@link #select(int)} that were answered
+     * with an existing object, or 0 if there were no calls yet.
+     *
+     * @ensure result >= 0 && result <= 1
+     */
+    public static double getTrefferquote()
+    {
+        long treffer = TREFFER.sum();
+        long gesamt = treffer + FEHLGRIFFE.sum();
+        return (gesamt == 0) ? 0 : (double) treffer / gesamt;
+    }
+
+    /**
+     * Returns how many objects are currently held by the preallocated table
+     * and the cache together. This number is bounded by the size of both.
+     */
+    public static int getAnzahlGehalteneBetraege()
+    {
+        int belegt = 0;
+        for (int i = 0; i < CACHE_GROESSE; i++)
+        {
+            if (CACHE.get(i) != null)
+            {
+                belegt++;
+            }
+        }
+        return VORBELEGT.length + belegt;
     }
 
     /**
@@ -41,22 +172,163 @@ public class Geldbetrag
     public static Geldbetrag parse(String geldString)
     {
         assert Geldbetrag.istValiderGeldbetragString(geldString) : "Vorbedingung verletzt";
+
+        return select((int) leseEurocent(geldString));
+    }
+
+    /**
+     * Reads an amount of money in the form "[-]euro[,cent]" with at least one
+     * euro digit and, if there is a comma, exactly two cent digits, e.g. "3",
+     * "03,50" or "-12,00". Nothing is allocated and no exception is thrown for
+     * bad input, so this can run on every keystroke.
+     *
+     * @param text The text to read
+     * @return The amount in euro cents, or {@link #KEIN_GELDBETRAG} if the text
+     *         has a different form or the amount does not fit into a
+     *         Geldbetrag.
+     *
+     * @require text != null
+     */
+    public static long leseEurocent(CharSequence text)
+    {
+        assert text != null : "Vorbedingung verletzt: text != null";
+
+        int laenge = text.length();
+        int i = 0;
+        boolean negativ = (laenge > 0) && (text.charAt(0) == '-');
+        if (negativ)
+        {
+            i++;
+        }
+
+        int ersteZiffer = i;
+        long euro = 0;
+        while (i < laenge && istZiffer(text.charAt(i)))
+        {
+            euro = euro * 10 + (text.charAt(i) - '0');
+            if (euro > GROESSTE_EURO)
+            {
+                return KEIN_GELDBETRAG;
+            }
+            i++;
+        }
+        if (i == ersteZiffer)
+        {
+            return KEIN_GELDBETRAG;
+        }
+
+        int cent = 0;
+        if (i < laenge)
+        {
+            if (laenge - i != 3 || text.charAt(i) != ','
+                    || !istZiffer(text.charAt(i + 1))
+                    || !istZiffer(text.charAt(i + 2)))
+            {
+                return KEIN_GELDBETRAG;
+            }
+            cent = (text.charAt(i + 1) - '0') * 10 + (text.charAt(i + 2) - '0');
+        }
+
+        long eurocent = euro * 100 + cent;
+        if (negativ)
+        {
+            eurocent = -eurocent;
+        }
+        return passtInInt(eurocent) ? eurocent : KEIN_GELDBETRAG;
+    }
+
+    private static boolean istZiffer(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Appends an amount of money in the form "[-]euro,cent" to a
+     * StringBuilder, with at least two euro digits, e.g. "03,50". Apart from
+     * growing the builder nothing is allocated, so one builder can be reused
+     * for many amounts.
+     *
+     * @param eurocent The amount of Euro Cents
+     * @param ziel The builder to append to
+     *
+     * @require ziel != null
+     */
+    public static void formatiere(int eurocent, StringBuilder ziel)
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        long betrag = eurocent;
+        if (betrag < 0)
+        {
+            ziel.append('-');
+            betrag = -betrag;
+        }
+        long euro = betrag / 100;
+        int cent = (int) (betrag % 100);
+        if (euro < 10)
+        {
+            ziel.append('0');
+        }
+        ziel.append(euro);
+        ziel.append(',');
+        ziel.append((char) ('0' + cent / 10));
+        ziel.append((char) ('0' + cent % 10));
+    }
+
+    /**
+     * Appends this amount to a StringBuilder in the form of
+     * {@link #toString()}.
+     *
+     * @param ziel The builder to append to
+     *
+     * @require ziel != null
+     */
+    public void formatiere(StringBuilder ziel)
+    {
+        formatiere(_eurocent, ziel);
+    }
+
+    /**
+     * Returns the amount in euro cents.
+     */
+    public int getEurocent()
+    {
+        return _eurocent;
     }
 
     /**
      * Converts the money that this object depicts into a human-readable string.
+     * The string is built once per object; since small amounts and recently
+     * used large ones share their objects, frequent amounts are formatted only
+     * once.
      *
      * @return The money depicted by this object
      */
     @Override
     public String toString()
     {
-    	String vorzeichen = "";
+        String formatiert = _formatierterString;
+        if (formatiert == null)
+        {
+            StringBuilder ziel = new StringBuilder(12);
+            formatiere(ziel);
+            formatiert = ziel.toString();
+            _formatierterString = formatiert;
+        }
+        return formatiert;
+    }
 
-    	if (Math.signum(_eurocent) == -1.0)
-    		vorzeichen = "-";
+    @Override
+    public boolean equals(Object o)
+    {
+        return (o == this)
+                || ((o instanceof Geldbetrag) && ((Geldbetrag) o)._eurocent == _eurocent);
+    }
 
-        return vorzeichen + Math.abs(_eurocent / 100) + "," + String.format("%02d", Math.abs(_eurocent) % 100) + "€";
+    @Override
+    public int hashCode()
+    {
+        return _eurocent;
     }
 
     /**
@@ -73,6 +345,8 @@ public class Geldbetrag
     {
         assert geldbetrag1 != null && geldbetrag2 != null: "Vorbedingung verletzt";
         assert Geldbetrag.istAddierenMoeglich(geldbetrag1, geldbetrag2): "Vorbedingung verletzt";
+
+        return select(geldbetrag1._eurocent + geldbetrag2._eurocent);
     }
 
     /**
@@ -89,6 +363,8 @@ public class Geldbetrag
     {
         assert geldbetrag1 != null && geldbetrag2 != null: "Vorbedingung verletzt";
         assert Geldbetrag.istSubtrahierenMoeglich(geldbetrag1, geldbetrag2): "Vorbedingung verletzt";
+
+        return select(geldbetrag1._eurocent - geldbetrag2._eurocent);
     }
 
     /**
@@ -105,21 +381,38 @@ public class Geldbetrag
     {
         assert geldbetrag != null && multiplikator > 0: "Vorbedingung verletzt";
         assert Geldbetrag.istMulitplizierenMoeglich(geldbetrag, multiplikator): "Vorbedingung verletzt";
+
+        return select(geldbetrag._eurocent * multiplikator);
     }
 
+    /**
+     * Checks whether a String can be read by
+     * {@link #leseEurocent(CharSequence)}, i.e. has the form "[-]euro[,cent]"
+     * and depicts an amount that fits into a Geldbetrag.
+     */
     public static boolean istValiderGeldbetragString(String geldbetragString)
     {
+        return geldbetragString != null
+                && leseEurocent(geldbetragString) != KEIN_GELDBETRAG;
     }
 
     public static boolean istAddierenMoeglich(Geldbetrag geldbetrag1, Geldbetrag geldbetrag2)
     {
+        return passtInInt((long) geldbetrag1._eurocent + geldbetrag2._eurocent);
     }
 
     public static boolean istSubtrahierenMoeglich(Geldbetrag geldbetrag1, Geldbetrag geldbetrag2)
     {
+        return passtInInt((long) geldbetrag1._eurocent - geldbetrag2._eurocent);
     }
 
     public static boolean istMulitplizierenMoeglich(Geldbetrag geldbetrag1, int mulitplikator)
     {
+        return passtInInt((long) geldbetrag1._eurocent * mulitplikator);
+    }
+
+    private static boolean passtInInt(long eurocent)
+    {
+        return eurocent >= Integer.MIN_VALUE && eurocent <= Integer.MAX_VALUE;
     }
 }
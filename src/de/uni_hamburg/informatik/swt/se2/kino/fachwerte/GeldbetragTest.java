@@ -75,7 +75,7 @@ public class GeldbetragTest
         Geldbetrag geldbetrag2 = Geldbetrag.select(100);
         Geldbetrag ergebnisGeldbetrag = Geldbetrag.select(200);
 
-        assertEquals(Geldbetrag.addiere(geldbetrag1, geldbetrag2), ergebnisGeldbetrag);
+        assertEquals(Geldbetrag.subtrahiere(geldbetrag1, geldbetrag2), ergebnisGeldbetrag);
     }
 
     @Test
@@ -167,4 +167,95 @@ public class GeldbetragTest
         assertTrue(Geldbetrag.istMulitplizierenMoeglich(geldbetrag, multiplikator));
         assertFalse(Geldbetrag.istMulitplizierenMoeglich(maxGeldbetrag, multiplikator));
     }
+
+    @Test
+    public void testSelectVorbelegteBetraege()
+    {
+        assertSame(Geldbetrag.select(800), Geldbetrag.select(800));
+        assertSame(Geldbetrag.select(Geldbetrag.KLEINSTER_VORBELEGTER_BETRAG),
+                Geldbetrag.select(Geldbetrag.KLEINSTER_VORBELEGTER_BETRAG));
+        assertSame(Geldbetrag.select(Geldbetrag.GROESSTER_VORBELEGTER_BETRAG),
+                Geldbetrag.select(Geldbetrag.GROESSTER_VORBELEGTER_BETRAG));
+    }
+
+    @Test
+    public void testSelectGrosseBetraege()
+    {
+        Geldbetrag betrag = Geldbetrag.select(123456789);
+        assertEquals(123456789, betrag.getEurocent());
+        assertEquals(betrag, Geldbetrag.select(123456789));
+        assertEquals(betrag.hashCode(), Geldbetrag.select(123456789).hashCode());
+        assertNotEquals(betrag, Geldbetrag.select(123456788));
+    }
+
+    @Test
+    public void testCacheBleibtBeschraenkt()
+    {
+        int vorher = Geldbetrag.getAnzahlGehalteneBetraege();
+        long fehlgriffe = Geldbetrag.getAnzahlFehlgriffe();
+        for (int i = 0; i < 100000; i++)
+        {
+            assertEquals(1000000 + i, Geldbetrag.select(1000000 + i)
+                    .getEurocent());
+        }
+        assertTrue(Geldbetrag.getAnzahlFehlgriffe() > fehlgriffe);
+        assertTrue(Geldbetrag.getAnzahlGehalteneBetraege() - vorher <= 1024);
+
+        long treffer = Geldbetrag.getAnzahlTreffer();
+        Geldbetrag.select(1000);
+        assertEquals(treffer + 1, Geldbetrag.getAnzahlTreffer());
+        assertTrue(Geldbetrag.getTrefferquote() > 0);
+        assertTrue(Geldbetrag.getTrefferquote() < 1);
+    }
+
+    @Test
+    public void testLeseEurocent()
+    {
+        assertEquals(350, Geldbetrag.leseEurocent("3,50"));
+        assertEquals(350, Geldbetrag.leseEurocent("03,50"));
+        assertEquals(1200, Geldbetrag.leseEurocent("12"));
+        assertEquals(-1200, Geldbetrag.leseEurocent("-12,00"));
+        assertEquals(0, Geldbetrag.leseEurocent("0"));
+        assertEquals(Integer.MAX_VALUE, Geldbetrag.leseEurocent("21474836,47"));
+        assertEquals(Integer.MIN_VALUE, Geldbetrag.leseEurocent("-21474836,48"));
+
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent(""));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("-"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("1,"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("1,5"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("1,500"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("1.50"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("a"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG, Geldbetrag.leseEurocent("--1"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG,
+                Geldbetrag.leseEurocent("21474836,48"));
+        assertEquals(Geldbetrag.KEIN_GELDBETRAG,
+                Geldbetrag.leseEurocent("99999999999999999999999"));
+    }
+
+    @Test
+    public void testFormatiereInStringBuilder()
+    {
+        StringBuilder ziel = new StringBuilder();
+        Geldbetrag.formatiere(5, ziel);
+        ziel.append(' ');
+        Geldbetrag.select(-150099).formatiere(ziel);
+        ziel.append(' ');
+        Geldbetrag.formatiere(Integer.MIN_VALUE, ziel);
+        assertEquals("00,05 -1500,99 -21474836,48", ziel.toString());
+
+        for (int eurocent = -20000; eurocent <= 20000; eurocent += 7)
+        {
+            Geldbetrag betrag = Geldbetrag.select(eurocent);
+            assertEquals(betrag, Geldbetrag.parse(betrag.toString()));
+        }
+    }
+
+    @Test
+    public void testToStringWirdWiederverwendet()
+    {
+        Geldbetrag betrag = Geldbetrag.select(850);
+        assertSame(betrag.toString(), betrag.toString());
+        assertEquals("08,50", betrag.toString());
+    }
 }
@@ -1,14 +1,43 @@
 package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Eine Sitzplatzangabe in einem Kinosaal. Der Platz setzt sich zusammen aus der
  * Reihe und dem Sitz in dieser Reihe.
  * 
+ * Für Reihen von 0 bis unter {@link #MAX_REIHEN} und Sitze von 0 bis unter
+ * {@link #MAX_SITZE} liefert {@link #get(int, int)} immer dasselbe Objekt;
+ * solche Plätze können also mit <code>==</code> verglichen werden. Die
+ * Objekte werden reihenweise beim ersten Zugriff angelegt. Plätze außerhalb
+ * dieses Bereichs werden bei jedem Aufruf neu erzeugt und sind nur gleich im
+ * Sinne von {@link #equals(Object)}.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Platz
 {
+    /**
+     * Die Anzahl der Reihen, für die es kanonische Platz-Objekte gibt.
+     */
+    public static final int MAX_REIHEN = 128;
+
+    /**
+     * Die Anzahl der Sitze pro Reihe, für die es kanonische Platz-Objekte
+     * gibt.
+     */
+    public static final int MAX_SITZE = 128;
+
+    private static final int BITS_FUER_SITZ = 16;
+    private static final int MASKE_FUER_SITZ = (1 << BITS_FUER_SITZ) - 1;
+
+    // Pro Reihe ein Feld mit allen Plätzen der Reihe. Eine Reihe wird per CAS
+    // veröffentlicht, damit auch bei gleichzeitigem ersten Zugriff nur ein
+    // Satz Objekte in Umlauf kommt.
+    private static final AtomicReferenceArray<Platz[]> KANONISCHE_PLAETZE = new AtomicReferenceArray<Platz[]>(
+            MAX_REIHEN);
+
     private final int _reihe;
     private final int _sitz;
 
@@ -28,9 +57,73 @@ public final class Platz
         assert reihe >= 0 : "Vorbedingung verletzt: reihe >= 0";
         assert sitz >= 0 : "Vorbedingung verletzt: sitz >= 0";
 
+        if (reihe >= 0 && reihe < MAX_REIHEN && sitz >= 0 && sitz < MAX_SITZE)
+        {
+            Platz[] plaetzeDerReihe = KANONISCHE_PLAETZE.get(reihe);
+            if (plaetzeDerReihe == null)
+            {
+                plaetzeDerReihe = legeReiheAn(reihe);
+            }
+            return plaetzeDerReihe[sitz];
+        }
         return new Platz(reihe, sitz);
     }
 
+    /**
+     * Gibt den Platz zu einer Kodierung zurück, wie sie
+     * {@link #getKodierung()} liefert.
+     * 
+     * @require kodierung >= 0
+     * 
+     * @ensure result.getKodierung() == kodierung
+     */
+    public static Platz ausKodierung(int kodierung)
+    {
+        assert kodierung >= 0 : "Vorbedingung verletzt: kodierung >= 0";
+
+        return get(kodierung >>> BITS_FUER_SITZ, kodierung & MASKE_FUER_SITZ);
+    }
+
+    /**
+     * Prüft, ob sich dieser Platz als <code>int</code> kodieren lässt, also
+     * die Reihe kleiner als 2^15 und der Sitz kleiner als 2^16 ist.
+     */
+    public boolean istKodierbar()
+    {
+        return _reihe < (1 << (31 - BITS_FUER_SITZ))
+                && _sitz <= MASKE_FUER_SITZ;
+    }
+
+    /**
+     * Gibt diesen Platz als <code>int</code> kodiert zurück: die Reihe in den
+     * oberen, der Sitz in den unteren 16 Bits. Anders als der Platzindex eines
+     * Kinosaals hängt die Kodierung nicht von der Größe des Saals ab.
+     * 
+     * @require istKodierbar()
+     * 
+     * @ensure result >= 0
+     */
+    public int getKodierung()
+    {
+        assert istKodierbar() : "Vorbedingung verletzt: istKodierbar()";
+
+        return (_reihe << BITS_FUER_SITZ) | _sitz;
+    }
+
+    private static Platz[] legeReiheAn(int reihe)
+    {
+        Platz[] plaetzeDerReihe = new Platz[MAX_SITZE];
+        for (int sitz = 0; sitz < MAX_SITZE; sitz++)
+        {
+            plaetzeDerReihe[sitz] = new Platz(reihe, sitz);
+        }
+        if (KANONISCHE_PLAETZE.compareAndSet(reihe, null, plaetzeDerReihe))
+        {
+            return plaetzeDerReihe;
+        }
+        return KANONISCHE_PLAETZE.get(reihe);
+    }
+
     private Platz(int reihe, int sitz)
     {
         _reihe = reihe;
@@ -56,7 +149,7 @@ public final class Platz
     @Override
     public boolean equals(Object o)
     {
-        return (o instanceof Platz) && equals((Platz) o);
+        return (o == this) || ((o instanceof Platz) && equals((Platz) o));
     }
 
     private boolean equals(Platz andererPlatz)
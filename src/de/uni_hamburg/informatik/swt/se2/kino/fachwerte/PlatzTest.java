@@ -2,6 +2,8 @@ package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -38,4 +40,49 @@ public class PlatzTest
         assertFalse(p1.equals(p3));
         assertFalse(p1.equals(p4));
     }
+
+    @Test
+    public void testKanonischePlaetze()
+    {
+        assertSame(Platz.get(3, 7), Platz.get(3, 7));
+        assertSame(Platz.get(Platz.MAX_REIHEN - 1, Platz.MAX_SITZE - 1),
+                Platz.get(Platz.MAX_REIHEN - 1, Platz.MAX_SITZE - 1));
+
+        // Außerhalb der Tabelle gibt es neue, aber gleiche Objekte
+        Platz p1 = Platz.get(Platz.MAX_REIHEN, 0);
+        Platz p2 = Platz.get(Platz.MAX_REIHEN, 0);
+        assertNotSame(p1, p2);
+        assertEquals(p1, p2);
+    }
+
+    @Test
+    public void testNegativeWerteOhneAssertsLiefernPlatz()
+    {
+        boolean assertsAn = false;
+        assert assertsAn = true;
+        if (assertsAn)
+        {
+            // Mit -ea greift die Vorbedingung, geprüft wird der Betrieb ohne
+            return;
+        }
+        Platz p = Platz.get(-1, 3);
+        assertEquals(-1, p.getReihe());
+        assertEquals(3, p.getSitz());
+        assertEquals(p, Platz.get(-1, 3));
+        assertEquals(-2, Platz.get(2, -2).getSitz());
+    }
+
+    @Test
+    public void testKodierung()
+    {
+        assertEquals(0, Platz.get(0, 0).getKodierung());
+        assertEquals((5 << 16) | 9, Platz.get(5, 9).getKodierung());
+        assertSame(Platz.get(5, 9), Platz.ausKodierung((5 << 16) | 9));
+
+        Platz gross = Platz.get(30000, 60000);
+        assertTrue(gross.istKodierbar());
+        assertEquals(gross, Platz.ausKodierung(gross.getKodierung()));
+        assertFalse(Platz.get(40000, 0).istKodierbar());
+        assertFalse(Platz.get(0, 70000).istKodierbar());
+    }
 }
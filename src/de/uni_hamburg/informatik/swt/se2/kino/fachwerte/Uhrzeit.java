@@ -3,15 +3,31 @@ package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 /**
  * Eine Uhrzeit, angegeben in Stunden und Minuten.
  * 
+ * Es gibt genau ein Exemplar pro Minute des Tages. Alle 1440 Uhrzeiten werden
+ * beim Laden der Klasse samt ihrer formatierten Darstellung angelegt; gleiche
+ * Uhrzeiten sind also immer dasselbe Objekt.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Uhrzeit implements Comparable<Uhrzeit>
 {
     private static final int MINUTEN_PRO_TAG = 24 * 60;
-    
+
+    // Die Uhrzeit für die Minute m des Tages liegt im Fach m.
+    private static final Uhrzeit[] ALLE_UHRZEITEN = new Uhrzeit[MINUTEN_PRO_TAG];
+
+    static
+    {
+        for (int minute = 0; minute < MINUTEN_PRO_TAG; minute++)
+        {
+            ALLE_UHRZEITEN[minute] = new Uhrzeit(minute / 60, minute % 60);
+        }
+    }
+
     private final int _stunden;
     private final int _minuten;
+    private final String _formatierterString;
     
     /**
      * Wählt eine Uhrzeit aus.
@@ -27,7 +43,24 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     {
         assert istGueltig(stunden, minuten) : "Vorbedingung verletzt: istGueltig(stunden, minuten)";
 
-        return new Uhrzeit(stunden, minuten);
+        return ALLE_UHRZEITEN[stunden * 60 + minuten];
+    }
+
+    /**
+     * Gibt die Uhrzeit zurück, die die angegebene Anzahl Minuten nach
+     * Mitternacht liegt.
+     * 
+     * @require minutenSeitMitternacht >= 0
+     * @require minutenSeitMitternacht < 24 * 60
+     * 
+     * @ensure result.getMinutenSeitMitternacht() == minutenSeitMitternacht
+     */
+    public static Uhrzeit ausMinutenSeitMitternacht(int minutenSeitMitternacht)
+    {
+        assert minutenSeitMitternacht >= 0 : "Vorbedingung verletzt: minutenSeitMitternacht >= 0";
+        assert minutenSeitMitternacht < MINUTEN_PRO_TAG : "Vorbedingung verletzt: minutenSeitMitternacht < 24 * 60";
+
+        return ALLE_UHRZEITEN[minutenSeitMitternacht];
     }
 
     /**
@@ -42,6 +75,9 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     {
         _stunden = stunden;
         _minuten = minuten;
+        _formatierterString = new String(new char[] {
+                (char) ('0' + stunden / 10), (char) ('0' + stunden % 10), ':',
+                (char) ('0' + minuten / 10), (char) ('0' + minuten % 10) });
     }
 
     /**
@@ -79,7 +115,7 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     {
         assert start != null : "Vorbedingung verletzt: start != null";
 
-        int differenz = this.minutenSeitMitternacht() - start.minutenSeitMitternacht();
+        int differenz = this.getMinutenSeitMitternacht() - start.getMinutenSeitMitternacht();
         if (differenz < 0)
         {
             differenz += MINUTEN_PRO_TAG;
@@ -87,7 +123,12 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
         return differenz;
     }
 
-    private int minutenSeitMitternacht()
+    /**
+     * Gibt zurück, wie viele Minuten seit Mitternacht vergangen sind.
+     * 
+     * @ensure (result >= 0) && (result < 24 * 60)
+     */
+    public int getMinutenSeitMitternacht()
     {
         return _stunden * 60 + _minuten;
     }
@@ -95,7 +136,7 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     @Override
     public int compareTo(Uhrzeit u)
     {
-        return this.minutenSeitMitternacht() - u.minutenSeitMitternacht();
+        return this.getMinutenSeitMitternacht() - u.getMinutenSeitMitternacht();
     }
 
     /**
@@ -105,7 +146,7 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     @Override
     public boolean equals(Object o)
     {
-        return (o instanceof Uhrzeit) && equals((Uhrzeit)o);
+        return (o == this) || ((o instanceof Uhrzeit) && equals((Uhrzeit)o));
     }
     
     private boolean equals(Uhrzeit andereUhrzeit)
@@ -116,7 +157,7 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
     @Override
     public int hashCode()
     {
-        return minutenSeitMitternacht();
+        return getMinutenSeitMitternacht();
     }
 
     @Override
@@ -132,6 +173,6 @@ public final class Uhrzeit implements Comparable<Uhrzeit>
      */
     public String getFormatiertenString()
     {
-        return String.format("%02d:%02d", _stunden, _minuten);
+        return _formatierterString;
     }
 }
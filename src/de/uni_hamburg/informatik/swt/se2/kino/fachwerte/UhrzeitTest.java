@@ -2,6 +2,7 @@ package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -70,4 +71,30 @@ public class UhrzeitTest
         assertEquals("HashCodes mit gleicher Uhrzeit sind gleich",
                 u1.hashCode(), u2.hashCode());
     }
+
+    @Test
+    public void testeKanonischeUhrzeiten()
+    {
+        assertSame(Uhrzeit.get(20, 15), Uhrzeit.get(20, 15));
+        assertSame(Uhrzeit.get(20, 15), Uhrzeit.ausMinutenSeitMitternacht(1215));
+        assertEquals(1215, Uhrzeit.get(20, 15).getMinutenSeitMitternacht());
+        assertSame(Uhrzeit.get(0, 0), Uhrzeit.ausMinutenSeitMitternacht(0));
+        assertSame(Uhrzeit.get(23, 59), Uhrzeit.ausMinutenSeitMitternacht(1439));
+    }
+
+    @Test
+    public void testeFormatiertenString()
+    {
+        assertEquals("00:00", Uhrzeit.get(0, 0).getFormatiertenString());
+        assertEquals("09:05", Uhrzeit.get(9, 5).getFormatiertenString());
+        assertEquals("23:59", Uhrzeit.get(23, 59).toString());
+        for (int stunden = 0; stunden < 24; stunden++)
+        {
+            for (int minuten = 0; minuten < 60; minuten++)
+            {
+                assertEquals(String.format("%02d:%02d", stunden, minuten),
+                        Uhrzeit.get(stunden, minuten).getFormatiertenString());
+            }
+        }
+    }
 }
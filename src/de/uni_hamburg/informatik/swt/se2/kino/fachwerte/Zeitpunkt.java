@@ -0,0 +1,173 @@
+package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
+
+/**
+ * Ein Zeitpunkt auf die Minute genau, bestehend aus Datum und Uhrzeit.
+ * 
+ * Ein Zeitpunkt wird als Anzahl der Minuten seit dem 1.1.1970, 00:00 Uhr in
+ * einem <code>long</code> gespeichert. Zeitpunkte lassen sich deshalb über
+ * Tagesgrenzen hinweg vergleichen und voneinander abziehen; wer viele
+ * Zeitpunkte sortieren oder Intervalle prüfen will, kann direkt mit
+ * {@link #getMinutenSeitEpoche()} rechnen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Zeitpunkt implements Comparable<Zeitpunkt>
+{
+    private static final int MINUTEN_PRO_TAG = 24 * 60;
+
+    private final long _minutenSeitEpoche;
+
+    /**
+     * Wählt den Zeitpunkt aus, an dem am angegebenen Datum die angegebene
+     * Uhrzeit ist.
+     * 
+     * @require datum != null
+     * @require uhrzeit != null
+     * 
+     * @ensure result.getDatum().equals(datum)
+     * @ensure result.getUhrzeit() == uhrzeit
+     */
+    public static Zeitpunkt get(Datum datum, Uhrzeit uhrzeit)
+    {
+        assert datum != null : "Vorbedingung verletzt: datum != null";
+        assert uhrzeit != null : "Vorbedingung verletzt: uhrzeit != null";
+
+        return new Zeitpunkt(alsMinutenSeitEpoche(datum, uhrzeit));
+    }
+
+    /**
+     * Wählt den Zeitpunkt aus, der die angegebene Anzahl Minuten nach dem
+     * 1.1.1970, 00:00 Uhr liegt.
+     * 
+     * @ensure result.getMinutenSeitEpoche() == minutenSeitEpoche
+     */
+    public static Zeitpunkt ausMinutenSeitEpoche(long minutenSeitEpoche)
+    {
+        return new Zeitpunkt(minutenSeitEpoche);
+    }
+
+    /**
+     * Rechnet Datum und Uhrzeit in Minuten seit dem 1.1.1970, 00:00 Uhr um,
+     * ohne ein Objekt zu erzeugen.
+     * 
+     * @require datum != null
+     * @require uhrzeit != null
+     */
+    public static long alsMinutenSeitEpoche(Datum datum, Uhrzeit uhrzeit)
+    {
+        assert datum != null : "Vorbedingung verletzt: datum != null";
+        assert uhrzeit != null : "Vorbedingung verletzt: uhrzeit != null";
+
+        return (long) datum.getTageSeitEpoche() * MINUTEN_PRO_TAG
+                + uhrzeit.getMinutenSeitMitternacht();
+    }
+
+    private Zeitpunkt(long minutenSeitEpoche)
+    {
+        _minutenSeitEpoche = minutenSeitEpoche;
+    }
+
+    /**
+     * Gibt zurück, wie viele Minuten seit dem 1.1.1970, 00:00 Uhr vergangen
+     * sind.
+     */
+    public long getMinutenSeitEpoche()
+    {
+        return _minutenSeitEpoche;
+    }
+
+    /**
+     * Gibt das Datum dieses Zeitpunkts zurück.
+     * 
+     * @ensure result != null
+     */
+    public Datum getDatum()
+    {
+        return Datum.ausTagenSeitEpoche((int) Math.floorDiv(_minutenSeitEpoche,
+                MINUTEN_PRO_TAG));
+    }
+
+    /**
+     * Gibt die Uhrzeit dieses Zeitpunkts zurück.
+     * 
+     * @ensure result != null
+     */
+    public Uhrzeit getUhrzeit()
+    {
+        return Uhrzeit.ausMinutenSeitMitternacht(Math.floorMod(
+                _minutenSeitEpoche, MINUTEN_PRO_TAG));
+    }
+
+    /**
+     * Gibt den Zeitpunkt zurück, der die angegebene Anzahl Minuten nach
+     * diesem liegt; bei negativer Anzahl entsprechend davor.
+     */
+    public Zeitpunkt plusMinuten(long minuten)
+    {
+        return new Zeitpunkt(_minutenSeitEpoche + minuten);
+    }
+
+    /**
+     * Berechnet, wie viele Minuten seit dem angegebenen Zeitpunkt bis zu
+     * diesem vergangen sind. Liegt der angegebene Zeitpunkt später, ist das
+     * Ergebnis negativ.
+     * 
+     * @require start != null
+     */
+    public long minutenSeit(Zeitpunkt start)
+    {
+        assert start != null : "Vorbedingung verletzt: start != null";
+
+        return _minutenSeitEpoche - start._minutenSeitEpoche;
+    }
+
+    /**
+     * Gibt an, ob dieser Zeitpunkt vor dem angegebenen liegt.
+     * 
+     * @require anderer != null
+     */
+    public boolean istVor(Zeitpunkt anderer)
+    {
+        assert anderer != null : "Vorbedingung verletzt: anderer != null";
+
+        return _minutenSeitEpoche < anderer._minutenSeitEpoche;
+    }
+
+    @Override
+    public int compareTo(Zeitpunkt anderer)
+    {
+        return Long.compare(_minutenSeitEpoche, anderer._minutenSeitEpoche);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        return (o instanceof Zeitpunkt)
+                && ((Zeitpunkt) o)._minutenSeitEpoche == _minutenSeitEpoche;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(_minutenSeitEpoche);
+    }
+
+    /**
+     * Gibt diesen Zeitpunkt formatiert zurück in der Schreibweise
+     * Tag.Monat.Jahr Stunden:Minuten.
+     * 
+     * @ensure result != null
+     */
+    public String getFormatiertenString()
+    {
+        return getDatum().getFormatiertenString() + " "
+                + getUhrzeit().getFormatiertenString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getFormatiertenString();
+    }
+}
@@ -0,0 +1,64 @@
+package de.uni_hamburg.informatik.swt.se2.kino.fachwerte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ZeitpunktTest
+{
+    @Test
+    public void testeDatumUndUhrzeit()
+    {
+        Datum datum = Datum.get(11, 7, 2008);
+        Zeitpunkt zeitpunkt = Zeitpunkt.get(datum, Uhrzeit.get(20, 15));
+        assertEquals(datum, zeitpunkt.getDatum());
+        assertSame(Uhrzeit.get(20, 15), zeitpunkt.getUhrzeit());
+        assertEquals("11.07.2008 20:15", zeitpunkt.getFormatiertenString());
+        assertEquals(Zeitpunkt.alsMinutenSeitEpoche(datum, Uhrzeit.get(20, 15)),
+                zeitpunkt.getMinutenSeitEpoche());
+    }
+
+    @Test
+    public void testeMinutenSeitEpoche()
+    {
+        assertEquals(0, Zeitpunkt.get(Datum.get(1, 1, 1970), Uhrzeit.get(0, 0))
+                .getMinutenSeitEpoche());
+        assertEquals(-1, Zeitpunkt.get(Datum.get(31, 12, 1969),
+                Uhrzeit.get(23, 59)).getMinutenSeitEpoche());
+
+        Zeitpunkt vorEpoche = Zeitpunkt.ausMinutenSeitEpoche(-1);
+        assertEquals(Datum.get(31, 12, 1969), vorEpoche.getDatum());
+        assertSame(Uhrzeit.get(23, 59), vorEpoche.getUhrzeit());
+    }
+
+    @Test
+    public void testeUeberMitternacht()
+    {
+        Zeitpunkt spaet = Zeitpunkt.get(Datum.get(31, 12, 2020),
+                Uhrzeit.get(22, 30));
+        Zeitpunkt nacht = spaet.plusMinuten(150);
+        assertEquals(Datum.get(1, 1, 2021), nacht.getDatum());
+        assertSame(Uhrzeit.get(1, 0), nacht.getUhrzeit());
+        assertEquals(150, nacht.minutenSeit(spaet));
+        assertEquals(-150, spaet.minutenSeit(nacht));
+    }
+
+    @Test
+    public void testeVergleich()
+    {
+        Datum datum = Datum.get(1, 1, 2021);
+        Zeitpunkt z1 = Zeitpunkt.get(datum, Uhrzeit.get(23, 0));
+        Zeitpunkt z2 = Zeitpunkt.get(datum.naechsterTag(), Uhrzeit.get(1, 0));
+        assertTrue(z1.istVor(z2));
+        assertFalse(z2.istVor(z1));
+        assertTrue(z1.compareTo(z2) < 0);
+        assertTrue(z2.compareTo(z1) > 0);
+        assertEquals(z1, Zeitpunkt.get(Datum.get(1, 1, 2021), Uhrzeit.get(23, 0)));
+        assertEquals(z1.hashCode(), Zeitpunkt.get(datum, Uhrzeit.get(23, 0))
+                .hashCode());
+        assertFalse(z1.equals(z2));
+    }
+}
@@ -0,0 +1,100 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Set;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Eine einzelne Änderung der Platzbelegung einer Vorstellung, wie sie im
+ * {@link Belegungsjournal} festgehalten wird.
+ *
+ * Die Sequenznummer eines Ereignisses ist die Version des
+ * {@link Belegungsstand Belegungsstands}, den die Änderung erzeugt hat.
+ * Aufeinander folgende Änderungen haben also lückenlos aufeinander folgende
+ * Sequenznummern.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Belegungsereignis
+{
+    /**
+     * Die Arten von Änderungen der Platzbelegung.
+     */
+    public enum Art
+    {
+        /** Freie Plätze wurden verkauft. */
+        VERKAUF,
+        /** Verkaufte Plätze wurden storniert. */
+        STORNO,
+        /** Freie Plätze wurden reserviert. */
+        RESERVIERUNG,
+        /** Reservierte Plätze wurden verkauft. */
+        VERKAUF_RESERVIERTER,
+        /** Reservierte Plätze wurden wieder freigegeben. */
+        FREIGABE_RESERVIERTER,
+        /**
+         * Die Platzbelegung wurde geschlossen, etwa weil die Vorstellung
+         * verlegt wurde. Das Ereignis betrifft keine Plätze, und es folgt ihm
+         * keines mehr.
+         */
+        SCHLIESSUNG
+    }
+
+    private final long _sequenznummer;
+    private final Art _art;
+    // Die Plätze werden als Maske der Platzbelegung gehalten und erst beim
+    // Abfragen in Platz-Objekte umgewandelt.
+    private final long[] _maske;
+    private final int _woerterProReihe;
+
+    /**
+     * Erzeugt ein Ereignis. Ereignisse werden nur von der Platzbelegung
+     * erzeugt; die Maske wird übernommen und darf danach nicht mehr verändert
+     * werden.
+     */
+    Belegungsereignis(long sequenznummer, Art art, long[] maske,
+            int woerterProReihe)
+    {
+        _sequenznummer = sequenznummer;
+        _art = art;
+        _maske = maske;
+        _woerterProReihe = woerterProReihe;
+    }
+
+    /**
+     * Gibt die Sequenznummer zurück, also die Version des Belegungsstands
+     * direkt nach dieser Änderung.
+     */
+    public long getSequenznummer()
+    {
+        return _sequenznummer;
+    }
+
+    /**
+     * Gibt die Art der Änderung zurück.
+     *
+     * @ensure result != null
+     */
+    public Art getArt()
+    {
+        return _art;
+    }
+
+    /**
+     * Gibt die geänderten Plätze zurück. Jeder Aufruf erzeugt eine neue Menge.
+     *
+     * @ensure result != null
+     */
+    public Set<Platz> getPlaetze()
+    {
+        return Platzbelegung.zuPlaetzen(_maske, _woerterProReihe);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Belegungsereignis " + _sequenznummer + ": " + _art + " "
+                + getPlaetze();
+    }
+}
@@ -0,0 +1,146 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Das Journal der Änderungen an der Platzbelegung einer Vorstellung. Jede
+ * erfolgreiche Änderung wird als {@link Belegungsereignis} mit fortlaufender
+ * Sequenznummer angehängt; Ereignisse werden nie verändert oder entfernt,
+ * sondern nur von neueren überschrieben, wenn der Ringpuffer voll ist.
+ *
+ * Wer die Belegung verfolgen will, holt sich einmal den
+ * {@link Belegungsstand} der Vorstellung und liest danach mit
+ * {@link #leseNach(long)} nur noch die Ereignisse nach dessen Version. Ist ein
+ * Leser so weit zurück, dass benötigte Ereignisse bereits überschrieben sind,
+ * erfährt er das und holt sich einen neuen Stand.
+ *
+ * Das Journal sperrt weder beim Anhängen noch beim Lesen. Da jede
+ * Sequenznummer genau einmal vergeben wird, schreibt jeder Eintrag genau ein
+ * Thread. Ein Leser erkennt an der Sequenznummer im Fach, ob der gesuchte
+ * Eintrag schon geschrieben oder bereits überschrieben wurde.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class Belegungsjournal
+{
+    private final int _kapazitaet;
+
+    // Wird erst beim ersten Ereignis angelegt, damit Vorstellungen ohne
+    // Verkäufe keinen Puffer belegen.
+    private volatile AtomicReferenceArray<Belegungsereignis> _puffer;
+
+    /**
+     * Initialisiert ein leeres Journal.
+     *
+     * @param kapazitaet die Anzahl der Ereignisse, die höchstens aufbewahrt
+     *            werden.
+     *
+     * @require kapazitaet > 0 und eine Zweierpotenz
+     */
+    Belegungsjournal(int kapazitaet)
+    {
+        assert kapazitaet > 0 && Integer.bitCount(kapazitaet) == 1 : "Vorbedingung verletzt: kapazitaet > 0 und eine Zweierpotenz";
+
+        _kapazitaet = kapazitaet;
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse zurück, die höchstens aufbewahrt werden.
+     */
+    public int getKapazitaet()
+    {
+        return _kapazitaet;
+    }
+
+    /**
+     * Gibt die Ereignisse mit einer größeren Sequenznummer als der angegebenen
+     * in aufsteigender Reihenfolge und ohne Lücken zurück, soweit sie schon
+     * angehängt sind.
+     *
+     * @param sequenznummer die Sequenznummer des zuletzt gelesenen Ereignisses
+     *            oder die Version des zuletzt geholten Belegungsstands.
+     *
+     * @return die neuen Ereignisse, eine leere Liste, wenn es keine gibt, oder
+     *         <code>null</code>, wenn Ereignisse nach der angegebenen
+     *         Sequenznummer bereits überschrieben wurden. In diesem Fall muss
+     *         der Leser sich einen neuen Belegungsstand holen.
+     *
+     * @require sequenznummer >= 0
+     */
+    public List<Belegungsereignis> leseNach(long sequenznummer)
+    {
+        assert sequenznummer >= 0 : "Vorbedingung verletzt: sequenznummer >= 0";
+
+        List<Belegungsereignis> ereignisse = new ArrayList<Belegungsereignis>();
+        AtomicReferenceArray<Belegungsereignis> puffer = _puffer;
+        if (puffer == null)
+        {
+            return ereignisse;
+        }
+        for (long gesucht = sequenznummer + 1;; gesucht++)
+        {
+            Belegungsereignis ereignis = puffer.get(fach(gesucht));
+            if (ereignis == null || ereignis.getSequenznummer() < gesucht)
+            {
+                // Noch nicht geschrieben
+                return ereignisse;
+            }
+            if (ereignis.getSequenznummer() > gesucht)
+            {
+                // Schon überschrieben
+                return null;
+            }
+            ereignisse.add(ereignis);
+        }
+    }
+
+    /**
+     * Hängt ein Ereignis an. Jede Sequenznummer darf nur einmal angehängt
+     * werden.
+     *
+     * @require ereignis != null
+     */
+    void haengeAn(Belegungsereignis ereignis)
+    {
+        assert ereignis != null : "Vorbedingung verletzt: ereignis != null";
+
+        AtomicReferenceArray<Belegungsereignis> puffer = _puffer;
+        if (puffer == null)
+        {
+            puffer = legePufferAn();
+        }
+        int fach = fach(ereignis.getSequenznummer());
+        while (true)
+        {
+            // Ein Thread, der eine ältere Sequenznummer für dasselbe Fach
+            // schreibt, darf ein neueres Ereignis nicht überschreiben.
+            Belegungsereignis alt = puffer.get(fach);
+            if (alt != null
+                    && alt.getSequenznummer() > ereignis.getSequenznummer())
+            {
+                return;
+            }
+            if (puffer.compareAndSet(fach, alt, ereignis))
+            {
+                return;
+            }
+        }
+    }
+
+    private synchronized AtomicReferenceArray<Belegungsereignis> legePufferAn()
+    {
+        if (_puffer == null)
+        {
+            _puffer = new AtomicReferenceArray<Belegungsereignis>(_kapazitaet);
+        }
+        return _puffer;
+    }
+
+    private int fach(long sequenznummer)
+    {
+        return (int) (sequenznummer & (_kapazitaet - 1));
+    }
+}
@@ -0,0 +1,83 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class BelegungsjournalTest
+{
+    private static Belegungsereignis ereignis(long sequenznummer)
+    {
+        return new Belegungsereignis(sequenznummer,
+                Belegungsereignis.Art.VERKAUF, new long[] {sequenznummer}, 1);
+    }
+
+    @Test
+    public void testeLeeresJournal()
+    {
+        Belegungsjournal journal = new Belegungsjournal(4);
+        assertTrue(journal.leseNach(0).isEmpty());
+        assertTrue(journal.leseNach(17).isEmpty());
+    }
+
+    @Test
+    public void testeLeseNachSequenznummer()
+    {
+        Belegungsjournal journal = new Belegungsjournal(4);
+        journal.haengeAn(ereignis(1));
+        journal.haengeAn(ereignis(2));
+        journal.haengeAn(ereignis(3));
+
+        List<Belegungsereignis> ereignisse = journal.leseNach(0);
+        assertEquals(3, ereignisse.size());
+        assertEquals(1, ereignisse.get(0).getSequenznummer());
+        assertEquals(3, ereignisse.get(2).getSequenznummer());
+
+        ereignisse = journal.leseNach(2);
+        assertEquals(1, ereignisse.size());
+        assertEquals(3, ereignisse.get(0).getSequenznummer());
+        assertTrue(journal.leseNach(3).isEmpty());
+    }
+
+    @Test
+    public void testeLueckeWirdNichtUebersprungen()
+    {
+        Belegungsjournal journal = new Belegungsjournal(4);
+        journal.haengeAn(ereignis(1));
+        // Ereignis 2 ist noch nicht angehängt, 3 schon
+        journal.haengeAn(ereignis(3));
+
+        assertEquals(1, journal.leseNach(0).size());
+        journal.haengeAn(ereignis(2));
+        assertEquals(3, journal.leseNach(0).size());
+    }
+
+    @Test
+    public void testeUeberschriebeneEreignisseWerdenGemeldet()
+    {
+        Belegungsjournal journal = new Belegungsjournal(4);
+        for (long i = 1; i <= 6; i++)
+        {
+            journal.haengeAn(ereignis(i));
+        }
+
+        // 1 und 2 sind überschrieben, 3 bis 6 noch vorhanden
+        assertNull(journal.leseNach(0));
+        assertNull(journal.leseNach(1));
+        assertEquals(4, journal.leseNach(2).size());
+        assertEquals(6, journal.leseNach(5).get(0).getSequenznummer());
+    }
+
+    @Test
+    public void testeVeraltetesEreignisUeberschreibtKeinNeueres()
+    {
+        Belegungsjournal journal = new Belegungsjournal(4);
+        journal.haengeAn(ereignis(5));
+        journal.haengeAn(ereignis(1));
+        assertEquals(5, journal.leseNach(4).get(0).getSequenznummer());
+    }
+}
@@ -0,0 +1,217 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Ein unveränderlicher Stand der Platzbelegung einer Vorstellung. Jede
+ * Änderung der Belegung erzeugt einen neuen Stand mit einer um eins höheren
+ * Version; ein einmal geholter Stand ändert sich nie.
+ *
+ * Wer mehrere Fragen zur Belegung stellen will, etwa um den Platzplan zu
+ * zeichnen oder einen Bericht zu erstellen, holt sich einmal einen Stand und
+ * bekommt so ein in sich stimmiges Bild, ohne Verkäufe aufzuhalten oder von
+ * ihnen aufgehalten zu werden.
+ *
+ * Aufeinander folgende Stände teilen sich alle Reihen, die sich zwischen ihnen
+ * nicht geändert haben.
+ *
+ * Ein geschlossener Stand ist der letzte Stand seiner Vorstellung, etwa weil
+ * sie verlegt wurde. In ihm ist kein Platz mehr verkaufbar.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Belegungsstand
+{
+    private final long _version;
+    private final int _anzahlSitzeProReihe;
+    private final Reihenbelegung[] _reihen;
+    private final int _anzahlVerkauft;
+    private final int _anzahlFrei;
+    private final boolean _geschlossen;
+
+    /**
+     * Erzeugt einen Stand. Das Feld der Reihen wird übernommen und darf danach
+     * nicht mehr verändert werden.
+     */
+    Belegungsstand(long version, int anzahlSitzeProReihe,
+            Reihenbelegung[] reihen, int anzahlVerkauft, int anzahlFrei,
+            boolean geschlossen)
+    {
+        _version = version;
+        _anzahlSitzeProReihe = anzahlSitzeProReihe;
+        _reihen = reihen;
+        _anzahlVerkauft = anzahlVerkauft;
+        _anzahlFrei = anzahlFrei;
+        _geschlossen = geschlossen;
+    }
+
+    /**
+     * Gibt die Version dieses Stands zurück. Der erste Stand einer Vorstellung
+     * hat die Version 0, jede Änderung erhöht sie um eins.
+     */
+    public long getVersion()
+    {
+        return _version;
+    }
+
+    /**
+     * Gibt die Anzahl der Reihen zurück.
+     */
+    public int getAnzahlReihen()
+    {
+        return _reihen.length;
+    }
+
+    /**
+     * Gibt die Anzahl der Sitze pro Reihe zurück.
+     */
+    public int getAnzahlSitzeProReihe()
+    {
+        return _anzahlSitzeProReihe;
+    }
+
+    /**
+     * Prüft, ob der angegebene Platz zu diesem Stand gehört.
+     *
+     * @require platz != null
+     */
+    public boolean hatPlatz(Platz platz)
+    {
+        assert platz != null : "Vorbedingung verletzt: platz != null";
+
+        return platz.getReihe() < _reihen.length
+                && platz.getSitz() < _anzahlSitzeProReihe;
+    }
+
+    /**
+     * Gibt an, ob der angegebene Platz verkauft ist.
+     *
+     * @require hatPlatz(platz)
+     */
+    public boolean istVerkauft(Platz platz)
+    {
+        assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
+
+        return _reihen[platz.getReihe()].istVerkauft(platz.getSitz());
+    }
+
+    /**
+     * Gibt an, ob der angegebene Platz reserviert ist.
+     *
+     * @require hatPlatz(platz)
+     */
+    public boolean istReserviert(Platz platz)
+    {
+        assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
+
+        return _reihen[platz.getReihe()].istReserviert(platz.getSitz());
+    }
+
+    /**
+     * Gibt an, ob der angegebene Platz verkauft werden kann, also weder
+     * verkauft noch reserviert ist und der Stand nicht geschlossen ist.
+     *
+     * @require hatPlatz(platz)
+     */
+    public boolean istVerkaufbar(Platz platz)
+    {
+        return !_geschlossen && !istVerkauft(platz) && !istReserviert(platz);
+    }
+
+    /**
+     * Gibt an, ob die Platzbelegung geschlossen ist. Danach wird nichts mehr
+     * verkauft, storniert oder reserviert.
+     */
+    public boolean istGeschlossen()
+    {
+        return _geschlossen;
+    }
+
+    /**
+     * Gibt die Anzahl der verkauften Plätze zurück.
+     */
+    public int getAnzahlVerkauftePlaetze()
+    {
+        return _anzahlVerkauft;
+    }
+
+    /**
+     * Gibt die Anzahl der verkaufbaren Plätze zurück.
+     */
+    public int getAnzahlFreiePlaetze()
+    {
+        return _anzahlFrei;
+    }
+
+    /**
+     * Gibt die Anzahl der verkaufbaren Plätze in einer Reihe zurück.
+     *
+     * @require reihe >= 0 && reihe < getAnzahlReihen()
+     */
+    public int getAnzahlFreiePlaetze(int reihe)
+    {
+        assert reihe >= 0 && reihe < getAnzahlReihen() : "Vorbedingung verletzt: reihe >= 0 && reihe < getAnzahlReihen()";
+
+        return _reihen[reihe].getAnzahlFrei();
+    }
+
+    /**
+     * Gibt zurück, wie viele verkaufbare Plätze in einer Reihe höchstens
+     * nebeneinander liegen.
+     *
+     * @require reihe >= 0 && reihe < getAnzahlReihen()
+     */
+    public int getLaengsterFreierBlock(int reihe)
+    {
+        assert reihe >= 0 && reihe < getAnzahlReihen() : "Vorbedingung verletzt: reihe >= 0 && reihe < getAnzahlReihen()";
+
+        return _reihen[reihe].getLaengsterFreierBlock();
+    }
+
+    /**
+     * Gibt zurück, wie viele verkaufbare Plätze in irgendeiner Reihe höchstens
+     * nebeneinander liegen.
+     */
+    public int getLaengsterFreierBlock()
+    {
+        int laengster = 0;
+        for (Reihenbelegung reihe : _reihen)
+        {
+            laengster = Math.max(laengster, reihe.getLaengsterFreierBlock());
+        }
+        return laengster;
+    }
+
+    /**
+     * Gibt an, ob kein Platz mehr verkauft werden kann.
+     */
+    public boolean istAusverkauft()
+    {
+        return _anzahlFrei == 0;
+    }
+
+    /**
+     * Gibt die Belegung der angegebenen Reihe zurück.
+     */
+    Reihenbelegung getReihe(int reihe)
+    {
+        return _reihen[reihe];
+    }
+
+    /**
+     * Gibt eine Kopie des Felds der Reihen zurück, in der einzelne Reihen für
+     * einen Folgestand ersetzt werden können.
+     */
+    Reihenbelegung[] kopiereReihen()
+    {
+        return _reihen.clone();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Belegungsstand " + _version + ": " + _anzahlVerkauft
+                + " verkauft, " + _anzahlFrei + " frei";
+    }
+}
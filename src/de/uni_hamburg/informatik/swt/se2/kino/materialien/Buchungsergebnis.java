@@ -0,0 +1,102 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Collections;
+import java.util.Set;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Das Ergebnis einer ausgeführten {@link Platzbuchung}. Ist die Buchung nicht
+ * gelungen, wurde kein einziger Platz geändert; das Ergebnis nennt dann den
+ * Grund und die Plätze, an denen es lag.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Buchungsergebnis
+{
+    /**
+     * Die möglichen Ausgänge einer Buchung.
+     */
+    public enum Status
+    {
+        /** Alle Plätze wurden gebucht. */
+        OK,
+        /** Mindestens ein Platz gehört nicht zum Kinosaal der Vorstellung. */
+        UNGUELTIGE_PLAETZE,
+        /** Mindestens ein Platz war beim Verkauf verkauft oder reserviert. */
+        NICHT_VERKAUFBAR,
+        /** Mindestens ein Platz war beim Storno nicht verkauft. */
+        NICHT_STORNIERBAR
+    }
+
+    private static final Buchungsergebnis OK = new Buchungsergebnis(
+            Status.OK, Collections.<Platz> emptySet());
+
+    private final Status _status;
+    private final Set<Platz> _betroffenePlaetze;
+
+    private Buchungsergebnis(Status status, Set<Platz> betroffenePlaetze)
+    {
+        _status = status;
+        _betroffenePlaetze = Collections.unmodifiableSet(betroffenePlaetze);
+    }
+
+    /**
+     * Gibt das Ergebnis einer gelungenen Buchung zurück.
+     */
+    static Buchungsergebnis ok()
+    {
+        return OK;
+    }
+
+    /**
+     * Erzeugt das Ergebnis einer gescheiterten Buchung.
+     *
+     * @require status != Status.OK
+     * @require !betroffenePlaetze.isEmpty()
+     */
+    static Buchungsergebnis gescheitert(Status status,
+            Set<Platz> betroffenePlaetze)
+    {
+        assert status != Status.OK : "Vorbedingung verletzt: status != Status.OK";
+        assert !betroffenePlaetze.isEmpty() : "Vorbedingung verletzt: !betroffenePlaetze.isEmpty()";
+
+        return new Buchungsergebnis(status, betroffenePlaetze);
+    }
+
+    /**
+     * Gibt an, ob alle Plätze gebucht wurden.
+     */
+    public boolean istErfolgreich()
+    {
+        return _status == Status.OK;
+    }
+
+    /**
+     * Gibt den Ausgang der Buchung zurück.
+     *
+     * @ensure result != null
+     */
+    public Status getStatus()
+    {
+        return _status;
+    }
+
+    /**
+     * Gibt die Plätze zurück, an denen die Buchung gescheitert ist. Bei einer
+     * gelungenen Buchung ist die Menge leer.
+     *
+     * @ensure result != null
+     */
+    public Set<Platz> getBetroffenePlaetze()
+    {
+        return _betroffenePlaetze;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Buchungsergebnis: " + _status + " " + _betroffenePlaetze;
+    }
+}
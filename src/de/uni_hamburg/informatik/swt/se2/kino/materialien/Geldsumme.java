@@ -0,0 +1,139 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Geldbetrag;
+
+/**
+ * Eine veränderliche Summe von Geldbeträgen, etwa der Umsatz eines Tages oder
+ * eines Films. Anders als beim Aufsummieren mit
+ * {@link Geldbetrag#addiere(Geldbetrag, Geldbetrag)} entsteht pro Summand kein
+ * neues Objekt; erst das Ergebnis wird bei Bedarf in einen {@link Geldbetrag}
+ * umgewandelt.
+ *
+ * Die Summe wird in Eurocent als <code>long</code> geführt und kann daher
+ * auch Beträge aufnehmen, die als Geldbetrag nicht mehr darstellbar sind. Ein
+ * Überlauf des <code>long</code> wird mit einer {@link ArithmeticException}
+ * gemeldet statt stillschweigend falsch weiterzurechnen.
+ *
+ * Eine Geldsumme ist nicht threadsicher.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Geldsumme
+{
+    private long _eurocent;
+
+    /**
+     * Erzeugt eine Summe mit dem Wert 0.
+     *
+     * @ensure getEurocent() == 0
+     */
+    public Geldsumme()
+    {
+        _eurocent = 0;
+    }
+
+    /**
+     * Addiert einen Geldbetrag.
+     *
+     * @require betrag != null
+     */
+    public void addiere(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+
+        addiere(betrag.getEurocent());
+    }
+
+    /**
+     * Addiert einen Betrag in Eurocent.
+     */
+    public void addiere(long eurocent)
+    {
+        _eurocent = Math.addExact(_eurocent, eurocent);
+    }
+
+    /**
+     * Addiert das Ergebnis einer anderen Summe.
+     *
+     * @require summe != null
+     */
+    public void addiere(Geldsumme summe)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+
+        addiere(summe._eurocent);
+    }
+
+    /**
+     * Addiert ein Vielfaches eines Betrags in Eurocent, etwa den Preis für
+     * mehrere Plätze.
+     *
+     * @require anzahl >= 0
+     */
+    public void addiereVielfaches(long eurocent, int anzahl)
+    {
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        addiere(Math.multiplyExact(eurocent, anzahl));
+    }
+
+    /**
+     * Subtrahiert einen Geldbetrag.
+     *
+     * @require betrag != null
+     */
+    public void subtrahiere(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+
+        _eurocent = Math.subtractExact(_eurocent, betrag.getEurocent());
+    }
+
+    /**
+     * Setzt die Summe auf 0 zurück, damit sie für die nächste Rechnung
+     * wiederverwendet werden kann.
+     *
+     * @ensure getEurocent() == 0
+     */
+    public void setzeZurueck()
+    {
+        _eurocent = 0;
+    }
+
+    /**
+     * Gibt die Summe in Eurocent zurück.
+     */
+    public long getEurocent()
+    {
+        return _eurocent;
+    }
+
+    /**
+     * Gibt an, ob die Summe als Geldbetrag dargestellt werden kann.
+     */
+    public boolean istAlsGeldbetragDarstellbar()
+    {
+        return _eurocent >= Integer.MIN_VALUE && _eurocent <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gibt die Summe als Geldbetrag zurück.
+     *
+     * @require istAlsGeldbetragDarstellbar()
+     *
+     * @ensure result != null
+     */
+    public Geldbetrag alsGeldbetrag()
+    {
+        assert istAlsGeldbetragDarstellbar() : "Vorbedingung verletzt: istAlsGeldbetragDarstellbar()";
+
+        return Geldbetrag.select((int) _eurocent);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Geldsumme " + _eurocent + " Eurocent";
+    }
+}
@@ -0,0 +1,67 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Geldbetrag;
+
+public class GeldsummeTest
+{
+    @Test
+    public void testeNeueSummeIstNull()
+    {
+        Geldsumme summe = new Geldsumme();
+        assertEquals(0, summe.getEurocent());
+        assertEquals(Geldbetrag.select(0), summe.alsGeldbetrag());
+    }
+
+    @Test
+    public void testeAddierenUndSubtrahieren()
+    {
+        Geldsumme summe = new Geldsumme();
+        summe.addiere(Geldbetrag.select(850));
+        summe.addiere(150);
+        summe.addiereVielfaches(900, 3);
+        summe.subtrahiere(Geldbetrag.select(200));
+        assertEquals(3500, summe.getEurocent());
+
+        Geldsumme andere = new Geldsumme();
+        andere.addiere(summe);
+        andere.addiere(summe);
+        assertEquals(7000, andere.getEurocent());
+        assertEquals(Geldbetrag.select(7000), andere.alsGeldbetrag());
+
+        andere.setzeZurueck();
+        assertEquals(0, andere.getEurocent());
+    }
+
+    @Test
+    public void testeSummeUeberGeldbetragHinaus()
+    {
+        Geldsumme summe = new Geldsumme();
+        summe.addiere(Geldbetrag.select(Integer.MAX_VALUE));
+        assertTrue(summe.istAlsGeldbetragDarstellbar());
+        summe.addiere(Geldbetrag.select(1));
+        assertFalse(summe.istAlsGeldbetragDarstellbar());
+        assertEquals(Integer.MAX_VALUE + 1L, summe.getEurocent());
+    }
+
+    @Test
+    public void testeUeberlaufWirdGemeldet()
+    {
+        Geldsumme summe = new Geldsumme();
+        summe.addiere(Long.MAX_VALUE);
+        try
+        {
+            summe.addiere(1);
+            assertTrue("Überlauf nicht gemeldet", false);
+        }
+        catch (ArithmeticException e)
+        {
+            assertEquals(Long.MAX_VALUE, summe.getEurocent());
+        }
+    }
+}
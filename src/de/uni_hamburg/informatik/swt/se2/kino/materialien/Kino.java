@@ -1,24 +1,78 @@
 package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Zeitpunkt;
 
 /**
  * Ein Kino mit mehreren Kinosälen, in denen Vorstellungen laufen koennen.
  * 
+ * Die Tagespläne liegen in einem Ring, der mit der Anzahl der Tage seit dem
+ * 1.1.1970 indiziert wird und jeden Tag vom ersten bis zum letzten Tag mit
+ * Vorstellungen enthält. Ein Tagesplan wird so ohne Datumsvergleiche über
+ * einen Feldzugriff gefunden.
+ * 
+ * Daneben führt das Kino nach Anfang sortierte Verzeichnisse aller
+ * Vorstellungen, der Vorstellungen jedes Films und der Vorstellungen jedes
+ * Kinosaals, über die sich die Vorstellungen eines Zeitraums finden lassen,
+ * ohne jeden Tagesplan durchzugehen.
+ * 
+ * Der Spielplan kann geändert werden, während an den Kassen verkauft wird.
+ * Vorstellungen lassen sich hinzufügen, absagen und verlegen. Änderungen
+ * werden nacheinander unter einer Schreibsperre ausgeführt; Leser sperren
+ * nicht, mit der unten beschriebenen Ausnahme für Spielplanregeln. Jeder
+ * Tagesplan wird in einem Schritt geändert, so dass ein Leser nie einen
+ * halb geänderten Tag sieht. Die Abfragen über Zeiträume sind schwach
+ * konsistent: Während einer Änderung können sie den Stand davor oder danach
+ * liefern; bei einer Verlegung in einen anderen Tag für einen Moment auch
+ * beide oder keinen Termin der Vorstellung.
+ * 
+ * Wiederkehrende Vorstellungen können als {@link Spielplanregel} hinzugefügt
+ * werden. Ihre Vorstellungen werden erst angelegt, wenn ihr Tag zum ersten Mal
+ * abgefragt wird, über einen Tagesplan, einen Zeitraum oder eine Prüfung auf
+ * Überschneidungen. Der Speicher wächst so mit den Tagen, die tatsächlich
+ * angesehen werden, nicht mit dem ganzen Verkaufszeitraum.
+ * 
+ * Das Anlegen ist eine Änderung und läuft unter der Schreibsperre. Der erste
+ * Leser eines Tages, auf den noch nicht alle Regeln angewandt wurden, wartet
+ * deshalb, bis laufende Änderungen fertig sind, im ungünstigsten Fall auf
+ * einen ganzen Block eines Imports. Jeder Tag ist davon nur einmal nach jeder
+ * neuen Regel betroffen; danach liest jeder Leser den Tag wieder ohne
+ * Sperre. Wer das an den Kassen vermeiden will, ruft die Tage des Verkaufs
+ * vorab einmal über {@link #getTagesplaene(Datum, Datum)} ab.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public class Kino
 {
+    private static final int MINUTEN_PRO_TAG = 24 * 60;
+
     private List<Kinosaal> _kinosaele;
+    private Set<Kinosaal> _kinosaalindex;
+
+    // Die Tagespläne vom ersten bis zum letzten Tag mit Vorstellungen. Ein
+    // längerer Ring wird als Ganzes neu veröffentlicht.
+    private volatile Tagesring _tagesring;
+
+    private final Vorstellungsindex _alleVorstellungen;
+    private final Map<Film, Vorstellungsindex> _vorstellungenNachFilm;
+    private final Map<Kinosaal, Vorstellungsindex> _vorstellungenNachKinosaal;
+
+    // Die Spielplanregeln in der Reihenfolge, in der sie hinzugefügt wurden.
+    // Jeder Tagesplan merkt sich, wie viele davon schon auf ihn angewandt
+    // wurden. Ein längeres Feld wird als Ganzes neu veröffentlicht.
+    private volatile Spielplanregel[] _regeln = new Spielplanregel[0];
 
-    // Die Vorstellungspläne, sortiert nach Tagen.
-    private SortedMap<Datum, Tagesplan> _tagesplaene;
+    // Ändernde Operationen laufen nacheinander unter dieser Sperre
+    private final Object _schreibsperre = new Object();
 
     /**
      * Initialisiert ein Kino.
@@ -33,7 +87,10 @@ public class Kino
      * @require saele enthaelt keine Nullpointer
      * @require vorstellungen enthaelt keine Nullpointer
      * @require alle Vorstellungen laufen in uebergebenen Kinosälen
-     * @require alle Vorstellungen fangen zu unterschiedlichen Zeiten an
+     * 
+     * @throws IllegalArgumentException
+     *             wenn sich zwei Vorstellungen im selben Kinosaal
+     *             überschneiden.
      */
     public Kino(Kinosaal[] saele, Vorstellung[] vorstellungen)
     {
@@ -41,28 +98,581 @@ public class Kino
         assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
 
         _kinosaele = new ArrayList<Kinosaal>(saele.length);
-        _tagesplaene = new TreeMap<Datum, Tagesplan>();
+        _kinosaalindex = new HashSet<Kinosaal>();
 
         for (Kinosaal saal : saele)
         {
             assert saal != null : "Vorbedingung verletzt: saele enthaelt keine Nullpointer";
             _kinosaele.add(saal);
+            _kinosaalindex.add(saal);
         }
 
+        int ersterTag = Integer.MAX_VALUE;
+        int letzterTag = Integer.MIN_VALUE;
         for (Vorstellung vorstellung : vorstellungen)
         {
             assert vorstellung != null : "Vorbedingung verletzt: vorstellungen enthaelt keine Nullpointer";
-            Kinosaal saal = vorstellung.getKinosaal();
-            assert _kinosaele.contains(saal) : "Vorbedingung verletzt: alle Vorstellungen laufen in uebergebenen Kinosaelen";
-            Datum datum = vorstellung.getDatum();
-            Tagesplan tagesplan = _tagesplaene.get(datum);
-            if (tagesplan == null)
+            assert hatKinosaal(vorstellung.getKinosaal()) : "Vorbedingung verletzt: alle Vorstellungen laufen in uebergebenen Kinosaelen";
+            int tag = vorstellung.getDatum().getTageSeitEpoche();
+            ersterTag = Math.min(ersterTag, tag);
+            letzterTag = Math.max(letzterTag, tag);
+        }
+        _tagesring = vorstellungen.length == 0 ? Tagesring.leer() : Tagesring
+                .aus(vorstellungen, ersterTag, letzterTag);
+
+        _alleVorstellungen = new Vorstellungsindex();
+        _vorstellungenNachFilm = new ConcurrentHashMap<Film, Vorstellungsindex>();
+        _vorstellungenNachKinosaal = new ConcurrentHashMap<Kinosaal, Vorstellungsindex>();
+        // In der Reihenfolge der Tagespläne sind die Vorstellungen nach Anfang
+        // sortiert; so wird in die Verzeichnisse immer hinten angefügt.
+        Tagesring ring = _tagesring;
+        for (int i = 0; i < ring.getAnzahlTage(); i++)
+        {
+            for (Vorstellung vorstellung : ring.get(ring.getErsterTag() + i)
+                    .getVorstellungen())
+            {
+                // Auch ohne -ea prüfen: Das Verzeichnis eines Kinosaals ist
+                // nur ohne Überschneidungen verlässlich.
+                Vorstellung ueberschneidung = getUeberschneidung(vorstellung);
+                if (ueberschneidung != null)
+                {
+                    throw new IllegalArgumentException(
+                            "Vorstellungen im selben Kinosaal überschneiden sich: "
+                                    + ueberschneidung.getAnfang() + " und "
+                                    + vorstellung.getAnfang() + " in "
+                                    + vorstellung.getKinosaal().getName());
+                }
+                nimmInVerzeichnisseAuf(vorstellung);
+            }
+        }
+    }
+
+    /**
+     * Fügt dem Kino eine Vorstellung hinzu, sofern sie sich nicht mit einer
+     * anderen Vorstellung im selben Kinosaal überschneidet. Liegt ihr Tag
+     * außerhalb der bisherigen Tagespläne, wird der Ring bis zu diesem Tag
+     * erweitert.
+     * 
+     * @param vorstellung
+     *            die Vorstellung.
+     * @return die Vorstellung, mit der sie sich überschneidet, oder
+     *         <code>null</code>, wenn sie hinzugefügt wurde.
+     * 
+     * @require vorstellung != null
+     * @require hatKinosaal(vorstellung.getKinosaal())
+     * 
+     * @ensure result != null || getTagesplan(vorstellung.getDatum())
+     *         .getVorstellungen().contains(vorstellung)
+     */
+    public Vorstellung fuegeVorstellungHinzu(Vorstellung vorstellung)
+    {
+        assert vorstellung != null : "Vorbedingung verletzt: vorstellung != null";
+        assert hatKinosaal(vorstellung.getKinosaal()) : "Vorbedingung verletzt: hatKinosaal(vorstellung.getKinosaal())";
+
+        synchronized (_schreibsperre)
+        {
+            Vorstellung ueberschneidung = getUeberschneidung(vorstellung);
+            if (ueberschneidung == null)
+            {
+                erweitereRing(vorstellung.getDatum());
+                nimmAuf(vorstellung);
+            }
+            return ueberschneidung;
+        }
+    }
+
+    /**
+     * Fügt dem Kino mehrere Vorstellungen hinzu, etwa einen Block aus einem
+     * Import. Jeder betroffene Tagesplan wird dabei nur einmal geändert.
+     * Vorstellungen, die sich mit einer vorhandenen oder einer früheren
+     * Vorstellung desselben Aufrufs im selben Kinosaal überschneiden, werden
+     * nicht hinzugefügt, sondern zurückgegeben.
+     * 
+     * @param vorstellungen
+     *            die Vorstellungen.
+     * @return die abgelehnten Vorstellungen.
+     * 
+     * @require vorstellungen != null
+     * @require vorstellungen enthaelt keine Nullpointer
+     * @require alle Vorstellungen laufen in Kinosälen dieses Kinos
+     * 
+     * @ensure result != null
+     */
+    public List<Vorstellung> fuegeVorstellungenHinzu(
+            List<Vorstellung> vorstellungen)
+    {
+        assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
+
+        List<Vorstellung> abgelehnt = new ArrayList<Vorstellung>();
+        Vorstellung[] sortiert = vorstellungen
+                .toArray(new Vorstellung[vorstellungen.size()]);
+        Tagesplan.sortiereNachAnfang(sortiert);
+
+        synchronized (_schreibsperre)
+        {
+            int anzahl = 0;
+            for (Vorstellung vorstellung : sortiert)
+            {
+                assert vorstellung != null : "Vorbedingung verletzt: vorstellungen enthaelt keine Nullpointer";
+                assert hatKinosaal(vorstellung.getKinosaal()) : "Vorbedingung verletzt: alle Vorstellungen laufen in Kinosaelen dieses Kinos";
+                if (getUeberschneidung(vorstellung) == null)
+                {
+                    nimmInVerzeichnisseAuf(vorstellung);
+                    sortiert[anzahl++] = vorstellung;
+                }
+                else
+                {
+                    abgelehnt.add(vorstellung);
+                }
+            }
+            if (anzahl > 0)
+            {
+                erweitereRing(sortiert[0].getDatum());
+                erweitereRing(sortiert[anzahl - 1].getDatum());
+            }
+
+            // Nach Anfang sortiert liegen die Vorstellungen eines Tages
+            // nebeneinander
+            int von = 0;
+            while (von < anzahl)
+            {
+                int tag = sortiert[von].getDatum().getTageSeitEpoche();
+                int bis = von + 1;
+                while (bis < anzahl
+                        && sortiert[bis].getDatum().getTageSeitEpoche() == tag)
+                {
+                    bis++;
+                }
+                _tagesring.get(tag).fuegeVorstellungenHinzu(sortiert, von, bis);
+                von = bis;
+            }
+        }
+        return abgelehnt;
+    }
+
+    /**
+     * Fügt dem Kino eine Regel für wiederkehrende Vorstellungen hinzu. Der
+     * Ring wird, falls nötig, bis zum ersten und letzten Tag der Regel
+     * erweitert. Die einzelnen Vorstellungen werden noch nicht angelegt,
+     * sondern erst, wenn ihr Tag zum ersten Mal abgefragt wird; danach sind
+     * sie gewöhnliche Vorstellungen, die verkauft, abgesagt und verlegt
+     * werden können. Eine Regel, die sich mit einer Vorstellung oder einer
+     * anderen Regel überschneidet, wird nicht hinzugefügt.
+     * 
+     * @param regel
+     *            die Spielplanregel.
+     * @return ob die Regel hinzugefügt wurde, also !hatUeberschneidung(regel)
+     *         galt.
+     * 
+     * @require regel != null
+     * @require hatKinosaal(regel.getKinosaal())
+     * 
+     * @ensure result == getRegeln().contains(regel)
+     */
+    public boolean fuegeRegelHinzu(Spielplanregel regel)
+    {
+        assert regel != null : "Vorbedingung verletzt: regel != null";
+        assert hatKinosaal(regel.getKinosaal()) : "Vorbedingung verletzt: hatKinosaal(regel.getKinosaal())";
+
+        synchronized (_schreibsperre)
+        {
+            // Die Vorstellungen der Regel werden später ohne weitere
+            // Prüfung angelegt; deshalb auch ohne -ea hier prüfen.
+            if (hatUeberschneidung(regel))
+            {
+                return false;
+            }
+            erweitereRing(regel.getErsterTag());
+            erweitereRing(regel.getLetzterTag());
+            Spielplanregel[] regeln = Arrays.copyOf(_regeln, _regeln.length + 1);
+            regeln[regeln.length - 1] = regel;
+            _regeln = regeln;
+            return true;
+        }
+    }
+
+    /**
+     * Prüft, ob sich eine Vorstellung der angegebenen Regel im selben
+     * Kinosaal mit einer Vorstellung des Kinos oder einer Vorstellung einer
+     * anderen Regel überschneidet. Dabei werden keine Vorstellungen angelegt:
+     * Angelegte Vorstellungen werden im Verzeichnis des Kinosaals gesucht, die
+     * übrigen Vorstellungen anderer Regeln werden nur berechnet.
+     * 
+     * @param regel
+     *            die zu prüfende Regel.
+     * 
+     * @require regel != null
+     */
+    public boolean hatUeberschneidung(Spielplanregel regel)
+    {
+        assert regel != null : "Vorbedingung verletzt: regel != null";
+
+        Tagesring ring = _tagesring;
+        Spielplanregel[] regeln = _regeln;
+        Vorstellungsindex saal = _vorstellungenNachKinosaal.get(regel
+                .getKinosaal());
+
+        // Nur Regeln im selben Kinosaal kommen in Frage
+        int[] imSaal = new int[regeln.length];
+        int anzahlImSaal = 0;
+        for (int i = 0; i < regeln.length; i++)
+        {
+            if (regeln[i].getKinosaal().equals(regel.getKinosaal()))
+            {
+                imSaal[anzahlImSaal++] = i;
+            }
+        }
+
+        int letzterTag = regel.getLetzterTag().getTageSeitEpoche();
+        int abstand = regel.getAbstandInTagen();
+        for (int tag = regel.getErsterTag().getTageSeitEpoche(); tag <= letzterTag; tag += abstand)
+        {
+            long anfang = regel.getAnfangAm(tag);
+            long ende = anfang + regel.getDauer();
+            if (saal != null
+                    && saal.getUeberschneidung(anfang, ende, null) != null)
+            {
+                return true;
+            }
+            // Eine Vorstellung dauert weniger als einen Tag und kann sich
+            // daher nur mit Vorstellungen vom Vortag bis zum Folgetag
+            // überschneiden.
+            for (int j = 0; j < anzahlImSaal; j++)
+            {
+                Spielplanregel andere = regeln[imSaal[j]];
+                for (int t = tag - 1; t <= tag + 1; t++)
+                {
+                    if (andere.giltAm(t)
+                            && !istAngewandt(ring, t, imSaal[j])
+                            && ueberschneidenSich(anfang, ende,
+                                    andere.getAnfangAm(t), andere.getAnfangAm(t)
+                                            + andere.getDauer()))
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gibt die Spielplanregeln dieses Kinos in der Reihenfolge zurück, in der
+     * sie hinzugefügt wurden.
+     * 
+     * @ensure result != null
+     */
+    public List<Spielplanregel> getRegeln()
+    {
+        return new ArrayList<Spielplanregel>(Arrays.asList(_regeln));
+    }
+
+    /**
+     * Sagt eine Vorstellung ab: Sie wird aus ihrem Tagesplan und aus allen
+     * Verzeichnissen entfernt. Bereits verkaufte Plätze bleiben an der
+     * Vorstellung vermerkt.
+     * 
+     * @param vorstellung
+     *            die Vorstellung.
+     * @return ob die Vorstellung im Spielplan stand.
+     * 
+     * @require vorstellung != null
+     * 
+     * @ensure !getTagesplan(vorstellung.getDatum()).getVorstellungen()
+     *         .contains(vorstellung)
+     */
+    public boolean sageVorstellungAb(Vorstellung vorstellung)
+    {
+        assert vorstellung != null : "Vorbedingung verletzt: vorstellung != null";
+
+        synchronized (_schreibsperre)
+        {
+            int tag = vorstellung.getDatum().getTageSeitEpoche();
+            Tagesring ring = _tagesring;
+            if (!ring.liegtImRing(tag)
+                    || !ring.get(tag).entferneVorstellung(vorstellung))
+            {
+                return false;
+            }
+            nimmAusVerzeichnissen(vorstellung);
+            return true;
+        }
+    }
+
+    /**
+     * Verlegt eine Vorstellung, indem sie durch eine neue Vorstellung mit
+     * anderer Zeit, anderem Tag oder anderem Kinosaal ersetzt wird. Bleibt
+     * der Tag gleich, wird der Tagesplan in einem Schritt geändert; sonst
+     * erscheint die neue Vorstellung in ihrem Tagesplan, bevor die alte aus
+     * ihrem verschwindet.
+     * 
+     * Verlegt werden nur Vorstellungen, für die noch kein Platz verkauft oder
+     * reserviert ist. Die neue Vorstellung beginnt mit einem leeren Saal, der
+     * womöglich auch anders geschnitten ist; verkaufte Plätze ließen sich
+     * nicht sicher übertragen und dürfen nicht ein zweites Mal verkauft
+     * werden. Eine Vorstellung mit Verkäufen wird stattdessen abgesagt und
+     * neu angelegt, nachdem die Karten erstattet oder umgebucht wurden.
+     * 
+     * Da Verkäufe nicht sperren, wird die Platzbelegung der alten Vorstellung
+     * vor dem Verlegen atomar geschlossen, siehe
+     * {@link Vorstellung#istGeschlossen()}. Eine Kasse, die die alte
+     * Vorstellung noch hält, verkauft entweder vorher, dann wird nicht
+     * verlegt, oder ihr Verkauf scheitert.
+     * 
+     * @param alt
+     *            die bisherige Vorstellung.
+     * @param neu
+     *            die verlegte Vorstellung.
+     * @return ob verlegt wurde. Das ist nicht der Fall, wenn die bisherige
+     *         Vorstellung nicht im Spielplan steht, schon Plätze verkauft oder
+     *         reserviert hat oder wenn getUeberschneidung(neu, alt) != null.
+     *         Dann bleibt der Spielplan unverändert.
+     * 
+     * @require alt != null
+     * @require neu != null
+     * @require hatKinosaal(neu.getKinosaal())
+     */
+    public boolean verlegeVorstellung(Vorstellung alt, Vorstellung neu)
+    {
+        assert alt != null : "Vorbedingung verletzt: alt != null";
+        assert neu != null : "Vorbedingung verletzt: neu != null";
+        assert hatKinosaal(neu.getKinosaal()) : "Vorbedingung verletzt: hatKinosaal(neu.getKinosaal())";
+
+        synchronized (_schreibsperre)
+        {
+            int alterTag = alt.getDatum().getTageSeitEpoche();
+            int neuerTag = neu.getDatum().getTageSeitEpoche();
+            if (!_tagesring.liegtImRing(alterTag)
+                    || !_tagesring.get(alterTag).getVorstellungen()
+                            .contains(alt))
+            {
+                return false;
+            }
+            // Zuletzt schließen, damit eine abgelehnte Verlegung die alte
+            // Vorstellung nicht schon geschlossen hat
+            if (getUeberschneidung(neu, alt) != null
+                    || !alt.schliesseFallsFrei())
+            {
+                return false;
+            }
+
+            if (alterTag == neuerTag)
+            {
+                _tagesring.get(alterTag).ersetzeVorstellung(alt, neu);
+            }
+            else
+            {
+                erweitereRing(neu.getDatum());
+                _tagesring.get(neuerTag).fuegeVorstellungHinzu(neu);
+                _tagesring.get(alterTag).entferneVorstellung(alt);
+            }
+            nimmAusVerzeichnissen(alt);
+            nimmInVerzeichnisseAuf(neu);
+            return true;
+        }
+    }
+
+    /**
+     * Gibt eine Vorstellung zurück, die im selben Kinosaal läuft und sich
+     * zeitlich mit der angegebenen Vorstellung überschneidet, oder
+     * <code>null</code>, wenn der Kinosaal in dieser Zeit frei ist. Eine
+     * Vorstellung, die über Mitternacht läuft, belegt den Saal bis zu ihrem
+     * Ende am folgenden Tag.
+     * 
+     * @param vorstellung
+     *            die zu prüfende Vorstellung.
+     * 
+     * @require vorstellung != null
+     */
+    public Vorstellung getUeberschneidung(Vorstellung vorstellung)
+    {
+        assert vorstellung != null : "Vorbedingung verletzt: vorstellung != null";
+
+        return getUeberschneidung(vorstellung, null);
+    }
+
+    /**
+     * Gibt eine Vorstellung zurück, die im selben Kinosaal läuft und sich
+     * zeitlich mit der angegebenen Vorstellung überschneidet, wobei die
+     * ausgenommene Vorstellung nicht berücksichtigt wird. So lässt sich vor
+     * einer Verlegung prüfen, ob der neue Termin frei ist.
+     * 
+     * @param vorstellung
+     *            die zu prüfende Vorstellung.
+     * @param ausgenommen
+     *            die nicht zu berücksichtigende Vorstellung oder
+     *            <code>null</code>.
+     * 
+     * @require vorstellung != null
+     */
+    public Vorstellung getUeberschneidung(Vorstellung vorstellung,
+            Vorstellung ausgenommen)
+    {
+        assert vorstellung != null : "Vorbedingung verletzt: vorstellung != null";
+
+        Tagesring ring = _tagesring;
+        int tag = vorstellung.getDatum().getTageSeitEpoche();
+        for (int t = tag - 1; t <= tag + 1; t++)
+        {
+            materialisiere(ring, t);
+        }
+        Vorstellungsindex saal = _vorstellungenNachKinosaal.get(vorstellung
+                .getKinosaal());
+        if (saal == null)
+        {
+            return null;
+        }
+        return saal.getUeberschneidung(vorstellung.getAnfang()
+                .getMinutenSeitEpoche(), vorstellung.getEnde()
+                .getMinutenSeitEpoche(), ausgenommen);
+    }
+
+    /**
+     * Legt die Vorstellungen aller Regeln an, die noch nicht auf den
+     * angegebenen Tag angewandt wurden, und trägt sie in den Tagesplan und in
+     * die Verzeichnisse ein. Ist der Tag auf dem Stand aller Regeln, kostet
+     * das nur einen Vergleich und keine Sperre; sonst wartet der Aufrufer auf
+     * die Schreibsperre, siehe die Beschreibung der Klasse. Tage außerhalb
+     * des Rings haben keine Regeln.
+     */
+    private void materialisiere(Tagesring ring, int tag)
+    {
+        if (!ring.liegtImRing(tag))
+        {
+            return;
+        }
+        Tagesplan tagesplan = ring.get(tag);
+        if (tagesplan.getAngewandteRegeln() == _regeln.length)
+        {
+            return;
+        }
+        synchronized (_schreibsperre)
+        {
+            Spielplanregel[] regeln = _regeln;
+            int angewandt = tagesplan.getAngewandteRegeln();
+            Vorstellung[] neu = new Vorstellung[regeln.length - angewandt];
+            int anzahl = 0;
+            for (int i = angewandt; i < regeln.length; i++)
             {
-                tagesplan = new Tagesplan(datum);
-                _tagesplaene.put(datum, tagesplan);
+                if (regeln[i].giltAm(tag))
+                {
+                    neu[anzahl] = regeln[i].erzeugeVorstellung(tagesplan
+                            .getDatum());
+                    nimmInVerzeichnisseAuf(neu[anzahl++]);
+                }
             }
-            tagesplan.fuegeVorstellungHinzu(vorstellung);
+            if (anzahl > 0)
+            {
+                neu = Arrays.copyOf(neu, anzahl);
+                Tagesplan.sortiereNachAnfang(neu);
+                tagesplan.fuegeVorstellungenHinzu(neu, 0, anzahl);
+            }
+            tagesplan.setAngewandteRegeln(regeln.length);
+        }
+    }
+
+    /**
+     * Legt die Vorstellungen aller Regeln an, die im angegebenen Zeitraum
+     * anfangen.
+     */
+    private void materialisiere(long von, long bis)
+    {
+        if (von >= bis || _regeln.length == 0)
+        {
+            return;
+        }
+        Tagesring ring = _tagesring;
+        int ersterTag = (int) Math.max(Math.floorDiv(von, MINUTEN_PRO_TAG),
+                ring.getErsterTag());
+        int letzterTag = (int) Math.min(Math.floorDiv(bis - 1, MINUTEN_PRO_TAG),
+                ring.getErsterTag() + ring.getAnzahlTage() - 1L);
+        for (int tag = ersterTag; tag <= letzterTag; tag++)
+        {
+            materialisiere(ring, tag);
+        }
+    }
+
+    /**
+     * Gibt an, ob die Regel mit dem angegebenen Index schon auf den Tag
+     * angewandt wurde. Ihre Vorstellung an diesem Tag steht dann in den
+     * Verzeichnissen, falls sie nicht abgesagt oder verlegt wurde.
+     */
+    private static boolean istAngewandt(Tagesring ring, int tag, int regel)
+    {
+        return ring.liegtImRing(tag)
+                && ring.get(tag).getAngewandteRegeln() > regel;
+    }
+
+    /**
+     * Gibt an, ob sich zwei Zeiträume in Minuten seit dem 1.1.1970
+     * überschneiden. Zeiträume mit gleichem Anfang überschneiden sich immer,
+     * wie im {@link Vorstellungsindex}.
+     */
+    private static boolean ueberschneidenSich(long anfang1, long ende1,
+            long anfang2, long ende2)
+    {
+        return anfang1 == anfang2 || (anfang1 < ende2 && anfang2 < ende1);
+    }
+
+    /**
+     * Trägt eine Vorstellung in ihren Tagesplan und in die Verzeichnisse ein.
+     * Der Tag der Vorstellung muss im Ring liegen.
+     */
+    private void nimmAuf(Vorstellung vorstellung)
+    {
+        _tagesring.get(vorstellung.getDatum().getTageSeitEpoche())
+                .fuegeVorstellungHinzu(vorstellung);
+        nimmInVerzeichnisseAuf(vorstellung);
+    }
+
+    /**
+     * Trägt eine Vorstellung in die Verzeichnisse ein.
+     */
+    private void nimmInVerzeichnisseAuf(Vorstellung vorstellung)
+    {
+        _alleVorstellungen.fuegeHinzu(vorstellung);
+        index(_vorstellungenNachFilm, vorstellung.getFilm()).fuegeHinzu(
+                vorstellung);
+        index(_vorstellungenNachKinosaal, vorstellung.getKinosaal())
+                .fuegeHinzu(vorstellung);
+    }
+
+    /**
+     * Entfernt eine Vorstellung aus den Verzeichnissen. Leere Verzeichnisse
+     * eines Films oder Kinosaals bleiben bestehen.
+     */
+    private void nimmAusVerzeichnissen(Vorstellung vorstellung)
+    {
+        _alleVorstellungen.entferne(vorstellung);
+        index(_vorstellungenNachFilm, vorstellung.getFilm()).entferne(
+                vorstellung);
+        index(_vorstellungenNachKinosaal, vorstellung.getKinosaal())
+                .entferne(vorstellung);
+    }
+
+    /**
+     * Gibt das Verzeichnis zum angegebenen Schlüssel zurück und legt es an,
+     * falls es noch keines gibt.
+     */
+    private static <K> Vorstellungsindex index(Map<K, Vorstellungsindex> map,
+            K schluessel)
+    {
+        Vorstellungsindex index = map.get(schluessel);
+        if (index == null)
+        {
+            index = new Vorstellungsindex();
+            map.put(schluessel, index);
         }
+        return index;
+    }
+
+    /**
+     * Erweitert den Ring, falls nötig, bis zum angegebenen Tag und
+     * veröffentlicht den längeren Ring.
+     */
+    private void erweitereRing(Datum datum)
+    {
+        _tagesring = _tagesring.erweitertUm(datum);
     }
 
     /**
@@ -73,7 +683,7 @@ public class Kino
      */
     public boolean hatKinosaal(Kinosaal kinosaal)
     {
-        return _kinosaele.contains(kinosaal);
+        return _kinosaalindex.contains(kinosaal);
     }
 
     /**
@@ -87,7 +697,12 @@ public class Kino
     }
 
     /**
-     * Gibt den Tagesplan fuer das angegebene Datum zurück.
+     * Gibt den Tagesplan fuer das angegebene Datum zurück. Stehen für den
+     * Tag noch Vorstellungen aus Spielplanregeln aus, werden sie zuvor unter
+     * der Schreibsperre angelegt. Für einen Tag, an dem nichts geplant ist,
+     * kann ein neuer leerer Tagesplan geliefert werden, der nicht zum
+     * Spielplan gehört; Vorstellungen kommen nur über
+     * {@link #fuegeVorstellungHinzu(Vorstellung)} in den Spielplan.
      * 
      * @param tag
      *            das Datum.
@@ -99,11 +714,201 @@ public class Kino
     {
         assert tag != null : "Vorbedingung verletzt: tag != null";
 
-        Tagesplan tagesplan = _tagesplaene.get(tag);
-        if (tagesplan == null)
+        Tagesring ring = _tagesring;
+        int tageSeitEpoche = tag.getTageSeitEpoche();
+        if (ring.liegtImRing(tageSeitEpoche))
         {
-            tagesplan = new Tagesplan(tag);
+            materialisiere(ring, tageSeitEpoche);
+            return ring.get(tageSeitEpoche);
         }
-        return tagesplan;
+        return new Tagesplan(tag);
+    }
+
+    /**
+     * Gibt die Tagespläne vom ersten bis einschließlich zum letzten
+     * angegebenen Tag zurück, einen für jeden Tag und nach Tagen geordnet.
+     * 
+     * @param von
+     *            der erste Tag.
+     * @param bis
+     *            der letzte Tag.
+     * 
+     * @require von != null
+     * @require bis != null
+     * @require von.compareTo(bis) <= 0
+     * 
+     * @ensure result.size() == bis.tageSeit(von) + 1
+     */
+    public List<Tagesplan> getTagesplaene(Datum von, Datum bis)
+    {
+        assert von != null : "Vorbedingung verletzt: von != null";
+        assert bis != null : "Vorbedingung verletzt: bis != null";
+        assert von.compareTo(bis) <= 0 : "Vorbedingung verletzt: von.compareTo(bis) <= 0";
+
+        Tagesring ring = _tagesring;
+        int anzahl = bis.tageSeit(von) + 1;
+        List<Tagesplan> tagesplaene = new ArrayList<Tagesplan>(anzahl);
+        for (int i = 0; i < anzahl; i++)
+        {
+            int tag = von.getTageSeitEpoche() + i;
+            if (ring.liegtImRing(tag))
+            {
+                materialisiere(ring, tag);
+                tagesplaene.add(ring.get(tag));
+            }
+            else
+            {
+                tagesplaene.add(new Tagesplan(von.plus(i)));
+            }
+        }
+        return tagesplaene;
+    }
+
+    /**
+     * Berechnet den Umsatz aller Vorstellungen am angegebenen Tag.
+     * 
+     * @require tag != null
+     * 
+     * @ensure result != null
+     */
+    public Geldsumme getUmsatz(Datum tag)
+    {
+        assert tag != null : "Vorbedingung verletzt: tag != null";
+
+        // Noch nicht angelegte Vorstellungen haben nichts verkauft und werden
+        // deshalb auch nicht angelegt.
+        Tagesring ring = _tagesring;
+        int tageSeitEpoche = tag.getTageSeitEpoche();
+        Geldsumme umsatz = new Geldsumme();
+        if (ring.liegtImRing(tageSeitEpoche))
+        {
+            ring.get(tageSeitEpoche).addiereUmsatzZu(umsatz);
+        }
+        return umsatz;
+    }
+
+    /**
+     * Berechnet den Umsatz aller Vorstellungen des angegebenen Films an allen
+     * Tagen. Dafür wird nur das Verzeichnis des Films durchgegangen, nicht
+     * jeder Tagesplan. Noch nicht angelegte Vorstellungen aus Spielplanregeln
+     * haben nichts verkauft und werden nicht angelegt.
+     * 
+     * @require film != null
+     * 
+     * @ensure result != null
+     */
+    public Geldsumme getUmsatz(Film film)
+    {
+        assert film != null : "Vorbedingung verletzt: film != null";
+
+        Geldsumme umsatz = new Geldsumme();
+        Vorstellungsindex index = _vorstellungenNachFilm.get(film);
+        if (index != null)
+        {
+            index.addiereUmsatzZu(umsatz);
+        }
+        return umsatz;
+    }
+
+    /**
+     * Gibt alle Vorstellungen zurück, die im angegebenen Zeitraum anfangen,
+     * sortiert nach ihrem Anfang. Die Vorstellungen der Spielplanregeln werden
+     * dafür für jeden Tag des Zeitraums angelegt.
+     * 
+     * @param von
+     *            der Beginn des Zeitraums (einschließlich).
+     * @param bis
+     *            das Ende des Zeitraums (ausschließlich).
+     * 
+     * @require von != null
+     * @require bis != null
+     * 
+     * @ensure result != null
+     */
+    public List<Vorstellung> getVorstellungen(Zeitpunkt von, Zeitpunkt bis)
+    {
+        assert von != null : "Vorbedingung verletzt: von != null";
+        assert bis != null : "Vorbedingung verletzt: bis != null";
+
+        materialisiere(von.getMinutenSeitEpoche(), bis.getMinutenSeitEpoche());
+        return _alleVorstellungen.getVorstellungen(von.getMinutenSeitEpoche(),
+                bis.getMinutenSeitEpoche());
+    }
+
+    /**
+     * Gibt alle Vorstellungen des angegebenen Films zurück, die im
+     * angegebenen Zeitraum anfangen, sortiert nach ihrem Anfang.
+     * 
+     * @param film
+     *            der Film.
+     * @param von
+     *            der Beginn des Zeitraums (einschließlich).
+     * @param bis
+     *            das Ende des Zeitraums (ausschließlich).
+     * 
+     * @require film != null
+     * @require von != null
+     * @require bis != null
+     * 
+     * @ensure result != null
+     */
+    public List<Vorstellung> getVorstellungen(Film film, Zeitpunkt von,
+            Zeitpunkt bis)
+    {
+        assert film != null : "Vorbedingung verletzt: film != null";
+        assert von != null : "Vorbedingung verletzt: von != null";
+        assert bis != null : "Vorbedingung verletzt: bis != null";
+
+        materialisiere(von.getMinutenSeitEpoche(), bis.getMinutenSeitEpoche());
+        return getVorstellungen(_vorstellungenNachFilm.get(film), von, bis);
+    }
+
+    /**
+     * Gibt alle Vorstellungen im angegebenen Kinosaal zurück, die im
+     * angegebenen Zeitraum anfangen, sortiert nach ihrem Anfang.
+     * 
+     * @param kinosaal
+     *            der Kinosaal.
+     * @param von
+     *            der Beginn des Zeitraums (einschließlich).
+     * @param bis
+     *            das Ende des Zeitraums (ausschließlich).
+     * 
+     * @require kinosaal != null
+     * @require von != null
+     * @require bis != null
+     * 
+     * @ensure result != null
+     */
+    public List<Vorstellung> getVorstellungen(Kinosaal kinosaal,
+            Zeitpunkt von, Zeitpunkt bis)
+    {
+        assert kinosaal != null : "Vorbedingung verletzt: kinosaal != null";
+        assert von != null : "Vorbedingung verletzt: von != null";
+        assert bis != null : "Vorbedingung verletzt: bis != null";
+
+        materialisiere(von.getMinutenSeitEpoche(), bis.getMinutenSeitEpoche());
+        return getVorstellungen(_vorstellungenNachKinosaal.get(kinosaal), von,
+                bis);
+    }
+
+    private static List<Vorstellung> getVorstellungen(Vorstellungsindex index,
+            Zeitpunkt von, Zeitpunkt bis)
+    {
+        if (index == null)
+        {
+            return new ArrayList<Vorstellung>();
+        }
+        return index.getVorstellungen(von.getMinutenSeitEpoche(),
+                bis.getMinutenSeitEpoche());
+    }
+
+    /**
+     * Gibt die Anzahl der angelegten Vorstellungen zurück, einschließlich der
+     * aus Regeln angelegten. Für Tests.
+     */
+    int getAnzahlAngelegterVorstellungen()
+    {
+        return _alleVorstellungen.getAnzahl();
     }
 }
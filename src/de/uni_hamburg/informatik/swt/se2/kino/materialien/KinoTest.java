@@ -2,15 +2,23 @@ package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.FSK;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Zeitpunkt;
 
 public class KinoTest
 {
@@ -137,4 +145,656 @@ public class KinoTest
         assertFalse(_saal0.hatPlatz(Platz.get(25, 0)));
         assertFalse(_saal0.hatPlatz(Platz.get(25, 40)));
     }
+
+    @Test
+    public void testTagesplaeneUeberMehrereTage()
+    {
+        Datum d2 = _d1.plus(3);
+        Vorstellung spaeter = new Vorstellung(_saal0, _film0, _u1, _u2, d2,
+                900);
+        Kino kino = new Kino(_alleSaele, new Vorstellung[] {
+                _vorstellungSaal1Film0, spaeter });
+
+        assertEquals(1, kino.getTagesplan(_d1).getVorstellungen().size());
+        assertEquals(1, kino.getTagesplan(d2).getVorstellungen().size());
+        assertSame(kino.getTagesplan(d2), kino.getTagesplan(Datum.get(
+                d2.getTag(), d2.getMonat(), d2.getJahr())));
+
+        // Leere Tage innerhalb und außerhalb des Rings
+        assertEquals(_d1.naechsterTag(), kino.getTagesplan(_d1.naechsterTag())
+                .getDatum());
+        assertTrue(kino.getTagesplan(_d1.naechsterTag()).getVorstellungen()
+                .isEmpty());
+        assertEquals(_d1.minus(1), kino.getTagesplan(_d1.minus(1)).getDatum());
+        assertTrue(kino.getTagesplan(_d1.minus(1)).getVorstellungen().isEmpty());
+        assertTrue(kino.getTagesplan(d2.plus(500)).getVorstellungen().isEmpty());
+    }
+
+    @Test
+    public void testGibTagesplaeneImZeitraum()
+    {
+        List<Tagesplan> plaene = _kino.getTagesplaene(_d1.minus(2), _d1.plus(1));
+        assertEquals(4, plaene.size());
+        assertEquals(_d1.minus(2), plaene.get(0).getDatum());
+        assertSame(_kino.getTagesplan(_d1), plaene.get(2));
+        assertEquals(4, plaene.get(2).getVorstellungen().size());
+        assertEquals(_d1.plus(1), plaene.get(3).getDatum());
+        assertTrue(plaene.get(3).getVorstellungen().isEmpty());
+    }
+
+    @Test
+    public void testKinoOhneVorstellungen()
+    {
+        Kino kino = new Kino(_alleSaele, new Vorstellung[0]);
+        assertTrue(kino.getTagesplan(_d1).getVorstellungen().isEmpty());
+        assertEquals(2, kino.getTagesplaene(_d1, _d1.naechsterTag()).size());
+    }
+
+    @Test
+    public void testUmsatzProTagUndFilm()
+    {
+        _vorstellungSaal1Film0.verkaufePlaetze(new HashSet<Platz>(Arrays
+                .asList(Platz.get(0, 0), Platz.get(0, 1))));
+        _vorstellungSaal2Film2a.verkaufePlaetze(Collections.singleton(Platz
+                .get(1, 1)));
+        _vorstellungSaal2Film2b.verkaufePlaetze(Collections.singleton(Platz
+                .get(2, 2)));
+
+        assertEquals(2 * 900 + 900 + 900, _kino.getUmsatz(_d1).getEurocent());
+        assertEquals(0, _kino.getUmsatz(_d1.naechsterTag()).getEurocent());
+        assertEquals(1800, _kino.getUmsatz(_film0).getEurocent());
+        assertEquals(0, _kino.getUmsatz(_film1).getEurocent());
+        assertEquals(1800, _kino.getUmsatz(_film2).getEurocent());
+
+        // Über alle Tage, aber ohne abgesagte Vorstellungen
+        Vorstellung spaeter = new Vorstellung(_saal0, _film0, _u1, _u2,
+                _d1.plus(100), 700);
+        _kino.fuegeVorstellungHinzu(spaeter);
+        spaeter.verkaufePlatz(Platz.get(5, 5));
+        assertEquals(2500, _kino.getUmsatz(_film0).getEurocent());
+        assertTrue(_kino.sageVorstellungAb(_vorstellungSaal2Film2b));
+        assertEquals(900, _kino.getUmsatz(_film2).getEurocent());
+        assertEquals(0, _kino.getUmsatz(new Film("Unbekannt", 90, FSK.FSK0,
+                false)).getEurocent());
+    }
+
+    @Test
+    public void testGibVorstellungenImZeitraum()
+    {
+        Zeitpunkt von = Zeitpunkt.get(_d1, _u1);
+        Zeitpunkt bis = Zeitpunkt.get(_d1, _u3);
+
+        assertEquals(Arrays.asList(_vorstellungSaal1Film0,
+                _vorstellungSaal2Film1, _vorstellungSaal2Film2a),
+                _kino.getVorstellungen(von, bis));
+        assertEquals(Arrays.asList(_vorstellungSaal2Film2b),
+                _kino.getVorstellungen(bis, bis.plusMinuten(1)));
+        assertTrue(_kino.getVorstellungen(bis, bis).isEmpty());
+        assertTrue(_kino.getVorstellungen(bis, von).isEmpty());
+    }
+
+    @Test
+    public void testGibVorstellungenNachFilmUndKinosaal()
+    {
+        Zeitpunkt von = Zeitpunkt.get(_d1, Uhrzeit.get(0, 0));
+        Zeitpunkt bis = von.plusMinuten(24 * 60);
+
+        assertEquals(Arrays.asList(_vorstellungSaal2Film2a,
+                _vorstellungSaal2Film2b), _kino.getVorstellungen(_film2, von,
+                bis));
+        assertEquals(Arrays.asList(_vorstellungSaal2Film2a),
+                _kino.getVorstellungen(_film2, von, Zeitpunkt.get(_d1, _u3)));
+        assertEquals(Arrays.asList(_vorstellungSaal2Film1,
+                _vorstellungSaal2Film2a, _vorstellungSaal2Film2b),
+                _kino.getVorstellungen(_saal2, von, bis));
+        assertTrue(_kino.getVorstellungen(_saal0, von, bis).isEmpty());
+        assertTrue(_kino.getVorstellungen(new Film("Unbekannt", 90, FSK.FSK0,
+                false), von, bis).isEmpty());
+    }
+
+    @Test
+    public void testFuegeVorstellungHinzu()
+    {
+        Vorstellung gleicherTag = new Vorstellung(_saal0, _film1, _u2, _u3,
+                _d1, 800);
+        _kino.fuegeVorstellungHinzu(gleicherTag);
+
+        assertEquals(5, _kino.getTagesplan(_d1).getVorstellungen().size());
+        assertEquals(Arrays.asList(gleicherTag), _kino.getVorstellungen(
+                _saal0, Zeitpunkt.get(_d1, _u1), Zeitpunkt.get(_d1, _u3)));
+        assertEquals(Arrays.asList(_vorstellungSaal2Film1, gleicherTag),
+                _kino.getVorstellungen(_film1, Zeitpunkt.get(_d1, _u1),
+                        Zeitpunkt.get(_d1, _u3)));
+    }
+
+    @Test
+    public void testFuegeVorstellungHinzuErweitertTagesplaene()
+    {
+        Datum vorher = _d1.minus(5);
+        Datum nachher = _d1.plus(40);
+        Vorstellung frueh = new Vorstellung(_saal0, _film0, _u1, _u2, vorher,
+                900);
+        Vorstellung spaet = new Vorstellung(_saal0, _film0, _u1, _u2, nachher,
+                900);
+        _kino.fuegeVorstellungHinzu(spaet);
+        _kino.fuegeVorstellungHinzu(frueh);
+
+        assertSame(_kino.getTagesplan(vorher), _kino.getTagesplan(Datum.get(
+                vorher.getTag(), vorher.getMonat(), vorher.getJahr())));
+        assertEquals(Arrays.asList(frueh), _kino.getTagesplan(vorher)
+                .getVorstellungen());
+        assertEquals(Arrays.asList(spaet), _kino.getTagesplan(nachher)
+                .getVorstellungen());
+        assertEquals(4, _kino.getTagesplan(_d1).getVorstellungen().size());
+        assertEquals(46, _kino.getTagesplaene(vorher, nachher).size());
+        assertTrue(_kino.getTagesplan(_d1.plus(1)).getVorstellungen().isEmpty());
+        assertEquals(Arrays.asList(frueh, _vorstellungSaal1Film0, spaet),
+                _kino.getVorstellungen(_film0, Zeitpunkt.get(vorher, _u1),
+                        Zeitpunkt.get(nachher, _u2)));
+
+        Kino leer = new Kino(_alleSaele, new Vorstellung[0]);
+        leer.fuegeVorstellungHinzu(frueh);
+        assertEquals(Arrays.asList(frueh), leer.getTagesplan(vorher)
+                .getVorstellungen());
+    }
+
+    @Test
+    public void testGibUeberschneidung()
+    {
+        // Im selben Saal direkt anschließend: frei
+        Vorstellung anschliessend = new Vorstellung(_saal1, _film1, _u2, _u3,
+                _d1, 900);
+        assertEquals(null, _kino.getUeberschneidung(anschliessend));
+
+        // Im selben Saal überlappend
+        Vorstellung ueberlappend = new Vorstellung(_saal1, _film1,
+                Uhrzeit.get(19, 0), _u3, _d1, 900);
+        assertSame(_vorstellungSaal1Film0,
+                _kino.getUeberschneidung(ueberlappend));
+
+        // Gleicher Anfang
+        Vorstellung gleicherAnfang = new Vorstellung(_saal2, _film0, _u2,
+                Uhrzeit.get(20, 30), _d1, 900);
+        assertSame(_vorstellungSaal2Film2a,
+                _kino.getUeberschneidung(gleicherAnfang));
+
+        // Umschließt eine vorhandene Vorstellung
+        Vorstellung umschliessend = new Vorstellung(_saal1, _film1,
+                Uhrzeit.get(17, 0), Uhrzeit.get(21, 0), _d1, 900);
+        assertSame(_vorstellungSaal1Film0,
+                _kino.getUeberschneidung(umschliessend));
+
+        // Gleiche Zeit in einem anderen Saal
+        Vorstellung andererSaal = new Vorstellung(_saal0, _film0, _u1, _u2,
+                _d1, 900);
+        assertEquals(null, _kino.getUeberschneidung(andererSaal));
+    }
+
+    @Test
+    public void testUeberschneidungUeberMitternacht()
+    {
+        // _vorstellungSaal2Film2b läuft von 22:30 bis 1:30 am Folgetag
+        Datum folgetag = _d1.naechsterTag();
+        Vorstellung frueh = new Vorstellung(_saal2, _film0, Uhrzeit.get(1, 0),
+                Uhrzeit.get(3, 0), folgetag, 900);
+        assertSame(_vorstellungSaal2Film2b, _kino.getUeberschneidung(frueh));
+
+        Vorstellung danach = new Vorstellung(_saal2, _film0, _u4,
+                Uhrzeit.get(3, 0), folgetag, 900);
+        assertEquals(null, _kino.getUeberschneidung(danach));
+
+        _kino.fuegeVorstellungHinzu(danach);
+        assertSame(danach, _kino.getUeberschneidung(new Vorstellung(_saal2,
+                _film1, Uhrzeit.get(2, 0), Uhrzeit.get(4, 0), folgetag, 900)));
+    }
+
+    @Test
+    public void testUeberschneidendeVorstellungWirdAbgelehnt()
+    {
+        // Gilt auch ohne -ea: Die Prüfung ist keine Zusicherung
+        Vorstellung lang = new Vorstellung(_saal0, _film0, _u2,
+                Uhrzeit.get(23, 0), _d1, 900);
+        Vorstellung mittendrin = new Vorstellung(_saal0, _film1, Uhrzeit.get(
+                20, 30), Uhrzeit.get(21, 0), _d1, 900);
+        assertEquals(null, _kino.fuegeVorstellungHinzu(lang));
+        assertSame(lang, _kino.fuegeVorstellungHinzu(mittendrin));
+
+        assertEquals(5, _kino.getTagesplan(_d1).getVorstellungen().size());
+        assertFalse(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(mittendrin));
+        assertSame(lang, _kino.getUeberschneidung(new Vorstellung(_saal0,
+                _film1, Uhrzeit.get(21, 30), Uhrzeit.get(22, 0), _d1, 900)));
+    }
+
+    @Test
+    public void testKinoMitUeberschneidendenVorstellungen()
+    {
+        Vorstellung ueberlappend = new Vorstellung(_saal2, _film0,
+                Uhrzeit.get(19, 0), Uhrzeit.get(20, 30), _d1, 900);
+        try
+        {
+            new Kino(_alleSaele, new Vorstellung[] { _vorstellungSaal2Film1,
+                    ueberlappend });
+            assertTrue("IllegalArgumentException erwartet", false);
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage().contains("Luxus"));
+        }
+    }
+
+    @Test
+    public void testSageVorstellungAb()
+    {
+        Zeitpunkt von = Zeitpunkt.get(_d1, Uhrzeit.get(0, 0));
+        Zeitpunkt bis = von.plusMinuten(24 * 60);
+
+        assertTrue(_kino.sageVorstellungAb(_vorstellungSaal2Film2a));
+        assertEquals(3, _kino.getTagesplan(_d1).getVorstellungen().size());
+        assertFalse(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(_vorstellungSaal2Film2a));
+        assertEquals(Arrays.asList(_vorstellungSaal2Film2b),
+                _kino.getVorstellungen(_film2, von, bis));
+        assertEquals(null, _kino.getUeberschneidung(_vorstellungSaal2Film2a));
+        assertFalse(_kino.sageVorstellungAb(_vorstellungSaal2Film2a));
+    }
+
+    @Test
+    public void testVerlegeVorstellungAmSelbenTag()
+    {
+        Vorstellung spaeter = new Vorstellung(_saal1, _film0,
+                Uhrzeit.get(18, 0), Uhrzeit.get(20, 30), _d1, 900);
+        assertSame(_vorstellungSaal1Film0, _kino.getUeberschneidung(spaeter));
+        assertEquals(null, _kino.getUeberschneidung(spaeter,
+                _vorstellungSaal1Film0));
+
+        assertTrue(_kino.verlegeVorstellung(_vorstellungSaal1Film0, spaeter));
+        List<Vorstellung> vorstellungen = _kino.getTagesplan(_d1)
+                .getVorstellungen();
+        assertEquals(4, vorstellungen.size());
+        assertTrue(vorstellungen.contains(spaeter));
+        assertFalse(vorstellungen.contains(_vorstellungSaal1Film0));
+        assertEquals(Arrays.asList(spaeter), _kino.getVorstellungen(_saal1,
+                Zeitpunkt.get(_d1, _u1), Zeitpunkt.get(_d1, _u3)));
+        assertFalse(_kino.verlegeVorstellung(_vorstellungSaal1Film0, spaeter));
+    }
+
+    @Test
+    public void testVerlegeVorstellungAnEinenAnderenTag()
+    {
+        Datum d2 = _d1.plus(2);
+        Vorstellung verlegt = new Vorstellung(_saal0, _film1, _u1, _u2, d2,
+                1000);
+
+        assertTrue(_kino.verlegeVorstellung(_vorstellungSaal2Film1, verlegt));
+        assertEquals(3, _kino.getTagesplan(_d1).getVorstellungen().size());
+        assertEquals(Arrays.asList(verlegt), _kino.getTagesplan(d2)
+                .getVorstellungen());
+        assertEquals(Arrays.asList(verlegt), _kino.getVorstellungen(_film1,
+                Zeitpunkt.get(_d1, _u1), Zeitpunkt.get(d2, _u2)));
+        assertTrue(_kino.getVorstellungen(_saal2, Zeitpunkt.get(_d1, _u1),
+                Zeitpunkt.get(_d1, _u2)).isEmpty());
+    }
+
+    @Test
+    public void testVerlegeVorstellungNichtAufBelegtenTermin()
+    {
+        // Gilt auch ohne -ea: Die Prüfung ist keine Zusicherung
+        Vorstellung ueberlappend = new Vorstellung(_saal2, _film1, _u3,
+                Uhrzeit.get(23, 0), _d1, 1000);
+        assertFalse(_kino.verlegeVorstellung(_vorstellungSaal2Film1,
+                ueberlappend));
+        assertTrue(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(_vorstellungSaal2Film1));
+        assertFalse(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(ueberlappend));
+        assertSame(_vorstellungSaal2Film2b, _kino.getUeberschneidung(
+                new Vorstellung(_saal2, _film0, Uhrzeit.get(22, 45), Uhrzeit
+                        .get(23, 0), _d1, 900)));
+    }
+
+    @Test
+    public void testVerlegeKeineVorstellungMitVerkauftenPlaetzen()
+    {
+        Vorstellung verlegt = new Vorstellung(_saal0, _film0, _u1, _u2,
+                _d1.plus(1), 900);
+        _vorstellungSaal1Film0.verkaufePlatz(Platz.get(3, 4));
+
+        assertFalse(_kino.verlegeVorstellung(_vorstellungSaal1Film0, verlegt));
+        assertTrue(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(_vorstellungSaal1Film0));
+        assertEquals(900, _kino.getUmsatz(_d1).getEurocent());
+
+        // Nach dem Storno ist der Saal wieder leer
+        _vorstellungSaal1Film0.stornierePlatz(Platz.get(3, 4));
+        assertTrue(_kino.verlegeVorstellung(_vorstellungSaal1Film0, verlegt));
+        assertEquals(Arrays.asList(verlegt), _kino.getTagesplan(_d1.plus(1))
+                .getVorstellungen());
+
+        // Auf der alten Vorstellung wird nichts mehr verkauft
+        assertTrue(_vorstellungSaal1Film0.istGeschlossen());
+        assertFalse(_vorstellungSaal1Film0.istVerkaufbar(Platz.get(3, 4)));
+        assertEquals(Collections.singleton(Platz.get(3, 4)),
+                _vorstellungSaal1Film0.versucheVerkauf(Collections
+                        .singleton(Platz.get(3, 4))));
+        assertEquals(0, _vorstellungSaal1Film0.getAnzahlVerkauftePlaetze());
+        assertFalse(verlegt.istGeschlossen());
+    }
+
+    @Test
+    public void testVerkaufUndVerlegungSchliessenSichAus()
+            throws InterruptedException
+    {
+        final Platz platz = Platz.get(3, 4);
+        Vorstellung aktuell = _vorstellungSaal1Film0;
+        int verlegungen = 0;
+        int verkaeufe = 0;
+        for (int i = 0; i < 2000; i++)
+        {
+            final Vorstellung alt = aktuell;
+            final AtomicBoolean verkauft = new AtomicBoolean();
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread kasse = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    verkauft.set(alt.versucheVerkauf(
+                            Collections.singleton(platz)).isEmpty());
+                }
+            });
+            kasse.start();
+
+            Uhrzeit anfang = Uhrzeit.ausMinutenSeitMitternacht(i % 600);
+            Vorstellung neu = new Vorstellung(_saal1, _film0, anfang,
+                    Uhrzeit.ausMinutenSeitMitternacht(i % 600 + 90), _d1, 900);
+            start.countDown();
+            boolean verlegt = _kino.verlegeVorstellung(alt, neu);
+            kasse.join();
+
+            // Genau eines von beiden gelingt: Entweder war der Platz vor dem
+            // Schließen verkauft, oder der Verkauf scheitert an ihm.
+            assertTrue(verlegt != verkauft.get());
+            if (verlegt)
+            {
+                assertEquals(0, alt.getAnzahlVerkauftePlaetze());
+                aktuell = neu;
+                verlegungen++;
+            }
+            else
+            {
+                assertTrue(_kino.getTagesplan(_d1).getVorstellungen()
+                        .contains(alt));
+                alt.stornierePlatz(platz);
+                verkaeufe++;
+            }
+        }
+        assertEquals(2000, verlegungen + verkaeufe);
+        assertTrue(_kino.getTagesplan(_d1).getVorstellungen()
+                .contains(aktuell));
+    }
+
+    @Test
+    public void testLeserSehenNieHalbGeaendertenTag()
+            throws InterruptedException
+    {
+        final Tagesplan tagesplan = _kino.getTagesplan(_d1);
+        final AtomicBoolean fertig = new AtomicBoolean();
+        final AtomicReference<String> fehler = new AtomicReference<String>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> kassen = new ArrayList<Thread>();
+        for (int k = 0; k < 4; k++)
+        {
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    while (!fertig.get())
+                    {
+                        List<Vorstellung> vorstellungen = tagesplan
+                                .getVorstellungen();
+                        if (vorstellungen.size() != 4)
+                        {
+                            fehler.set("Tag mit " + vorstellungen.size()
+                                    + " Vorstellungen gesehen");
+                        }
+                        for (int i = 1; i < vorstellungen.size(); i++)
+                        {
+                            if (vorstellungen.get(i - 1).getAnfang()
+                                    .compareTo(vorstellungen.get(i).getAnfang()) > 0)
+                            {
+                                fehler.set("Tag nicht sortiert gesehen");
+                            }
+                        }
+                    }
+                }
+            });
+            kassen.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        Vorstellung aktuell = _vorstellungSaal1Film0;
+        for (int i = 0; i < 5000; i++)
+        {
+            Uhrzeit anfang = Uhrzeit.ausMinutenSeitMitternacht(i % 600);
+            Vorstellung verlegt = new Vorstellung(_saal1, _film0, anfang,
+                    Uhrzeit.ausMinutenSeitMitternacht(i % 600 + 90), _d1, 900);
+            assertTrue(_kino.verlegeVorstellung(aktuell, verlegt));
+            aktuell = verlegt;
+        }
+        fertig.set(true);
+        for (Thread thread : kassen)
+        {
+            thread.join();
+        }
+
+        assertEquals(null, fehler.get());
+        assertEquals(4, tagesplan.getVorstellungen().size());
+        assertTrue(tagesplan.getVorstellungen().contains(aktuell));
+    }
+
+    @Test
+    public void testGrosserSpielplanWirdNachTagenAufgebaut()
+    {
+        // Genug Vorstellungen, dass die Tagespläne parallel aufgebaut werden
+        int tage = 1000;
+        int zeiten = 6;
+        Vorstellung[] vorstellungen = new Vorstellung[tage * zeiten
+                * _alleSaele.length];
+        int n = 0;
+        for (int z = zeiten - 1; z >= 0; z--)
+        {
+            for (int t = tage - 1; t >= 0; t--)
+            {
+                for (Kinosaal saal : _alleSaele)
+                {
+                    vorstellungen[n++] = new Vorstellung(saal, _film0,
+                            Uhrzeit.get(10 + 2 * z, 0), Uhrzeit.get(
+                                    11 + 2 * z, 30), _d1.plus(t), 900);
+                }
+            }
+        }
+        Kino kino = new Kino(_alleSaele, vorstellungen);
+
+        for (int t = 0; t < tage; t++)
+        {
+            List<Vorstellung> plan = kino.getTagesplan(_d1.plus(t))
+                    .getVorstellungen();
+            assertEquals(zeiten * _alleSaele.length, plan.size());
+            for (int i = 0; i < plan.size(); i++)
+            {
+                assertEquals(_d1.plus(t), plan.get(i).getDatum());
+                assertEquals(Uhrzeit.get(10 + 2 * (i / _alleSaele.length), 0),
+                        plan.get(i).getAnfangszeit());
+                // Gleicher Anfang: Reihenfolge der Eingabe bleibt erhalten
+                assertSame(_alleSaele[i % _alleSaele.length], plan.get(i)
+                        .getKinosaal());
+            }
+        }
+        assertEquals(vorstellungen.length, kino.getVorstellungen(
+                Zeitpunkt.get(_d1, Uhrzeit.get(0, 0)),
+                Zeitpunkt.get(_d1.plus(tage), Uhrzeit.get(0, 0))).size());
+    }
+
+    @Test
+    public void testFuegeVorstellungenHinzu()
+    {
+        Datum d2 = _d1.naechsterTag();
+        Vorstellung frei = new Vorstellung(_saal0, _film0, _u2, _u3, _d1, 900);
+        Vorstellung belegt = new Vorstellung(_saal1, _film0, _u1, _u2, _d1,
+                900);
+        Vorstellung morgen = new Vorstellung(_saal0, _film1, _u1, _u2, d2, 900);
+        Vorstellung morgenUeberlappend = new Vorstellung(_saal0, _film2,
+                Uhrzeit.get(19, 0), _u3, d2, 900);
+
+        List<Vorstellung> abgelehnt = _kino.fuegeVorstellungenHinzu(Arrays
+                .asList(morgenUeberlappend, frei, belegt, morgen));
+
+        assertEquals(Arrays.asList(belegt, morgenUeberlappend), abgelehnt);
+        List<Vorstellung> heute = _kino.getTagesplan(_d1).getVorstellungen();
+        assertEquals(5, heute.size());
+        // Bei gleichem Anfang stehen die neuen hinter den vorhandenen
+        assertSame(_vorstellungSaal2Film2a, heute.get(2));
+        assertSame(frei, heute.get(3));
+        assertEquals(Arrays.asList(morgen), _kino.getTagesplan(d2)
+                .getVorstellungen());
+        assertEquals(Arrays.asList(morgen), _kino.getVorstellungen(_saal0,
+                Zeitpunkt.get(d2, _u1), Zeitpunkt.get(d2, _u3)));
+    }
+
+    @Test
+    public void testRegelLegtVorstellungenErstBeiAbfrageAn()
+    {
+        Datum erster = _d1.plus(1);
+        Spielplanregel regel = new Spielplanregel(_saal0, _film1, _u2, _u3,
+                erster, erster.plus(179), 1, 800);
+        _kino.fuegeRegelHinzu(regel);
+
+        assertEquals(Arrays.asList(regel), _kino.getRegeln());
+        assertEquals(4, _kino.getAnzahlAngelegterVorstellungen());
+        assertEquals(0, _kino.getUmsatz(erster.plus(10)).getEurocent());
+        assertEquals(4, _kino.getAnzahlAngelegterVorstellungen());
+
+        List<Vorstellung> tag = _kino.getTagesplan(erster.plus(10))
+                .getVorstellungen();
+        assertEquals(1, tag.size());
+        Vorstellung vorstellung = tag.get(0);
+        assertSame(_saal0, vorstellung.getKinosaal());
+        assertSame(_film1, vorstellung.getFilm());
+        assertEquals(erster.plus(10), vorstellung.getDatum());
+        assertEquals(800, vorstellung.getPreis());
+        assertEquals(5, _kino.getAnzahlAngelegterVorstellungen());
+
+        // Einmal angelegt, bleibt es dieselbe Vorstellung
+        vorstellung.verkaufePlatz(Platz.get(0, 0));
+        assertSame(vorstellung, _kino.getTagesplan(erster.plus(10))
+                .getVorstellungen().get(0));
+        assertEquals(800, _kino.getUmsatz(erster.plus(10)).getEurocent());
+        assertEquals(5, _kino.getAnzahlAngelegterVorstellungen());
+
+        // Ein Zeitraum legt nur die Vorstellungen seiner Tage an, hier vom
+        // 7. bis zum 14. Tag
+        List<Vorstellung> woche = _kino.getVorstellungen(_saal0, Zeitpunkt
+                .get(erster.plus(7), _u1), Zeitpunkt.get(erster.plus(14), _u1));
+        assertEquals(7, woche.size());
+        assertTrue(woche.contains(vorstellung));
+        assertEquals(12, _kino.getAnzahlAngelegterVorstellungen());
+        assertEquals(0, _kino.getTagesplan(erster.plus(180))
+                .getVorstellungen().size());
+    }
+
+    @Test
+    public void testAbgesagteVorstellungEinerRegelKommtNichtWieder()
+    {
+        Spielplanregel regel = new Spielplanregel(_saal0, _film1, _u2, _u3,
+                _d1.plus(1), _d1.plus(20), 7, 800);
+        _kino.fuegeRegelHinzu(regel);
+
+        Vorstellung vorstellung = _kino.getTagesplan(_d1.plus(8))
+                .getVorstellungen().get(0);
+        assertTrue(_kino.sageVorstellungAb(vorstellung));
+        assertTrue(_kino.getTagesplan(_d1.plus(8)).getVorstellungen()
+                .isEmpty());
+        assertTrue(_kino.getTagesplan(_d1.plus(9)).getVorstellungen()
+                .isEmpty());
+        assertEquals(1, _kino.getTagesplan(_d1.plus(15)).getVorstellungen()
+                .size());
+        assertEquals(_d1.plus(15), regel.getLetzterTag());
+    }
+
+    @Test
+    public void testRegelUeberschneidetSichMitVorstellung()
+    {
+        // _vorstellungSaal2Film2a läuft am _d1 von 20:00 bis 22:30
+        assertTrue(_kino.hatUeberschneidung(new Spielplanregel(_saal2,
+                _film0, Uhrzeit.get(21, 0), Uhrzeit.get(22, 0),
+                _d1.minus(14), _d1.plus(14), 7, 800)));
+        assertFalse(_kino.hatUeberschneidung(new Spielplanregel(_saal2,
+                _film0, Uhrzeit.get(21, 0), Uhrzeit.get(22, 0),
+                _d1.minus(14), _d1.plus(14), 5, 800)));
+        assertFalse(_kino.hatUeberschneidung(new Spielplanregel(_saal1,
+                _film0, Uhrzeit.get(21, 0), Uhrzeit.get(22, 0),
+                _d1.minus(14), _d1.plus(14), 1, 800)));
+
+        // Eine einzelne Vorstellung trifft auf die Vorstellung einer Regel
+        Datum erster = _d1.plus(1);
+        _kino.fuegeRegelHinzu(new Spielplanregel(_saal0, _film1, _u2, _u3,
+                erster, erster.plus(30), 1, 800));
+        Vorstellung neu = new Vorstellung(_saal0, _film0, _u1, Uhrzeit.get(
+                20, 30), erster.plus(3), 900);
+        Vorstellung regelvorstellung = _kino.getUeberschneidung(neu);
+        assertSame(_film1, regelvorstellung.getFilm());
+        assertEquals(erster.plus(3), regelvorstellung.getDatum());
+    }
+
+    @Test
+    public void testRegelnUeberschneidenSichUeberMitternacht()
+    {
+        Datum erster = _d1.plus(1);
+        _kino.fuegeRegelHinzu(new Spielplanregel(_saal0, _film2, _u3, _u4,
+                erster, erster.plus(30), 1, 800));
+
+        // Die Spätvorstellung läuft bis 1:30 am Folgetag
+        Spielplanregel frueh = new Spielplanregel(_saal0, _film0, Uhrzeit.get(
+                1, 0), Uhrzeit.get(3, 0), erster.plus(31), erster.plus(40),
+                1, 800);
+        assertTrue(_kino.hatUeberschneidung(frueh));
+        assertFalse(_kino.hatUeberschneidung(new Spielplanregel(_saal0,
+                _film0, Uhrzeit.get(1, 30), Uhrzeit.get(3, 0), erster
+                        .plus(31), erster.plus(40), 1, 800)));
+
+        // Gilt auch ohne -ea: Die Prüfung ist keine Zusicherung
+        assertFalse(_kino.fuegeRegelHinzu(frueh));
+        assertEquals(1, _kino.getRegeln().size());
+        assertTrue(_kino.getTagesplan(erster.plus(31)).getVorstellungen()
+                .isEmpty());
+
+        // Ist die Spätvorstellung abgesagt, ist der Saal frei
+        Vorstellung spaet = _kino.getTagesplan(erster.plus(30))
+                .getVorstellungen().get(0);
+        assertTrue(_kino.sageVorstellungAb(spaet));
+        assertFalse(_kino.hatUeberschneidung(frueh));
+        assertTrue(_kino.fuegeRegelHinzu(frueh));
+        assertEquals(Uhrzeit.get(1, 0), _kino.getTagesplan(erster.plus(31))
+                .getVorstellungen().get(0).getAnfangszeit());
+    }
 }
@@ -1,6 +1,7 @@
 package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
@@ -17,6 +18,7 @@ public class Kinosaal
     private String _name;
     private int _anzahlReihen;
     private int _anzahlSitzeProReihe;
+    private List<Platz> _plaetze;
 
     /**
      * Initialisiert einen neuen Kinosaal.
@@ -45,6 +47,7 @@ public class Kinosaal
         _name = name;
         _anzahlReihen = anzahlReihen;
         _anzahlSitzeProReihe = anzahlSitzeProReihe;
+        _plaetze = erzeugePlaetze();
     }
 
     /**
@@ -78,24 +81,30 @@ public class Kinosaal
     }
 
     /**
-     * Gibt eine Liste der Plätze in diesem Kinosaal zurück.
+     * Gibt eine Liste der Plätze in diesem Kinosaal zurück, zeilenweise
+     * geordnet wie die Platzindizes. Die Liste wird nur einmal erzeugt und
+     * kann nicht verändert werden.
      * 
      * @ensure result != null
      */
     public List<Platz> getPlaetze()
     {
-        List<Platz> kinoPlaetze = new ArrayList<Platz>();
-        int reihen = getAnzahlReihen();
-        int plaetze = getAnzahlSitzeProReihe();
-        for (int i = 0; i < reihen; i++)
+        return _plaetze;
+    }
+
+    private List<Platz> erzeugePlaetze()
+    {
+        List<Platz> kinoPlaetze = new ArrayList<Platz>(_anzahlReihen
+                * _anzahlSitzeProReihe);
+        for (int i = 0; i < _anzahlReihen; i++)
         {
-            for (int j = 0; j < plaetze; j++)
+            for (int j = 0; j < _anzahlSitzeProReihe; j++)
             {
                 Platz platz = Platz.get(i, j);
                 kinoPlaetze.add(platz);
             }
         }
-        return kinoPlaetze;
+        return Collections.unmodifiableList(kinoPlaetze);
     }
 
     /**
@@ -117,6 +126,69 @@ public class Kinosaal
                 && ((platz.getSitz() >= 0) && (platz.getSitz() < _anzahlSitzeProReihe));
     }
 
+    /**
+     * Gibt den Platzindex des angegebenen Platzes zurück. Die Plätze eines
+     * Saals werden zeilenweise durchnummeriert: Der Platzindex ist
+     * <code>reihe * getAnzahlSitzeProReihe() + sitz</code>. Mit Platzindizes
+     * können Plätze als <code>int</code> übergeben werden, ohne für jeden
+     * Platz ein Objekt zu erzeugen.
+     * 
+     * @require hatPlatz(platz)
+     * 
+     * @ensure hatPlatzindex(result)
+     */
+    public int getPlatzindex(Platz platz)
+    {
+        assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
+
+        return platz.getReihe() * _anzahlSitzeProReihe + platz.getSitz();
+    }
+
+    /**
+     * Gibt den Platz mit dem angegebenen Platzindex zurück.
+     * 
+     * @require hatPlatzindex(platzindex)
+     * 
+     * @ensure result != null
+     */
+    public Platz getPlatz(int platzindex)
+    {
+        assert hatPlatzindex(platzindex) : "Vorbedingung verletzt: hatPlatzindex(platzindex)";
+
+        return Platz.get(platzindex / _anzahlSitzeProReihe, platzindex
+                % _anzahlSitzeProReihe);
+    }
+
+    /**
+     * Prüft, ob es in diesem Kinosaal einen Platz mit dem angegebenen
+     * Platzindex gibt.
+     */
+    public boolean hatPlatzindex(int platzindex)
+    {
+        return platzindex >= 0
+                && platzindex < _anzahlReihen * _anzahlSitzeProReihe;
+    }
+
+    /**
+     * Prüft, ob es in diesem Kinosaal zu allen angegebenen Platzindizes einen
+     * Platz gibt.
+     * 
+     * @require platzindizes != null
+     */
+    public boolean hatPlatzindizes(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        for (int platzindex : platzindizes)
+        {
+            if (!hatPlatzindex(platzindex))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean equals(Object obj)
     {
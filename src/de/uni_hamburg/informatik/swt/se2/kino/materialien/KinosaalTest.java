@@ -3,6 +3,7 @@ package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import java.util.List;
 import org.junit.Test;
@@ -38,6 +39,8 @@ public class KinosaalTest
         assertTrue(plaetze.contains(Platz.get(0, 3)));
         assertTrue(plaetze.contains(Platz.get(2, 0)));
         assertTrue(plaetze.contains(Platz.get(2, 3)));
+        assertEquals(Platz.get(1, 2), plaetze.get(6));
+        assertSame(plaetze, k.getPlaetze());
     }
 
     @Test
@@ -48,4 +51,20 @@ public class KinosaalTest
         assertTrue(k2.equals(k1));
         assertTrue(k1.hashCode() == k2.hashCode());
     }
+
+    @Test
+    public void testePlatzindex()
+    {
+        Kinosaal k = new Kinosaal("Name", 3, 4);
+        assertEquals(0, k.getPlatzindex(Platz.get(0, 0)));
+        assertEquals(6, k.getPlatzindex(Platz.get(1, 2)));
+        assertEquals(11, k.getPlatzindex(Platz.get(2, 3)));
+        assertEquals(Platz.get(1, 2), k.getPlatz(6));
+
+        assertTrue(k.hatPlatzindex(11));
+        assertFalse(k.hatPlatzindex(12));
+        assertFalse(k.hatPlatzindex(-1));
+        assertTrue(k.hatPlatzindizes(new int[] {0, 5, 11}));
+        assertFalse(k.hatPlatzindizes(new int[] {0, 12}));
+    }
 }
@@ -0,0 +1,786 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Die Belegung der Plätze eines Kinosaals. Ein Platz ist entweder frei,
+ * reserviert oder verkauft. Die Belegung wird als Folge unveränderlicher
+ * {@link Belegungsstand Stände} geführt; jeder Stand besteht aus einer
+ * {@link Reihenbelegung} pro Reihe, die verkaufte und reservierte Plätze als
+ * gepackte Bitfelder hält.
+ *
+ * Mehrere Plätze werden über eine Maske geprüft und geändert, in der jede
+ * Reihe an einer eigenen Wortgrenze beginnt und so viele
+ * <code>long</code>-Wörter belegt, wie für ihre Sitze nötig sind. So fällt
+ * pro Wort nur eine Operation an.
+ *
+ * Die Platzbelegung kann von mehreren Threads gleichzeitig benutzt werden,
+ * ohne dass gesperrt wird. Eine Änderung baut aus dem aktuellen Stand einen
+ * neuen, in dem nur die von der Maske berührten Reihen neu erzeugt und alle
+ * anderen übernommen werden, und veröffentlicht ihn per compare-and-set. Eine
+ * Änderung mehrerer Plätze gelingt damit ganz oder gar nicht, und Leser
+ * arbeiten ungestört auf dem Stand, den sie sich geholt haben.
+ *
+ * Jede erfolgreiche Änderung wird zusätzlich im {@link Belegungsjournal}
+ * festgehalten, so dass Leser ab einem Stand nur noch die Änderungen lesen
+ * müssen. Das Journal übernimmt dafür die Maske der Änderung; eine Maske darf
+ * deshalb nach einer Änderung nicht mehr verändert werden.
+ *
+ * Die meisten Vorstellungen, vor allem die weit in der Zukunft, haben keinen
+ * einzigen verkauften Platz. Alle Platzbelegungen gleicher Größe beginnen
+ * deshalb mit demselben unveränderlichen Stand, in dem alle Plätze frei sind,
+ * und das Journal wird erst bei der ersten Änderung angelegt. Eine unberührte
+ * Platzbelegung belegt so nur sich selbst und ihre Referenz auf den Stand.
+ * Auch danach werden nur die Reihen neu angelegt, in denen sich etwas
+ * geändert hat; alle anderen bleiben die gemeinsame freie Reihe.
+ *
+ * Eine Platzbelegung, in der kein Platz verkauft oder reserviert ist, kann
+ * mit {@link #schliesseFallsFrei()} geschlossen werden. Das Schließen ist
+ * selbst ein Stand, der per compare-and-set veröffentlicht wird; jede spätere
+ * Änderung scheitert an ihm, und eine gleichzeitige Änderung lässt entweder
+ * das Schließen oder sich selbst scheitern.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Platzbelegung
+{
+    private static final int BITS_PRO_WORT = Reihenbelegung.BITS_PRO_WORT;
+
+    // Die Anzahl der Ereignisse, die das Journal aufbewahrt
+    private static final int JOURNAL_KAPAZITAET = 256;
+
+    // Die gemeinsamen Stände ohne belegte Plätze, einer pro Saalgröße
+    private static final ConcurrentMap<Long, Belegungsstand> FREIE_STAENDE = new ConcurrentHashMap<Long, Belegungsstand>();
+
+    private final int _anzahlReihen;
+    private final int _anzahlSitzeProReihe;
+    private final int _woerterProReihe;
+    private final AtomicReference<Belegungsstand> _stand;
+    // Wird erst bei der ersten Änderung angelegt
+    private volatile Belegungsjournal _journal;
+
+    /**
+     * Initialisiert eine Platzbelegung, in der alle Plätze frei sind.
+     *
+     * @param anzahlReihen die Anzahl der Reihen.
+     * @param anzahlSitzeProReihe die Anzahl der Sitze pro Reihe.
+     *
+     * @require anzahlReihen > 0
+     * @require anzahlSitzeProReihe > 0
+     */
+    Platzbelegung(int anzahlReihen, int anzahlSitzeProReihe)
+    {
+        assert anzahlReihen > 0 : "Vorbedingung verletzt: anzahlReihen > 0";
+        assert anzahlSitzeProReihe > 0 : "Vorbedingung verletzt: anzahlSitzeProReihe > 0";
+
+        _anzahlReihen = anzahlReihen;
+        _anzahlSitzeProReihe = anzahlSitzeProReihe;
+        _woerterProReihe = Reihenbelegung.anzahlWoerter(anzahlSitzeProReihe);
+        _stand = new AtomicReference<Belegungsstand>(freierStand(
+                anzahlReihen, anzahlSitzeProReihe));
+    }
+
+    /**
+     * Gibt den gemeinsamen Stand mit der Version 0 zurück, in dem alle Plätze
+     * einer Platzbelegung der angegebenen Größe frei sind. Da ein Stand
+     * unveränderlich ist, können alle Platzbelegungen dieser Größe mit ihm
+     * beginnen.
+     */
+    private static Belegungsstand freierStand(int anzahlReihen,
+            int anzahlSitzeProReihe)
+    {
+        Long groesse = ((long) anzahlReihen << 32) | anzahlSitzeProReihe;
+        Belegungsstand stand = FREIE_STAENDE.get(groesse);
+        if (stand == null)
+        {
+            // Alle Reihen teilen sich dieselbe freie Reihe
+            Reihenbelegung[] reihen = new Reihenbelegung[anzahlReihen];
+            Arrays.fill(reihen, Reihenbelegung.frei(anzahlSitzeProReihe));
+            stand = new Belegungsstand(0, anzahlSitzeProReihe, reihen, 0,
+                    anzahlReihen * anzahlSitzeProReihe, false);
+            Belegungsstand vorhanden = FREIE_STAENDE.putIfAbsent(groesse,
+                    stand);
+            if (vorhanden != null)
+            {
+                stand = vorhanden;
+            }
+        }
+        return stand;
+    }
+
+    /**
+     * Gibt den aktuellen Stand zurück.
+     *
+     * @ensure result != null
+     */
+    Belegungsstand getStand()
+    {
+        return _stand.get();
+    }
+
+    /**
+     * Gibt das Journal der Änderungen zurück.
+     *
+     * @ensure result != null
+     */
+    Belegungsjournal getJournal()
+    {
+        Belegungsjournal journal = _journal;
+        if (journal == null)
+        {
+            journal = legeJournalAn();
+        }
+        return journal;
+    }
+
+    private synchronized Belegungsjournal legeJournalAn()
+    {
+        if (_journal == null)
+        {
+            _journal = new Belegungsjournal(JOURNAL_KAPAZITAET);
+        }
+        return _journal;
+    }
+
+    /**
+     * Erzeugt eine Maske, in der genau die Bits der angegebenen Plätze gesetzt
+     * sind.
+     *
+     * @require plaetze != null
+     * @require alle Plätze sind gültig
+     */
+    long[] erzeugeMaske(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+
+        long[] maske = new long[_anzahlReihen * _woerterProReihe];
+        for (Platz platz : plaetze)
+        {
+            assert istGueltig(platz.getReihe(), platz.getSitz()) : "Vorbedingung verletzt: alle Plätze sind gültig";
+            maske[wortIndex(platz.getReihe(), platz.getSitz())] |= bit(platz
+                    .getSitz());
+        }
+        return maske;
+    }
+
+    /**
+     * Erzeugt wie {@link #erzeugeMaske(Set)} eine Maske der angegebenen Plätze,
+     * prüft dabei aber selbst, ob alle Plätze gültig sind, statt es
+     * vorauszusetzen.
+     *
+     * @return die Maske oder <code>null</code>, wenn mindestens ein Platz
+     *         nicht zu dieser Platzbelegung gehört.
+     *
+     * @require plaetze != null
+     */
+    long[] erzeugeMaskeFallsGueltig(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+
+        long[] maske = new long[_anzahlReihen * _woerterProReihe];
+        for (Platz platz : plaetze)
+        {
+            if (!istGueltig(platz.getReihe(), platz.getSitz()))
+            {
+                return null;
+            }
+            maske[wortIndex(platz.getReihe(), platz.getSitz())] |= bit(platz
+                    .getSitz());
+        }
+        return maske;
+    }
+
+    /**
+     * Erzeugt eine Maske, in der genau das Bit des angegebenen Platzes gesetzt
+     * ist.
+     *
+     * @require istGueltig(reihe, sitz)
+     */
+    long[] erzeugeMaske(int reihe, int sitz)
+    {
+        assert istGueltig(reihe, sitz) : "Vorbedingung verletzt: istGueltig(reihe, sitz)";
+
+        long[] maske = new long[_anzahlReihen * _woerterProReihe];
+        maske[wortIndex(reihe, sitz)] = bit(sitz);
+        return maske;
+    }
+
+    /**
+     * Erzeugt eine Maske, in der genau die Bits der Plätze mit den angegebenen
+     * Platzindizes gesetzt sind. Der Platzindex eines Platzes ist
+     * <code>reihe * anzahlSitzeProReihe + sitz</code>. Wie bei
+     * {@link #erzeugeMaskeFallsGueltig(Set)} wird die Gültigkeit hier selbst
+     * geprüft, da ein negativer Index sonst still ein fremdes Bit setzen
+     * würde.
+     *
+     * @return die Maske oder <code>null</code>, wenn mindestens ein
+     *         Platzindex nicht zu dieser Platzbelegung gehört.
+     *
+     * @require platzindizes != null
+     */
+    long[] erzeugeMaskeFallsGueltig(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        long[] maske = new long[_anzahlReihen * _woerterProReihe];
+        for (int platzindex : platzindizes)
+        {
+            if (platzindex < 0
+                    || platzindex >= _anzahlReihen * _anzahlSitzeProReihe)
+            {
+                return null;
+            }
+            int reihe = platzindex / _anzahlSitzeProReihe;
+            int sitz = platzindex % _anzahlSitzeProReihe;
+            maske[wortIndex(reihe, sitz)] |= bit(sitz);
+        }
+        return maske;
+    }
+
+    /**
+     * Wandelt eine Maske zurück in die Menge der Plätze, deren Bits gesetzt
+     * sind.
+     *
+     * @require maske != null
+     * @ensure result != null
+     */
+    Set<Platz> zuPlaetzen(long[] maske)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+
+        return zuPlaetzen(maske, _woerterProReihe);
+    }
+
+    /**
+     * Wandelt eine Maske einer Platzbelegung mit der angegebenen Anzahl Wörter
+     * pro Reihe in die Menge der Plätze um, deren Bits gesetzt sind.
+     *
+     * @require maske != null
+     * @require woerterProReihe > 0
+     * @ensure result != null
+     */
+    static Set<Platz> zuPlaetzen(long[] maske, int woerterProReihe)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+        assert woerterProReihe > 0 : "Vorbedingung verletzt: woerterProReihe > 0";
+
+        Set<Platz> plaetze = new HashSet<Platz>();
+        for (int i = 0; i < maske.length; i++)
+        {
+            long wort = maske[i];
+            while (wort != 0)
+            {
+                int reihe = i / woerterProReihe;
+                int sitz = (i % woerterProReihe) * BITS_PRO_WORT
+                        + Long.numberOfTrailingZeros(wort);
+                plaetze.add(Platz.get(reihe, sitz));
+                wort &= wort - 1;
+            }
+        }
+        return plaetze;
+    }
+
+    /**
+     * Prüft, ob alle Plätze der Maske frei, also weder verkauft noch
+     * reserviert sind. In einer geschlossenen Platzbelegung ist kein Platz
+     * frei.
+     *
+     * @require maske != null
+     */
+    boolean sindAlleFrei(long[] maske)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+
+        Belegungsstand stand = _stand.get();
+        if (stand.istGeschlossen())
+        {
+            return zaehle(maske) == 0;
+        }
+        for (int i = 0; i < maske.length; i++)
+        {
+            if (maske[i] != 0)
+            {
+                Reihenbelegung reihe = stand.getReihe(i / _woerterProReihe);
+                int w = i % _woerterProReihe;
+                if (((reihe.verkauft(w) | reihe.reserviert(w)) & maske[i]) != 0)
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob alle Plätze der Maske verkauft sind.
+     *
+     * @require maske != null
+     */
+    boolean sindAlleVerkauft(long[] maske)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+
+        Belegungsstand stand = _stand.get();
+        for (int i = 0; i < maske.length; i++)
+        {
+            if (maske[i] != 0)
+            {
+                Reihenbelegung reihe = stand.getReihe(i / _woerterProReihe);
+                if ((reihe.verkauft(i % _woerterProReihe) & maske[i]) != maske[i])
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob alle Plätze mit den angegebenen Platzindizes frei sind. Anders
+     * als bei einer Maske wird dabei nichts erzeugt.
+     *
+     * @require platzindizes != null
+     * @require alle Platzindizes sind gültig
+     */
+    boolean sindAlleFrei(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        Belegungsstand stand = _stand.get();
+        if (stand.istGeschlossen())
+        {
+            return platzindizes.length == 0;
+        }
+        for (int platzindex : platzindizes)
+        {
+            Reihenbelegung reihe = stand.getReihe(platzindex
+                    / _anzahlSitzeProReihe);
+            int sitz = platzindex % _anzahlSitzeProReihe;
+            if (reihe.istVerkauft(sitz) || reihe.istReserviert(sitz))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob alle Plätze mit den angegebenen Platzindizes verkauft sind.
+     *
+     * @require platzindizes != null
+     * @require alle Platzindizes sind gültig
+     */
+    boolean sindAlleVerkauft(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        Belegungsstand stand = _stand.get();
+        for (int platzindex : platzindizes)
+        {
+            if (!stand.getReihe(platzindex / _anzahlSitzeProReihe).istVerkauft(
+                    platzindex % _anzahlSitzeProReihe))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sucht die besten <code>anzahl</code> nebeneinander liegenden freien
+     * Plätze. Bevorzugt wird die Reihe, die der Saalmitte am nächsten liegt,
+     * und in dieser Reihe der Block, der der Reihenmitte am nächsten liegt,
+     * siehe {@link Reihenbelegung#findeFreienBlock(int, long[], long[])}.
+     * Reihen, deren längster freier Block zu kurz ist, werden gar nicht erst
+     * betrachtet.
+     *
+     * Das Ergebnis ist nur ein Vorschlag auf dem Stand zum Zeitpunkt des
+     * Aufrufs; verkauft oder reserviert wird dabei nichts.
+     *
+     * @return die Maske der gefundenen Plätze oder <code>null</code>, wenn
+     *         keine Reihe genug freie Plätze nebeneinander hat.
+     *
+     * @require anzahl > 0
+     */
+    long[] findeFreienBlock(int anzahl)
+    {
+        assert anzahl > 0 : "Vorbedingung verletzt: anzahl > 0";
+
+        Belegungsstand stand = _stand.get();
+        long[] anfaenge = new long[_woerterProReihe];
+        long[] verschoben = new long[_woerterProReihe];
+        int mitte = (_anzahlReihen - 1) / 2;
+        // Reihenfolge: mitte, mitte + 1, mitte - 1, mitte + 2, ...
+        for (int i = 0; i < 2 * _anzahlReihen; i++)
+        {
+            int reihe = (i % 2 == 0) ? mitte - i / 2 : mitte + (i + 1) / 2;
+            if (reihe < 0 || reihe >= _anzahlReihen)
+            {
+                continue;
+            }
+            int sitz = stand.getReihe(reihe).findeFreienBlock(anzahl,
+                    anfaenge, verschoben);
+            if (sitz >= 0)
+            {
+                long[] maske = new long[_anzahlReihen * _woerterProReihe];
+                for (int s = sitz; s < sitz + anzahl; s++)
+                {
+                    maske[wortIndex(reihe, s)] |= bit(s);
+                }
+                return maske;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Verkauft alle Plätze der Maske, sofern sie alle frei sind. Ist mindestens
+     * einer der Plätze verkauft oder reserviert, wird nichts geändert.
+     *
+     * @return die Maske der Plätze, die nicht frei waren, oder
+     *         <code>null</code>, wenn alle Plätze verkauft wurden.
+     *
+     * @require maske != null
+     */
+    long[] verkaufeFallsFrei(long[] maske)
+    {
+        return aendere(Aenderung.VERKAUF, maske);
+    }
+
+    /**
+     * Storniert alle Plätze der Maske, sofern sie alle verkauft sind. Ist
+     * mindestens einer der Plätze nicht verkauft, wird nichts geändert.
+     *
+     * @return die Maske der Plätze, die nicht verkauft waren, oder
+     *         <code>null</code>, wenn alle Plätze storniert wurden.
+     *
+     * @require maske != null
+     */
+    long[] storniereFallsVerkauft(long[] maske)
+    {
+        return aendere(Aenderung.STORNO, maske);
+    }
+
+    /**
+     * Reserviert alle Plätze der Maske, sofern sie alle frei sind. Ist
+     * mindestens einer der Plätze verkauft oder reserviert, wird nichts
+     * geändert.
+     *
+     * @return die Maske der Plätze, die nicht frei waren, oder
+     *         <code>null</code>, wenn alle Plätze reserviert wurden.
+     *
+     * @require maske != null
+     */
+    long[] reserviereFallsFrei(long[] maske)
+    {
+        return aendere(Aenderung.RESERVIERUNG, maske);
+    }
+
+    /**
+     * Verkauft alle Plätze der Maske, sofern sie alle reserviert sind.
+     *
+     * @return die Maske der Plätze, die nicht reserviert waren, oder
+     *         <code>null</code>, wenn alle Plätze verkauft wurden.
+     *
+     * @require maske != null
+     */
+    long[] verkaufeReservierte(long[] maske)
+    {
+        return aendere(Aenderung.VERKAUF_RESERVIERTER, maske);
+    }
+
+    /**
+     * Gibt alle Plätze der Maske frei, sofern sie alle reserviert sind.
+     *
+     * @return die Maske der Plätze, die nicht reserviert waren, oder
+     *         <code>null</code>, wenn alle Plätze freigegeben wurden.
+     *
+     * @require maske != null
+     */
+    long[] gibReservierteFrei(long[] maske)
+    {
+        return aendere(Aenderung.FREIGABE_RESERVIERTER, maske);
+    }
+
+    /**
+     * Schließt die Platzbelegung, sofern kein Platz verkauft oder reserviert
+     * ist. Danach scheitert jede Änderung, alle Plätze der Maske gelten als
+     * Konflikt. Das Schließen erscheint im Journal als Ereignis ohne Plätze.
+     *
+     * @return true, wenn die Platzbelegung geschlossen wurde, false, wenn ein
+     *         Platz verkauft oder reserviert ist oder sie schon geschlossen
+     *         war.
+     */
+    boolean schliesseFallsFrei()
+    {
+        while (true)
+        {
+            Belegungsstand alt = _stand.get();
+            if (alt.istGeschlossen()
+                    || alt.getAnzahlFreiePlaetze() != _anzahlReihen
+                            * _anzahlSitzeProReihe)
+            {
+                return false;
+            }
+            long version = alt.getVersion() + 1;
+            if (_stand.compareAndSet(alt, new Belegungsstand(version,
+                    _anzahlSitzeProReihe, alt.kopiereReihen(), 0,
+                    alt.getAnzahlFreiePlaetze(), true)))
+            {
+                getJournal().haengeAn(new Belegungsereignis(version,
+                        Belegungsereignis.Art.SCHLIESSUNG,
+                        new long[_anzahlReihen * _woerterProReihe],
+                        _woerterProReihe));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Zählt die in einer Maske gesetzten Plätze.
+     *
+     * @require maske != null
+     */
+    static int zaehle(long[] maske)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+
+        int anzahl = 0;
+        for (long wort : maske)
+        {
+            anzahl += Long.bitCount(wort);
+        }
+        return anzahl;
+    }
+
+    /**
+     * Prüft, ob der angegebene Platz zu dieser Platzbelegung gehört.
+     */
+    boolean istGueltig(int reihe, int sitz)
+    {
+        return (reihe >= 0) && (reihe < _anzahlReihen) && (sitz >= 0)
+                && (sitz < _anzahlSitzeProReihe);
+    }
+
+    /**
+     * Führt eine Änderung atomar aus: Entweder werden alle Plätze der Maske
+     * geändert oder, falls es Konflikte gibt, keiner. Nur die von der Maske
+     * berührten Reihen werden neu erzeugt. In einer geschlossenen
+     * Platzbelegung sind alle Plätze der Maske Konflikte.
+     *
+     * @return die Konfliktmaske oder <code>null</code>, wenn die Änderung
+     *         durchgeführt wurde.
+     */
+    private long[] aendere(Aenderung aenderung, long[] maske)
+    {
+        assert maske != null : "Vorbedingung verletzt: maske != null";
+
+        int anzahlPlaetze = zaehle(maske);
+        if (anzahlPlaetze == 0)
+        {
+            // Eine leere Änderung erzeugt weder Stand noch Journaleintrag
+            return null;
+        }
+        int anzahlVerkaufteDifferenz = aenderung._vorzeichen * anzahlPlaetze;
+        while (true)
+        {
+            Belegungsstand alt = _stand.get();
+            if (alt.istGeschlossen())
+            {
+                return maske;
+            }
+            long[] konflikte = null;
+            for (int i = 0; i < maske.length; i++)
+            {
+                if (maske[i] == 0)
+                {
+                    continue;
+                }
+                Reihenbelegung reihe = alt.getReihe(i / _woerterProReihe);
+                int w = i % _woerterProReihe;
+                long konflikt = aenderung.konflikte(maske[i],
+                        reihe.verkauft(w), reihe.reserviert(w));
+                if (konflikt != 0)
+                {
+                    if (konflikte == null)
+                    {
+                        konflikte = new long[maske.length];
+                    }
+                    konflikte[i] = konflikt;
+                }
+            }
+            if (konflikte != null)
+            {
+                return konflikte;
+            }
+
+            Reihenbelegung[] reihen = alt.kopiereReihen();
+            int anzahlFrei = alt.getAnzahlFreiePlaetze();
+            for (int r = 0; r < _anzahlReihen; r++)
+            {
+                if (beruehrtReihe(maske, r))
+                {
+                    Reihenbelegung neu = aendereReihe(aenderung, maske, r,
+                            reihen[r]);
+                    anzahlFrei += neu.getAnzahlFrei() - reihen[r].getAnzahlFrei();
+                    reihen[r] = neu;
+                }
+            }
+
+            long version = alt.getVersion() + 1;
+            if (_stand.compareAndSet(alt, new Belegungsstand(version,
+                    _anzahlSitzeProReihe, reihen,
+                    alt.getAnzahlVerkauftePlaetze() + anzahlVerkaufteDifferenz,
+                    anzahlFrei, false)))
+            {
+                getJournal().haengeAn(new Belegungsereignis(version,
+                        aenderung._art, maske, _woerterProReihe));
+                return null;
+            }
+        }
+    }
+
+    private Reihenbelegung aendereReihe(Aenderung aenderung, long[] maske,
+            int r, Reihenbelegung alt)
+    {
+        long[] verkauft = new long[_woerterProReihe];
+        long[] reserviert = new long[_woerterProReihe];
+        for (int w = 0; w < _woerterProReihe; w++)
+        {
+            long m = maske[r * _woerterProReihe + w];
+            verkauft[w] = aenderung.verkauft(m, alt.verkauft(w));
+            reserviert[w] = aenderung.reserviert(m, alt.reserviert(w));
+        }
+        return new Reihenbelegung(_anzahlSitzeProReihe, verkauft, reserviert);
+    }
+
+    private boolean beruehrtReihe(long[] maske, int reihe)
+    {
+        int erstesWort = reihe * _woerterProReihe;
+        for (int w = 0; w < _woerterProReihe; w++)
+        {
+            if (maske[erstesWort + w] != 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int wortIndex(int reihe, int sitz)
+    {
+        return reihe * _woerterProReihe + sitz / BITS_PRO_WORT;
+    }
+
+    private static long bit(int sitz)
+    {
+        // Java verwendet bei Verschiebungen von long nur die unteren sechs
+        // Bits, 1L << sitz entspricht also 1L << (sitz % 64).
+        return 1L << sitz;
+    }
+
+    /**
+     * Die möglichen Änderungen eines Platzes, jeweils wortweise beschrieben
+     * durch die Konflikte und die neuen Werte der beiden Bitfelder.
+     */
+    private enum Aenderung
+    {
+        VERKAUF(Belegungsereignis.Art.VERKAUF, 1)
+        {
+            long konflikte(long maske, long verkauft, long reserviert)
+            {
+                return maske & (verkauft | reserviert);
+            }
+
+            long verkauft(long maske, long verkauft)
+            {
+                return verkauft | maske;
+            }
+        },
+        STORNO(Belegungsereignis.Art.STORNO, -1)
+        {
+            long konflikte(long maske, long verkauft, long reserviert)
+            {
+                return maske & ~verkauft;
+            }
+
+            long verkauft(long maske, long verkauft)
+            {
+                return verkauft & ~maske;
+            }
+        },
+        RESERVIERUNG(Belegungsereignis.Art.RESERVIERUNG, 0)
+        {
+            long konflikte(long maske, long verkauft, long reserviert)
+            {
+                return maske & (verkauft | reserviert);
+            }
+
+            long reserviert(long maske, long reserviert)
+            {
+                return reserviert | maske;
+            }
+        },
+        VERKAUF_RESERVIERTER(Belegungsereignis.Art.VERKAUF_RESERVIERTER, 1)
+        {
+            long konflikte(long maske, long verkauft, long reserviert)
+            {
+                return maske & ~reserviert;
+            }
+
+            long verkauft(long maske, long verkauft)
+            {
+                return verkauft | maske;
+            }
+
+            long reserviert(long maske, long reserviert)
+            {
+                return reserviert & ~maske;
+            }
+        },
+        FREIGABE_RESERVIERTER(Belegungsereignis.Art.FREIGABE_RESERVIERTER, 0)
+        {
+            long konflikte(long maske, long verkauft, long reserviert)
+            {
+                return maske & ~reserviert;
+            }
+
+            long reserviert(long maske, long reserviert)
+            {
+                return reserviert & ~maske;
+            }
+        };
+
+        // Unter welcher Art die Änderung im Journal erscheint
+        private final Belegungsereignis.Art _art;
+
+        // Wie sich die Anzahl verkaufter Plätze pro geändertem Platz ändert
+        private final int _vorzeichen;
+
+        private Aenderung(Belegungsereignis.Art art, int vorzeichen)
+        {
+            _art = art;
+            _vorzeichen = vorzeichen;
+        }
+
+        abstract long konflikte(long maske, long verkauft, long reserviert);
+
+        long verkauft(long maske, long verkauft)
+        {
+            return verkauft;
+        }
+
+        long reserviert(long maske, long reserviert)
+        {
+            return reserviert;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+public class PlatzbelegungTest
+{
+    @Test
+    public void testeNeueBelegungIstFrei()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        assertEquals(0, belegung.getStand().getAnzahlVerkauftePlaetze());
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(0, 0)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(2, 69)));
+    }
+
+    @Test
+    public void testeBelegenUndFreigebenUeberWortgrenze()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(1, 63)));
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(1, 64)));
+
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(1, 63)));
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(1, 64)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(1, 0)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(2, 0)));
+        assertEquals(2, belegung.getStand().getAnzahlVerkauftePlaetze());
+
+        assertNull(belegung.storniereFallsVerkauft(belegung.erzeugeMaske(1, 64)));
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(1, 63)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(1, 64)));
+        assertEquals(1, belegung.getStand().getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeMaske()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(0, 5));
+        plaetze.add(Platz.get(2, 66));
+        long[] maske = belegung.erzeugeMaske(plaetze);
+
+        assertEquals(2, Platzbelegung.zaehle(maske));
+        assertEquals(plaetze, belegung.zuPlaetzen(maske));
+        assertTrue(belegung.sindAlleFrei(maske));
+        assertFalse(belegung.sindAlleVerkauft(maske));
+
+        assertNull(belegung.verkaufeFallsFrei(maske));
+        assertFalse(belegung.sindAlleFrei(maske));
+        assertTrue(belegung.sindAlleVerkauft(maske));
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(2, 66)));
+
+        assertNull(belegung.storniereFallsVerkauft(belegung.erzeugeMaske(2, 66)));
+        assertFalse(belegung.sindAlleFrei(maske));
+        assertFalse(belegung.sindAlleVerkauft(maske));
+    }
+
+    @Test
+    public void testeKonflikteAendernNichts()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(2, 66)));
+
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(0, 5));
+        plaetze.add(Platz.get(2, 66));
+        long[] konflikte = belegung.verkaufeFallsFrei(belegung
+                .erzeugeMaske(plaetze));
+
+        assertEquals(1, Platzbelegung.zaehle(konflikte));
+        assertTrue(belegung.zuPlaetzen(konflikte).contains(Platz.get(2, 66)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(0, 5)));
+        assertEquals(1, belegung.getStand().getAnzahlVerkauftePlaetze());
+
+        konflikte = belegung.storniereFallsVerkauft(belegung.erzeugeMaske(plaetze));
+        assertTrue(belegung.zuPlaetzen(konflikte).contains(Platz.get(0, 5)));
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(2, 66)));
+        assertEquals(1, belegung.getStand().getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeReservierung()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        long[] maske = belegung.erzeugeMaske(1, 65);
+
+        assertNull(belegung.reserviereFallsFrei(maske));
+        assertTrue(belegung.getStand().istReserviert(Platz.get(1, 65)));
+        assertFalse(belegung.getStand().istVerkauft(Platz.get(1, 65)));
+        assertFalse(belegung.sindAlleFrei(maske));
+        assertEquals(0, belegung.getStand().getAnzahlVerkauftePlaetze());
+
+        // Reservierte Plätze sind weder verkaufbar noch erneut reservierbar
+        assertEquals(1, Platzbelegung.zaehle(belegung.verkaufeFallsFrei(maske)));
+        assertEquals(1,
+                Platzbelegung.zaehle(belegung.reserviereFallsFrei(maske)));
+
+        assertNull(belegung.verkaufeReservierte(maske));
+        assertFalse(belegung.getStand().istReserviert(Platz.get(1, 65)));
+        assertTrue(belegung.getStand().istVerkauft(Platz.get(1, 65)));
+        assertEquals(1, belegung.getStand().getAnzahlVerkauftePlaetze());
+
+        // Verkaufte Plätze können nicht als reservierte freigegeben werden
+        assertEquals(1, Platzbelegung.zaehle(belegung.gibReservierteFrei(maske)));
+        assertNull(belegung.storniereFallsVerkauft(maske));
+        assertNull(belegung.reserviereFallsFrei(maske));
+        assertNull(belegung.gibReservierteFrei(maske));
+        assertTrue(belegung.sindAlleFrei(maske));
+    }
+
+    @Test
+    public void testeFindeFreienBlockBevorzugtMitte()
+    {
+        Platzbelegung belegung = new Platzbelegung(5, 10);
+        long[] block = belegung.findeFreienBlock(4);
+        Set<Platz> erwartet = new HashSet<Platz>();
+        for (int sitz = 3; sitz < 7; sitz++)
+        {
+            erwartet.add(Platz.get(2, sitz));
+        }
+        assertEquals(erwartet, belegung.zuPlaetzen(block));
+
+        // Ein verkaufter Platz in der Mitte verschiebt den Block zur Seite
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(2, 5)));
+        erwartet.clear();
+        for (int sitz = 1; sitz < 5; sitz++)
+        {
+            erwartet.add(Platz.get(2, sitz));
+        }
+        assertEquals(erwartet, belegung.zuPlaetzen(belegung.findeFreienBlock(4)));
+
+        // Reicht die mittlere Reihe nicht, wird die nächste Reihe genommen
+        Set<Platz> sechs = belegung.zuPlaetzen(belegung.findeFreienBlock(6));
+        assertEquals(6, sechs.size());
+        assertTrue(sechs.contains(Platz.get(3, 2)));
+        assertTrue(sechs.contains(Platz.get(3, 7)));
+        assertNull(belegung.findeFreienBlock(11));
+    }
+
+    @Test
+    public void testeFindeFreienBlockUeberWortgrenze()
+    {
+        Platzbelegung belegung = new Platzbelegung(1, 140);
+        Set<Platz> plaetze = new HashSet<Platz>();
+        for (int sitz = 0; sitz < 140; sitz++)
+        {
+            if (sitz < 60 || sitz > 130)
+            {
+                plaetze.add(Platz.get(0, sitz));
+            }
+        }
+        assertNull(belegung.reserviereFallsFrei(belegung.erzeugeMaske(plaetze)));
+
+        // Frei sind nur die Sitze 60 bis 130, über zwei Wortgrenzen hinweg
+        long[] block = belegung.findeFreienBlock(71);
+        assertEquals(71, Platzbelegung.zaehle(block));
+        assertTrue(belegung.sindAlleFrei(block));
+        assertTrue(belegung.zuPlaetzen(block).contains(Platz.get(0, 60)));
+        assertTrue(belegung.zuPlaetzen(block).contains(Platz.get(0, 130)));
+        assertNull(belegung.findeFreienBlock(72));
+    }
+
+    @Test
+    public void testeZusammenfassungProReihe()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        assertEquals(210, belegung.getStand().getAnzahlFreiePlaetze());
+        assertEquals(70, belegung.getStand().getAnzahlFreiePlaetze(1));
+        assertEquals(70, belegung.getStand().getLaengsterFreierBlock(1));
+        assertEquals(70, belegung.getStand().getLaengsterFreierBlock());
+
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(1, 10));
+        plaetze.add(Platz.get(1, 40));
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(plaetze)));
+        assertNull(belegung.reserviereFallsFrei(belegung.erzeugeMaske(1, 63)));
+
+        // Freie Blöcke in Reihe 1: 0-9, 11-39, 41-62, 64-69
+        assertEquals(207, belegung.getStand().getAnzahlFreiePlaetze());
+        assertEquals(67, belegung.getStand().getAnzahlFreiePlaetze(1));
+        assertEquals(70, belegung.getStand().getAnzahlFreiePlaetze(0));
+        assertEquals(29, belegung.getStand().getLaengsterFreierBlock(1));
+        assertEquals(70, belegung.getStand().getLaengsterFreierBlock(2));
+
+        assertNull(belegung.gibReservierteFrei(belegung.erzeugeMaske(1, 63)));
+        assertEquals(68, belegung.getStand().getAnzahlFreiePlaetze(1));
+        assertEquals(29, belegung.getStand().getLaengsterFreierBlock(1));
+        assertNull(belegung.storniereFallsVerkauft(belegung.erzeugeMaske(1, 40)));
+        assertEquals(59, belegung.getStand().getLaengsterFreierBlock(1));
+        assertEquals(209, belegung.getStand().getAnzahlFreiePlaetze());
+    }
+
+    @Test
+    public void testeLaengsterFreierBlockEntsprichtZaehlung()
+    {
+        Random zufall = new Random(7);
+        Platzbelegung belegung = new Platzbelegung(4, 150);
+        for (int i = 0; i < 300; i++)
+        {
+            int reihe = zufall.nextInt(4);
+            int sitz = zufall.nextInt(150);
+            long[] maske = belegung.erzeugeMaske(reihe, sitz);
+            if (belegung.getStand().istVerkauft(Platz.get(reihe, sitz)))
+            {
+                belegung.storniereFallsVerkauft(maske);
+            }
+            else
+            {
+                belegung.verkaufeFallsFrei(maske);
+            }
+
+            int frei = 0;
+            int laengster = 0;
+            int lauf = 0;
+            for (int s = 0; s < 150; s++)
+            {
+                if (belegung.getStand().istVerkauft(Platz.get(reihe, s)))
+                {
+                    lauf = 0;
+                }
+                else
+                {
+                    frei++;
+                    lauf++;
+                }
+                laengster = Math.max(laengster, lauf);
+            }
+            assertEquals(frei, belegung.getStand().getAnzahlFreiePlaetze(reihe));
+            assertEquals(laengster, belegung.getStand().getLaengsterFreierBlock(reihe));
+        }
+    }
+
+    @Test
+    public void testeStaendeSindUnveraenderlichUndTeilenReihen()
+    {
+        Platzbelegung belegung = new Platzbelegung(3, 70);
+        Belegungsstand vorher = belegung.getStand();
+        assertEquals(0, vorher.getVersion());
+
+        assertNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(1, 5)));
+        Belegungsstand nachher = belegung.getStand();
+
+        assertEquals(1, nachher.getVersion());
+        assertFalse(vorher.istVerkauft(Platz.get(1, 5)));
+        assertTrue(nachher.istVerkauft(Platz.get(1, 5)));
+        assertEquals(0, vorher.getAnzahlVerkauftePlaetze());
+        assertEquals(1, nachher.getAnzahlVerkauftePlaetze());
+
+        // Nur die geänderte Reihe ist neu
+        assertSame(vorher.getReihe(0), nachher.getReihe(0));
+        assertSame(vorher.getReihe(2), nachher.getReihe(2));
+        assertNotSame(vorher.getReihe(1), nachher.getReihe(1));
+
+        // Ein Konflikt erzeugt keinen neuen Stand
+        assertNotNull(belegung.verkaufeFallsFrei(belegung.erzeugeMaske(1, 5)));
+        assertSame(nachher, belegung.getStand());
+    }
+
+    @Test
+    public void testeUnberuehrteBelegungenTeilenDenFreienStand()
+    {
+        Platzbelegung erste = new Platzbelegung(3, 70);
+        Platzbelegung zweite = new Platzbelegung(3, 70);
+        assertSame(erste.getStand(), zweite.getStand());
+        assertNotSame(erste.getStand(), new Platzbelegung(3, 71).getStand());
+
+        assertNull(erste.verkaufeFallsFrei(erste.erzeugeMaske(1, 5)));
+        assertTrue(erste.getStand().istVerkauft(Platz.get(1, 5)));
+        assertEquals(1, erste.getStand().getVersion());
+        assertFalse(zweite.getStand().istVerkauft(Platz.get(1, 5)));
+        assertEquals(0, zweite.getStand().getVersion());
+        assertSame(zweite.getStand(), new Platzbelegung(3, 70).getStand());
+        assertEquals(1, erste.getJournal().leseNach(0).size());
+        assertEquals(0, zweite.getJournal().leseNach(0).size());
+    }
+}
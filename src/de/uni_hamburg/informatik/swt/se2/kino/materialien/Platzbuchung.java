@@ -0,0 +1,99 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Collections;
+import java.util.Set;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Ein Auftrag, Plätze einer Vorstellung zu verkaufen oder zu stornieren. Eine
+ * Platzbuchung wird mit {@link Vorstellung#fuehreAus(Platzbuchung)}
+ * ausgeführt und liefert ein {@link Buchungsergebnis}.
+ *
+ * Anders als {@link Vorstellung#verkaufePlaetze(Set)} setzt eine Platzbuchung
+ * keine Vorbedingungen voraus, die vorher per Assertion geprüft werden
+ * müssten: Die Plätze werden bei der Ausführung genau einmal geprüft, und was
+ * nicht passt, steht im Ergebnis. Damit ist sie auch ohne aktivierte
+ * Assertions sicher.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Platzbuchung
+{
+    /**
+     * Die Arten von Platzbuchungen.
+     */
+    public enum Art
+    {
+        /** Freie Plätze verkaufen. */
+        VERKAUF,
+        /** Verkaufte Plätze stornieren. */
+        STORNO
+    }
+
+    private final Art _art;
+    private final Set<Platz> _plaetze;
+
+    private Platzbuchung(Art art, Set<Platz> plaetze)
+    {
+        _art = art;
+        _plaetze = Collections.unmodifiableSet(plaetze);
+    }
+
+    /**
+     * Erzeugt einen Auftrag, die angegebenen Plätze zu verkaufen. Die Menge
+     * wird nicht kopiert und sollte bis zur Ausführung nicht verändert werden.
+     *
+     * @require plaetze != null
+     *
+     * @ensure result != null
+     */
+    public static Platzbuchung verkauf(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+
+        return new Platzbuchung(Art.VERKAUF, plaetze);
+    }
+
+    /**
+     * Erzeugt einen Auftrag, die angegebenen Plätze zu stornieren. Die Menge
+     * wird nicht kopiert und sollte bis zur Ausführung nicht verändert werden.
+     *
+     * @require plaetze != null
+     *
+     * @ensure result != null
+     */
+    public static Platzbuchung storno(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+
+        return new Platzbuchung(Art.STORNO, plaetze);
+    }
+
+    /**
+     * Gibt die Art der Buchung zurück.
+     *
+     * @ensure result != null
+     */
+    public Art getArt()
+    {
+        return _art;
+    }
+
+    /**
+     * Gibt die zu buchenden Plätze zurück.
+     *
+     * @ensure result != null
+     */
+    public Set<Platz> getPlaetze()
+    {
+        return _plaetze;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Platzbuchung: " + _art + " " + _plaetze;
+    }
+}
@@ -0,0 +1,118 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+
+/**
+ * Eine zeitlich begrenzte Reservierung von Plätzen einer Vorstellung, etwa
+ * solange an einer Kasse bezahlt wird. Solange die Reservierung aktiv ist, kann
+ * keine andere Kasse die Plätze verkaufen oder reservieren.
+ *
+ * Eine Reservierung wird genau einmal beendet: entweder indem ihre Plätze
+ * verkauft werden oder indem sie freigegeben wird, auch wenn sie abläuft.
+ * Danach ist sie nicht mehr aktiv.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class Platzreservierung
+{
+    private final Vorstellung _vorstellung;
+    private final Set<Platz> _plaetze;
+    private final long[] _maske;
+    private final Object _inhaber;
+    private final long _ablaufzeitpunkt;
+    private final AtomicBoolean _aktiv;
+
+    /**
+     * Initialisiert eine aktive Reservierung. Reservierungen werden nur von
+     * der Vorstellung erzeugt.
+     */
+    Platzreservierung(Vorstellung vorstellung, Set<Platz> plaetze,
+            long[] maske, Object inhaber, long ablaufzeitpunkt)
+    {
+        _vorstellung = vorstellung;
+        _plaetze = Collections.unmodifiableSet(plaetze);
+        _maske = maske;
+        _inhaber = inhaber;
+        _ablaufzeitpunkt = ablaufzeitpunkt;
+        _aktiv = new AtomicBoolean(true);
+    }
+
+    /**
+     * Gibt die Vorstellung zurück, für die reserviert wurde.
+     *
+     * @ensure result != null
+     */
+    public Vorstellung getVorstellung()
+    {
+        return _vorstellung;
+    }
+
+    /**
+     * Gibt die reservierten Plätze zurück.
+     *
+     * @ensure result != null
+     */
+    public Set<Platz> getPlaetze()
+    {
+        return _plaetze;
+    }
+
+    /**
+     * Gibt zurück, wer die Plätze reserviert hat, zum Beispiel die Kasse.
+     *
+     * @ensure result != null
+     */
+    public Object getInhaber()
+    {
+        return _inhaber;
+    }
+
+    /**
+     * Gibt den Zeitpunkt in Millisekunden seit 1970 zurück, zu dem die
+     * Reservierung abläuft.
+     */
+    public long getAblaufzeitpunkt()
+    {
+        return _ablaufzeitpunkt;
+    }
+
+    /**
+     * Gibt an, ob die Reservierung noch aktiv ist, die Plätze also weder
+     * verkauft noch freigegeben wurden.
+     */
+    public boolean istAktiv()
+    {
+        return _aktiv.get();
+    }
+
+    /**
+     * Gibt die Maske der reservierten Plätze in der Platzbelegung der
+     * Vorstellung zurück.
+     */
+    long[] getMaske()
+    {
+        return _maske;
+    }
+
+    /**
+     * Beendet die Reservierung.
+     *
+     * @return true, wenn die Reservierung bis eben aktiv war und von diesem
+     *         Aufruf beendet wurde, sonst false.
+     */
+    boolean beende()
+    {
+        return _aktiv.compareAndSet(true, false);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Platzreservierung: " + _plaetze + ", " + _vorstellung;
+    }
+}
@@ -0,0 +1,277 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+/**
+ * Die unveränderliche Belegung einer einzelnen Reihe: je ein Bitfeld für
+ * verkaufte und reservierte Plätze, ein Bit pro Sitz, dazu die Anzahl freier
+ * Plätze und die Länge des längsten Blocks freier Plätze.
+ *
+ * Weil eine Reihenbelegung nach dem Erzeugen nie verändert wird, können
+ * mehrere Stände einer Platzbelegung dieselbe Reihe gemeinsam benutzen. Eine
+ * Änderung erzeugt nur für die betroffenen Reihen neue Objekte.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Reihenbelegung
+{
+    static final int BITS_PRO_WORT = 64;
+
+    private final int _anzahlSitze;
+    private final long[] _verkauft;
+    private final long[] _reserviert;
+    private final int _anzahlFrei;
+    private final int _laengsterFreierBlock;
+
+    /**
+     * Erzeugt eine Reihenbelegung aus den beiden Bitfeldern. Die Felder werden
+     * übernommen und dürfen danach nicht mehr verändert werden.
+     *
+     * @require anzahlSitze > 0
+     * @require verkauft.length == anzahlWoerter(anzahlSitze)
+     * @require reserviert.length == anzahlWoerter(anzahlSitze)
+     */
+    Reihenbelegung(int anzahlSitze, long[] verkauft, long[] reserviert)
+    {
+        assert anzahlSitze > 0 : "Vorbedingung verletzt: anzahlSitze > 0";
+        assert verkauft.length == anzahlWoerter(anzahlSitze) : "Vorbedingung verletzt: verkauft.length == anzahlWoerter(anzahlSitze)";
+        assert reserviert.length == anzahlWoerter(anzahlSitze) : "Vorbedingung verletzt: reserviert.length == anzahlWoerter(anzahlSitze)";
+
+        _anzahlSitze = anzahlSitze;
+        _verkauft = verkauft;
+        _reserviert = reserviert;
+
+        int anzahlFrei = 0;
+        for (int w = 0; w < _verkauft.length; w++)
+        {
+            anzahlFrei += Long.bitCount(freieSitze(w));
+        }
+        _anzahlFrei = anzahlFrei;
+        _laengsterFreierBlock = berechneLaengstenFreienBlock();
+    }
+
+    /**
+     * Erzeugt eine Reihenbelegung, in der alle Plätze frei sind.
+     *
+     * @require anzahlSitze > 0
+     */
+    static Reihenbelegung frei(int anzahlSitze)
+    {
+        int woerter = anzahlWoerter(anzahlSitze);
+        return new Reihenbelegung(anzahlSitze, new long[woerter],
+                new long[woerter]);
+    }
+
+    /**
+     * Gibt zurück, wie viele Wörter eine Reihe mit der angegebenen Anzahl
+     * Sitze pro Bitfeld belegt.
+     */
+    static int anzahlWoerter(int anzahlSitze)
+    {
+        return (anzahlSitze + BITS_PRO_WORT - 1) / BITS_PRO_WORT;
+    }
+
+    /**
+     * Gibt an, ob der angegebene Sitz verkauft ist.
+     */
+    boolean istVerkauft(int sitz)
+    {
+        return (_verkauft[sitz / BITS_PRO_WORT] & (1L << sitz)) != 0;
+    }
+
+    /**
+     * Gibt an, ob der angegebene Sitz reserviert ist.
+     */
+    boolean istReserviert(int sitz)
+    {
+        return (_reserviert[sitz / BITS_PRO_WORT] & (1L << sitz)) != 0;
+    }
+
+    /**
+     * Gibt das Wort <code>w</code> des Bitfelds der verkauften Plätze zurück.
+     */
+    long verkauft(int w)
+    {
+        return _verkauft[w];
+    }
+
+    /**
+     * Gibt das Wort <code>w</code> des Bitfelds der reservierten Plätze
+     * zurück.
+     */
+    long reserviert(int w)
+    {
+        return _reserviert[w];
+    }
+
+    /**
+     * Gibt das Wort <code>w</code> zurück, in dem genau die Bits der freien,
+     * also weder verkauften noch reservierten Sitze gesetzt sind.
+     */
+    long freieSitze(int w)
+    {
+        long frei = ~(_verkauft[w] | _reserviert[w]);
+        int rest = _anzahlSitze - w * BITS_PRO_WORT;
+        if (rest < BITS_PRO_WORT)
+        {
+            frei &= (1L << rest) - 1;
+        }
+        return frei;
+    }
+
+    /**
+     * Gibt die Anzahl der Wörter pro Bitfeld zurück.
+     */
+    int getAnzahlWoerter()
+    {
+        return _verkauft.length;
+    }
+
+    /**
+     * Gibt die Anzahl der freien Plätze zurück.
+     */
+    int getAnzahlFrei()
+    {
+        return _anzahlFrei;
+    }
+
+    /**
+     * Gibt die Länge des längsten Blocks nebeneinander liegender freier Plätze
+     * zurück.
+     */
+    int getLaengsterFreierBlock()
+    {
+        return _laengsterFreierBlock;
+    }
+
+    /**
+     * Sucht den freien Block der angegebenen Länge, der der Reihenmitte am
+     * nächsten liegt.
+     *
+     * Die freien Plätze werden so lange mit um die bereits erreichte
+     * Blocklänge verschobenen Kopien ihrer selbst verundet, bis nur noch die
+     * Anfänge freier Blöcke der gesuchten Länge gesetzt sind. Das braucht etwa
+     * log2(anzahl) Durchläufe über die Wörter der Reihe.
+     *
+     * @param anfaenge Arbeitsspeicher mit getAnzahlWoerter() Wörtern.
+     * @param verschoben Arbeitsspeicher mit getAnzahlWoerter() Wörtern.
+     *
+     * @return den ersten Sitz des Blocks oder -1, wenn es keinen gibt.
+     *
+     * @require anzahl > 0
+     */
+    int findeFreienBlock(int anzahl, long[] anfaenge, long[] verschoben)
+    {
+        assert anzahl > 0 : "Vorbedingung verletzt: anzahl > 0";
+
+        if (anzahl > _laengsterFreierBlock)
+        {
+            return -1;
+        }
+
+        int woerter = _verkauft.length;
+        for (int w = 0; w < woerter; w++)
+        {
+            anfaenge[w] = freieSitze(w);
+        }
+
+        // Invariante: Bit i ist gesetzt, wenn die Sitze i bis i + laenge - 1
+        // frei sind.
+        int laenge = 1;
+        while (laenge < anzahl)
+        {
+            int schritt = Math.min(laenge, anzahl - laenge);
+            verschiebeNachRechts(anfaenge, woerter, schritt, verschoben);
+            for (int w = 0; w < woerter; w++)
+            {
+                anfaenge[w] &= verschoben[w];
+            }
+            laenge += schritt;
+        }
+
+        // Der Abstand zur Mitte wird verdoppelt gerechnet, damit er auch bei
+        // ungerader Differenz ganzzahlig bleibt.
+        int doppelteMitte = _anzahlSitze - anzahl;
+        int besterSitz = -1;
+        int besterAbstand = Integer.MAX_VALUE;
+        for (int w = 0; w < woerter; w++)
+        {
+            long wort = anfaenge[w];
+            while (wort != 0)
+            {
+                int sitz = w * BITS_PRO_WORT + Long.numberOfTrailingZeros(wort);
+                int abstand = Math.abs(2 * sitz - doppelteMitte);
+                if (abstand >= besterAbstand)
+                {
+                    // Weiter rechts liegende Anfänge entfernen sich nur noch
+                    // weiter von der Mitte.
+                    return besterSitz;
+                }
+                besterSitz = sitz;
+                besterAbstand = abstand;
+                wort &= wort - 1;
+            }
+        }
+        return besterSitz;
+    }
+
+    /**
+     * Bestimmt den längsten Block freier Plätze. Innerhalb eines Wortes wird
+     * von Block zu Block gesprungen statt von Sitz zu Sitz, der Aufwand hängt
+     * also von der Anzahl der Blöcke ab.
+     */
+    private int berechneLaengstenFreienBlock()
+    {
+        int laengster = 0;
+        int lauf = 0;
+        for (int w = 0; w < _verkauft.length; w++)
+        {
+            long frei = freieSitze(w);
+            int bits = Math.min(BITS_PRO_WORT, _anzahlSitze - w * BITS_PRO_WORT);
+            int pos = 0;
+            while (pos < bits)
+            {
+                long rest = frei >>> pos;
+                if ((rest & 1) != 0)
+                {
+                    int einsen = Math.min(Long.numberOfTrailingZeros(~rest),
+                            bits - pos);
+                    lauf += einsen;
+                    pos += einsen;
+                }
+                else
+                {
+                    laengster = Math.max(laengster, lauf);
+                    lauf = 0;
+                    if (rest == 0)
+                    {
+                        break;
+                    }
+                    pos += Long.numberOfTrailingZeros(rest);
+                }
+            }
+        }
+        return Math.max(laengster, lauf);
+    }
+
+    /**
+     * Verschiebt die Bits einer Reihe um <code>anzahl</code> Sitze zum
+     * Reihenanfang hin, so dass Bit i des Ergebnisses Bit i + anzahl der
+     * Quelle ist.
+     */
+    private static void verschiebeNachRechts(long[] quelle, int woerter,
+            int anzahl, long[] ziel)
+    {
+        int wortVersatz = anzahl / BITS_PRO_WORT;
+        int bitVersatz = anzahl % BITS_PRO_WORT;
+        for (int w = 0; w < woerter; w++)
+        {
+            int q = w + wortVersatz;
+            long wort = (q < woerter) ? quelle[q] >>> bitVersatz : 0;
+            if (bitVersatz != 0 && q + 1 < woerter)
+            {
+                wort |= quelle[q + 1] << (BITS_PRO_WORT - bitVersatz);
+            }
+            ziel[w] = wort;
+        }
+    }
+}
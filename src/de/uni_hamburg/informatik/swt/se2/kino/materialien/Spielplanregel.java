@@ -0,0 +1,240 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+
+/**
+ * Eine Regel für wiederkehrende Vorstellungen, etwa "Saal 1, Film X, täglich
+ * um 20:00 Uhr für sechs Wochen". Eine Regel beschreibt, in welchem Kinosaal
+ * welcher Film zu welcher Zeit und zu welchem Preis läuft, vom ersten Tag an
+ * in einem festen Abstand von Tagen bis höchstens zum letzten Tag.
+ *
+ * Ein Kino legt die einzelnen Vorstellungen einer Regel erst an, wenn ihr Tag
+ * zum ersten Mal abgefragt wird, siehe {@link Kino#fuegeRegelHinzu}.
+ *
+ * Eine Spielplanregel ist unveränderlich.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Spielplanregel
+{
+    private static final int MINUTEN_PRO_TAG = 24 * 60;
+
+    private final Kinosaal _kinosaal;
+    private final Film _film;
+    private final Uhrzeit _anfangszeit;
+    private final Uhrzeit _endzeit;
+    private final Datum _ersterTag;
+    private final Datum _letzterTag;
+    private final int _abstandInTagen;
+    private final int _preis;
+
+    /**
+     * Erstellt eine neue Spielplanregel. Der letzte Tag muss selbst kein Tag
+     * der Regel sein; die letzte Vorstellung läuft am letzten Tag, der im
+     * angegebenen Abstand vom ersten Tag erreicht wird.
+     *
+     * @param kinosaal der Kinosaal, in dem die Vorstellungen laufen.
+     * @param film der Film, der gezeigt wird.
+     * @param anfangszeit die Anfangszeit jeder Vorstellung.
+     * @param endzeit die Endzeit jeder Vorstellung.
+     * @param ersterTag der Tag der ersten Vorstellung.
+     * @param letzterTag der letzte Tag, an dem eine Vorstellung laufen darf.
+     * @param abstandInTagen der Abstand zwischen zwei Vorstellungen in Tagen,
+     *            1 für täglich, 7 für wöchentlich.
+     * @param preis der Verkaufspreis in Eurocent.
+     *
+     * @require kinosaal != null
+     * @require film != null
+     * @require anfangszeit != null
+     * @require endzeit != null
+     * @require ersterTag != null
+     * @require letzterTag != null
+     * @require ersterTag.compareTo(letzterTag) <= 0
+     * @require abstandInTagen > 0
+     * @require preis >= 0
+     */
+    public Spielplanregel(Kinosaal kinosaal, Film film, Uhrzeit anfangszeit,
+            Uhrzeit endzeit, Datum ersterTag, Datum letzterTag,
+            int abstandInTagen, int preis)
+    {
+        assert kinosaal != null : "Vorbedingung verletzt: kinosaal != null";
+        assert film != null : "Vorbedingung verletzt: film != null";
+        assert anfangszeit != null : "Vorbedingung verletzt: anfangszeit != null";
+        assert endzeit != null : "Vorbedingung verletzt: endzeit != null";
+        assert ersterTag != null : "Vorbedingung verletzt: ersterTag != null";
+        assert letzterTag != null : "Vorbedingung verletzt: letzterTag != null";
+        assert ersterTag.compareTo(letzterTag) <= 0 : "Vorbedingung verletzt: ersterTag.compareTo(letzterTag) <= 0";
+        assert abstandInTagen > 0 : "Vorbedingung verletzt: abstandInTagen > 0";
+        assert preis >= 0 : "Vorbedingung verletzt: preis >= 0";
+
+        _kinosaal = kinosaal;
+        _film = film;
+        _anfangszeit = anfangszeit;
+        _endzeit = endzeit;
+        _ersterTag = ersterTag;
+        _letzterTag = ersterTag.plus(letzterTag.tageSeit(ersterTag)
+                / abstandInTagen * abstandInTagen);
+        _abstandInTagen = abstandInTagen;
+        _preis = preis;
+    }
+
+    /**
+     * Gibt an, ob nach dieser Regel am angegebenen Tag eine Vorstellung läuft.
+     *
+     * @param tag der Tag.
+     *
+     * @require tag != null
+     */
+    public boolean giltAm(Datum tag)
+    {
+        assert tag != null : "Vorbedingung verletzt: tag != null";
+
+        return giltAm(tag.getTageSeitEpoche());
+    }
+
+    /**
+     * Gibt an, ob nach dieser Regel am angegebenen Tag in Tagen seit dem
+     * 1.1.1970 eine Vorstellung läuft.
+     */
+    boolean giltAm(int tageSeitEpoche)
+    {
+        int seitErstemTag = tageSeitEpoche - _ersterTag.getTageSeitEpoche();
+        return seitErstemTag >= 0
+                && tageSeitEpoche <= _letzterTag.getTageSeitEpoche()
+                && seitErstemTag % _abstandInTagen == 0;
+    }
+
+    /**
+     * Erzeugt die Vorstellung dieser Regel am angegebenen Tag.
+     *
+     * @param tag der Tag.
+     *
+     * @require tag != null
+     * @require giltAm(tag)
+     *
+     * @ensure result != null
+     * @ensure result.getDatum() == tag
+     */
+    public Vorstellung erzeugeVorstellung(Datum tag)
+    {
+        assert tag != null : "Vorbedingung verletzt: tag != null";
+        assert giltAm(tag) : "Vorbedingung verletzt: giltAm(tag)";
+
+        return new Vorstellung(_kinosaal, _film, _anfangszeit, _endzeit, tag,
+                _preis);
+    }
+
+    /**
+     * Gibt den Anfang der Vorstellung am angegebenen Tag in Minuten seit dem
+     * 1.1.1970 zurück, ohne sie zu erzeugen.
+     */
+    long getAnfangAm(int tageSeitEpoche)
+    {
+        return (long) tageSeitEpoche * MINUTEN_PRO_TAG
+                + _anfangszeit.getMinutenSeitMitternacht();
+    }
+
+    /**
+     * Gibt die Dauer jeder Vorstellung in Minuten zurück. Liegt die Endzeit
+     * vor der Anfangszeit, endet die Vorstellung am folgenden Tag.
+     *
+     * @ensure result >= 0
+     */
+    int getDauer()
+    {
+        return _endzeit.minutenSeit(_anfangszeit);
+    }
+
+    /**
+     * Gibt den Kinosaal zurück, in dem die Vorstellungen laufen.
+     *
+     * @ensure result != null
+     */
+    public Kinosaal getKinosaal()
+    {
+        return _kinosaal;
+    }
+
+    /**
+     * Gibt den Film zurück, der gezeigt wird.
+     *
+     * @ensure result != null
+     */
+    public Film getFilm()
+    {
+        return _film;
+    }
+
+    /**
+     * Gibt die Anfangszeit jeder Vorstellung zurück.
+     *
+     * @ensure result != null
+     */
+    public Uhrzeit getAnfangszeit()
+    {
+        return _anfangszeit;
+    }
+
+    /**
+     * Gibt die Endzeit jeder Vorstellung zurück.
+     *
+     * @ensure result != null
+     */
+    public Uhrzeit getEndzeit()
+    {
+        return _endzeit;
+    }
+
+    /**
+     * Gibt den Tag der ersten Vorstellung zurück.
+     *
+     * @ensure result != null
+     */
+    public Datum getErsterTag()
+    {
+        return _ersterTag;
+    }
+
+    /**
+     * Gibt den Tag der letzten Vorstellung zurück.
+     *
+     * @ensure result != null
+     * @ensure giltAm(result)
+     */
+    public Datum getLetzterTag()
+    {
+        return _letzterTag;
+    }
+
+    /**
+     * Gibt den Abstand zwischen zwei Vorstellungen in Tagen zurück.
+     *
+     * @ensure result > 0
+     */
+    public int getAbstandInTagen()
+    {
+        return _abstandInTagen;
+    }
+
+    /**
+     * Gibt den Verkaufspreis in Eurocent zurück.
+     *
+     * @ensure result >= 0
+     */
+    public int getPreis()
+    {
+        return _preis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return _film.getTitel() + ", " + _kinosaal.getName() + ", "
+                + _anfangszeit.getFormatiertenString() + " Uhr alle "
+                + _abstandInTagen + " Tage vom "
+                + _ersterTag.getFormatiertenString() + " bis "
+                + _letzterTag.getFormatiertenString();
+    }
+}
@@ -1,22 +1,45 @@
 package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
 
 /**
  * Ein Tagesplan verzeichnet alle Vorstellungen, die in dem Kino an einem
  * bestimmten Tag laufen.
  * 
+ * Die Vorstellungen werden schon beim Hinzufügen an der richtigen Stelle
+ * einsortiert, so dass das Lesen weder kopieren noch sortieren muss.
+ * 
+ * Ein Tagesplan kann geändert werden, während andere Threads ihn lesen. Die
+ * Vorstellungen werden dazu als unveränderlicher Stand geführt, wie bei der
+ * Platzbelegung: Jede Änderung baut einen neuen Stand und veröffentlicht ihn
+ * per compare-and-set. Leser sperren nie und sehen immer einen Tag vor oder
+ * nach einer Änderung, nie einen halb geänderten.
+ * 
+ * Hinzufügen, Entfernen und Ersetzen bleiben dem {@link Kino} vorbehalten,
+ * das dabei unter seiner Schreibsperre auf Überschneidungen prüft und seine
+ * Verzeichnisse nachführt. Von außen wird ein Tagesplan nur gelesen.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public class Tagesplan
 {
+    // Alle leeren Tagespläne teilen sich diese Liste
+    private static final List<Vorstellung> KEINE_VORSTELLUNGEN = Collections
+            .emptyList();
+
     private Datum _tag;
-    private List<Vorstellung> _vorstellungen;
+    // Der aktuelle Stand, nach Anfang sortiert und unveränderlich
+    private final AtomicReference<List<Vorstellung>> _vorstellungen;
+    // Wie viele Spielplanregeln des Kinos schon auf diesen Tag angewandt
+    // wurden, siehe Kino#fuegeRegelHinzu
+    private volatile int _angewandteRegeln;
 
     // Der Comparator wird zur Sortierung der Vorstellungen innerhalb eines
     // Tagesplans verwendet.
@@ -28,10 +51,8 @@ public class Tagesplan
             assert v1 != null : "Vorbedingung verletzt: v1 != null";
             assert v2 != null : "Vorbedingung verletzt: v2 != null";
 
-            // Der Vergleich der Anfangszeiten reicht hier aus, weil in
-            // einem Tagesplan sowieso nur Vorstellungen mit gleichem Datum
-            // laufen.
-            return v1.getAnfangszeit().compareTo(v2.getAnfangszeit());
+            return Long.compare(v1.getAnfang().getMinutenSeitEpoche(), v2
+                    .getAnfang().getMinutenSeitEpoche());
         }
     };
 
@@ -48,7 +69,46 @@ public class Tagesplan
         assert tag != null : "Vorbedingung verletzt: tag != null";
 
         _tag = tag;
-        _vorstellungen = new ArrayList<Vorstellung>();
+        _vorstellungen = new AtomicReference<List<Vorstellung>>(
+                KEINE_VORSTELLUNGEN);
+    }
+
+    /**
+     * Initialisiert einen Tagesplan mit den angegebenen Vorstellungen. Sie
+     * werden einmal stabil nach Anfang sortiert; Vorstellungen mit gleichem
+     * Anfang behalten ihre Reihenfolge.
+     * 
+     * @param tag
+     *            der Tag.
+     * @param vorstellungen
+     *            ein Feld, das die Vorstellungen enthält.
+     * @param von
+     *            die Stelle der ersten Vorstellung im Feld.
+     * @param bis
+     *            die Stelle hinter der letzten Vorstellung im Feld.
+     * 
+     * @require tag != null
+     * @require vorstellungen != null
+     * @require 0 <= von && von <= bis && bis <= vorstellungen.length
+     * @require alle Vorstellungen laufen an dem angegebenen Tag
+     */
+    Tagesplan(Datum tag, Vorstellung[] vorstellungen, int von, int bis)
+    {
+        this(tag);
+        assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
+        assert 0 <= von && von <= bis && bis <= vorstellungen.length : "Vorbedingung verletzt: 0 <= von && von <= bis && bis <= vorstellungen.length";
+
+        if (von < bis)
+        {
+            Vorstellung[] sortiert = Arrays.copyOfRange(vorstellungen, von, bis);
+            for (Vorstellung v : sortiert)
+            {
+                assert v.getDatum().equals(tag) : "Vorbedingung verletzt: alle Vorstellungen laufen an dem angegebenen Tag";
+            }
+            Arrays.sort(sortiert, _vergleichNachAnfangszeit);
+            _vorstellungen.set(Collections.unmodifiableList(Arrays
+                    .asList(sortiert)));
+        }
     }
 
     /**
@@ -62,7 +122,30 @@ public class Tagesplan
     }
 
     /**
-     * Fügt diesem Tagesplan eine Vorstellung hinzu.
+     * Gibt zurück, wie viele Spielplanregeln des Kinos schon auf diesen Tag
+     * angewandt wurden.
+     */
+    int getAngewandteRegeln()
+    {
+        return _angewandteRegeln;
+    }
+
+    /**
+     * Vermerkt, dass die ersten <code>anzahl</code> Spielplanregeln des Kinos
+     * auf diesen Tag angewandt wurden.
+     * 
+     * @require anzahl >= getAngewandteRegeln()
+     */
+    void setAngewandteRegeln(int anzahl)
+    {
+        assert anzahl >= _angewandteRegeln : "Vorbedingung verletzt: anzahl >= getAngewandteRegeln()";
+
+        _angewandteRegeln = anzahl;
+    }
+
+    /**
+     * Fügt diesem Tagesplan eine Vorstellung hinzu. Sie wird per binärer Suche
+     * hinter allen Vorstellungen einsortiert, die nicht später anfangen.
      * 
      * @param v
      *            die Vorstellung.
@@ -70,24 +153,265 @@ public class Tagesplan
      * @require v != null
      * @require die Vorstellung laeuft an dem Tag dieses Tagesplans
      */
-    public void fuegeVorstellungHinzu(Vorstellung v)
+    void fuegeVorstellungHinzu(Vorstellung v)
     {
         assert v != null : "Vorbedingung verletzt: v != null";
         assert v.getDatum().equals(_tag) : "Vorbedingung verletzt: v.getDatum().equals(_tag)";
 
-        _vorstellungen.add(v);
+        List<Vorstellung> alt;
+        List<Vorstellung> neu;
+        do
+        {
+            alt = _vorstellungen.get();
+            neu = ersetzt(alt, null, v);
+        }
+        while (!_vorstellungen.compareAndSet(alt, neu));
+    }
+
+    /**
+     * Fügt diesem Tagesplan mehrere nach Anfang sortierte Vorstellungen in
+     * einem Schritt hinzu. Sie werden mit den vorhandenen zusammengeführt und
+     * stehen bei gleichem Anfang hinter diesen.
+     * 
+     * @param sortiert
+     *            ein Feld, das die Vorstellungen nach Anfang sortiert enthält.
+     * @param von
+     *            die Stelle der ersten Vorstellung im Feld.
+     * @param bis
+     *            die Stelle hinter der letzten Vorstellung im Feld.
+     * 
+     * @require sortiert != null
+     * @require 0 <= von && von <= bis && bis <= sortiert.length
+     * @require alle Vorstellungen laufen an dem Tag dieses Tagesplans
+     */
+    void fuegeVorstellungenHinzu(Vorstellung[] sortiert, int von, int bis)
+    {
+        assert sortiert != null : "Vorbedingung verletzt: sortiert != null";
+        assert 0 <= von && von <= bis && bis <= sortiert.length : "Vorbedingung verletzt: 0 <= von && von <= bis && bis <= sortiert.length";
+
+        if (von == bis)
+        {
+            return;
+        }
+        List<Vorstellung> alt;
+        Vorstellung[] neu;
+        do
+        {
+            alt = _vorstellungen.get();
+            neu = new Vorstellung[alt.size() + bis - von];
+            int a = 0;
+            int b = von;
+            for (int i = 0; i < neu.length; i++)
+            {
+                if (b == bis
+                        || (a < alt.size() && _vergleichNachAnfangszeit
+                                .compare(alt.get(a), sortiert[b]) <= 0))
+                {
+                    neu[i] = alt.get(a++);
+                }
+                else
+                {
+                    assert sortiert[b].getDatum().equals(_tag) : "Vorbedingung verletzt: alle Vorstellungen laufen an dem Tag dieses Tagesplans";
+                    neu[i] = sortiert[b++];
+                }
+            }
+        }
+        while (!_vorstellungen.compareAndSet(alt,
+                Collections.unmodifiableList(Arrays.asList(neu))));
+    }
+
+    /**
+     * Sortiert die Vorstellungen stabil nach ihrem Anfang.
+     * 
+     * @require vorstellungen != null
+     */
+    static void sortiereNachAnfang(Vorstellung[] vorstellungen)
+    {
+        assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
+
+        Arrays.sort(vorstellungen, _vergleichNachAnfangszeit);
+    }
+
+    /**
+     * Entfernt eine Vorstellung aus diesem Tagesplan, etwa weil sie abgesagt
+     * wurde.
+     * 
+     * @param v
+     *            die Vorstellung.
+     * @return ob die Vorstellung in diesem Tagesplan stand.
+     * 
+     * @require v != null
+     * 
+     * @ensure !getVorstellungen().contains(v)
+     */
+    boolean entferneVorstellung(Vorstellung v)
+    {
+        assert v != null : "Vorbedingung verletzt: v != null";
+
+        return ersetzeVorstellung(v, null);
+    }
+
+    /**
+     * Ersetzt eine Vorstellung dieses Tagesplans in einem Schritt durch eine
+     * andere, etwa weil sie verlegt wurde. Ein Leser sieht entweder die alte
+     * oder die neue Vorstellung, nie beide oder keine. Steht die alte
+     * Vorstellung nicht in diesem Tagesplan, bleibt er unverändert.
+     * 
+     * @param alt
+     *            die bisherige Vorstellung.
+     * @param neu
+     *            die neue Vorstellung oder <code>null</code>, um die alte nur
+     *            zu entfernen.
+     * @return ob die alte Vorstellung in diesem Tagesplan stand.
+     * 
+     * @require alt != null
+     * @require neu == null || neu.getDatum().equals(getDatum())
+     */
+    boolean ersetzeVorstellung(Vorstellung alt, Vorstellung neu)
+    {
+        assert alt != null : "Vorbedingung verletzt: alt != null";
+        assert neu == null || neu.getDatum().equals(_tag) : "Vorbedingung verletzt: neu == null || neu.getDatum().equals(getDatum())";
+
+        List<Vorstellung> bisher;
+        List<Vorstellung> danach;
+        do
+        {
+            bisher = _vorstellungen.get();
+            if (stelleVon(bisher, alt) < 0)
+            {
+                return false;
+            }
+            danach = ersetzt(bisher, alt, neu);
+        }
+        while (!_vorstellungen.compareAndSet(bisher, danach));
+        return true;
+    }
+
+    /**
+     * Gibt einen neuen Stand zurück, in dem die alte Vorstellung fehlt und die
+     * neue einsortiert ist. Beide dürfen <code>null</code> sein.
+     */
+    private static List<Vorstellung> ersetzt(List<Vorstellung> stand,
+            Vorstellung alt, Vorstellung neu)
+    {
+        int entfernt = alt == null ? -1 : stelleVon(stand, alt);
+        int anzahl = stand.size() - (entfernt < 0 ? 0 : 1)
+                + (neu == null ? 0 : 1);
+        if (anzahl == 0)
+        {
+            return KEINE_VORSTELLUNGEN;
+        }
+
+        Vorstellung[] vorstellungen = new Vorstellung[anzahl];
+        int n = 0;
+        for (int i = 0; i < stand.size(); i++)
+        {
+            if (i != entfernt)
+            {
+                vorstellungen[n++] = stand.get(i);
+            }
+        }
+        if (neu != null)
+        {
+            int stelle = einfuegestelle(vorstellungen, n, neu);
+            System.arraycopy(vorstellungen, stelle, vorstellungen, stelle + 1,
+                    n - stelle);
+            vorstellungen[stelle] = neu;
+        }
+        return Collections.unmodifiableList(Arrays.asList(vorstellungen));
+    }
+
+    /**
+     * Gibt die Stelle der angegebenen Vorstellung im Stand zurück oder -1.
+     */
+    private static int stelleVon(List<Vorstellung> stand, Vorstellung v)
+    {
+        for (int i = 0; i < stand.size(); i++)
+        {
+            if (stand.get(i) == v)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gibt die Stelle hinter der letzten der ersten <code>anzahl</code>
+     * Vorstellungen zurück, die nicht später anfängt als die angegebene.
+     */
+    private static int einfuegestelle(Vorstellung[] vorstellungen,
+            int anzahl, Vorstellung v)
+    {
+        int von = 0;
+        int bis = anzahl;
+        while (von < bis)
+        {
+            int mitte = (von + bis) >>> 1;
+            if (_vergleichNachAnfangszeit.compare(vorstellungen[mitte], v) <= 0)
+            {
+                von = mitte + 1;
+            }
+            else
+            {
+                bis = mitte;
+            }
+        }
+        return von;
     }
 
     /**
      * Gibt alle Vorstellungen des Tages zurück. Die Vorstellungen werden
      * sortiert nach ihrer Anfangszeit zurückgegeben.
      * 
+     * Das Ergebnis ist der aktuelle, unveränderliche Stand dieses Tagesplans,
+     * keine Kopie. Spätere Änderungen erscheinen darin nicht; wer sie sehen
+     * will, fragt erneut.
+     * 
      * @ensure result != null
      */
     public List<Vorstellung> getVorstellungen()
     {
-        List<Vorstellung> result = new ArrayList<Vorstellung>(_vorstellungen);
-        Collections.sort(result, _vergleichNachAnfangszeit);
-        return result;
+        return _vorstellungen.get();
+    }
+
+    /**
+     * Addiert den Umsatz aller Vorstellungen dieses Tages zu der angegebenen
+     * Summe.
+     * 
+     * @require summe != null
+     */
+    public void addiereUmsatzZu(Geldsumme summe)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+
+        List<Vorstellung> vorstellungen = _vorstellungen.get();
+        for (int i = 0; i < vorstellungen.size(); i++)
+        {
+            vorstellungen.get(i).addiereUmsatzZu(summe);
+        }
+    }
+
+    /**
+     * Addiert den Umsatz aller Vorstellungen dieses Tages, in denen der
+     * angegebene Film läuft, zu der angegebenen Summe.
+     * 
+     * @require summe != null
+     * @require film != null
+     */
+    public void addiereUmsatzZu(Geldsumme summe, Film film)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+        assert film != null : "Vorbedingung verletzt: film != null";
+
+        List<Vorstellung> vorstellungen = _vorstellungen.get();
+        for (int i = 0; i < vorstellungen.size(); i++)
+        {
+            Vorstellung vorstellung = vorstellungen.get(i);
+            if (vorstellung.getFilm() == film)
+            {
+                vorstellung.addiereUmsatzZu(summe);
+            }
+        }
     }
 }
@@ -1,7 +1,11 @@
 package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
@@ -68,4 +72,82 @@ public class TagesplanTest
         _t.fuegeVorstellungHinzu(_vorstellung3);
         assertEquals(2, _t.getVorstellungen().size());
     }
+
+    @Test
+    public void testEinfuegenHaeltSortierung()
+    {
+        Tagesplan plan = new Tagesplan(_datum);
+        int[] minuten = { 900, 60, 1300, 60, 600, 1439, 0, 900 };
+        for (int m : minuten)
+        {
+            plan.fuegeVorstellungHinzu(new Vorstellung(_kinosaal, _film,
+                    Uhrzeit.ausMinutenSeitMitternacht(m), _endzeit, _datum, 0));
+        }
+        List<Vorstellung> vorstellungen = plan.getVorstellungen();
+        assertEquals(minuten.length, vorstellungen.size());
+        for (int i = 1; i < vorstellungen.size(); i++)
+        {
+            assertTrue(vorstellungen.get(i - 1).getAnfangszeit()
+                    .compareTo(vorstellungen.get(i).getAnfangszeit()) <= 0);
+        }
+    }
+
+    @Test
+    public void testGleichzeitigeVorstellungenBehaltenReihenfolge()
+    {
+        _t.fuegeVorstellungHinzu(_vorstellung2);
+        _t.fuegeVorstellungHinzu(_vorstellung3);
+        _t.fuegeVorstellungHinzu(_vorstellung);
+        assertSame(_vorstellung, _t.getVorstellungen().get(0));
+        assertSame(_vorstellung2, _t.getVorstellungen().get(1));
+        assertSame(_vorstellung3, _t.getVorstellungen().get(2));
+    }
+
+    @Test
+    public void testVorstellungenSindUnveraenderlicherStand()
+    {
+        _t.fuegeVorstellungHinzu(_vorstellung);
+        List<Vorstellung> vorstellungen = _t.getVorstellungen();
+        assertSame(vorstellungen, _t.getVorstellungen());
+        _t.fuegeVorstellungHinzu(_vorstellung2);
+        assertEquals(1, vorstellungen.size());
+        assertEquals(2, _t.getVorstellungen().size());
+        try
+        {
+            _t.getVorstellungen().clear();
+            assertTrue("Stand ist veränderbar", false);
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertEquals(2, _t.getVorstellungen().size());
+        }
+    }
+
+    @Test
+    public void testVorstellungEntfernen()
+    {
+        _t.fuegeVorstellungHinzu(_vorstellung);
+        _t.fuegeVorstellungHinzu(_vorstellung2);
+
+        assertTrue(_t.entferneVorstellung(_vorstellung));
+        assertEquals(Arrays.asList(_vorstellung2), _t.getVorstellungen());
+        assertFalse(_t.entferneVorstellung(_vorstellung));
+        assertTrue(_t.entferneVorstellung(_vorstellung2));
+        assertTrue(_t.getVorstellungen().isEmpty());
+    }
+
+    @Test
+    public void testVorstellungErsetzen()
+    {
+        _t.fuegeVorstellungHinzu(_vorstellung);
+        _t.fuegeVorstellungHinzu(_vorstellung3);
+        Vorstellung verlegt = new Vorstellung(_kinosaal, _film,
+                Uhrzeit.get(0, 30), _endzeit, _datum, 0);
+
+        assertTrue(_t.ersetzeVorstellung(_vorstellung, verlegt));
+        assertEquals(Arrays.asList(_vorstellung3, verlegt),
+                _t.getVorstellungen());
+        assertFalse(_t.ersetzeVorstellung(_vorstellung, _vorstellung2));
+        assertEquals(2, _t.getVorstellungen().size());
+    }
 }
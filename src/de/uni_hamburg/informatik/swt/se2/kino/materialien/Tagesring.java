@@ -0,0 +1,320 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+
+/**
+ * Die Tagespläne eines Kinos für jeden Tag vom ersten bis zum letzten Tag mit
+ * Vorstellungen. Die Pläne liegen in einem Feld, dessen Länge eine
+ * Zweierpotenz ist; der Plan für den Tag t liegt im Fach
+ * t & (Länge - 1), wobei t die Anzahl der Tage seit dem 1.1.1970 ist.
+ *
+ * Ein Tagesring ist unveränderlich. Ein längerer Ring übernimmt die Pläne des
+ * bisherigen und teilt sich, solange die Kapazität reicht, sogar dessen Feld:
+ * Die neuen Tage belegen dann nur Fächer, die der bisherige Ring nie liest.
+ * Ein Leser, der sich einen Ring geholt hat, sieht daher immer einen
+ * vollständigen Zeitraum, auch wenn währenddessen ein längerer Ring
+ * veröffentlicht wird. Erweitert werden darf deshalb nur der jeweils neueste
+ * Ring.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Tagesring
+{
+    private static final Tagesring LEER = new Tagesring(new Tagesplan[1], 0,
+            0);
+
+    // Ab so vielen Vorstellungen werden die Tagespläne parallel aufgebaut
+    private static final int PARALLEL_AB = 16384;
+
+    // So viele Tage baut eine Teilaufgabe höchstens selbst auf
+    private static final int TAGE_PRO_TEILAUFGABE = 32;
+
+    private final Tagesplan[] _tagesplaene;
+    private final int _ersterTag;
+    private final int _anzahlTage;
+
+    private Tagesring(Tagesplan[] tagesplaene, int ersterTag, int anzahlTage)
+    {
+        _tagesplaene = tagesplaene;
+        _ersterTag = ersterTag;
+        _anzahlTage = anzahlTage;
+    }
+
+    /**
+     * Gibt einen Ring ohne Tage zurück.
+     *
+     * @ensure result != null
+     */
+    static Tagesring leer()
+    {
+        return LEER;
+    }
+
+    /**
+     * Gibt einen Ring mit einem leeren Tagesplan für jeden Tag vom ersten bis
+     * zum letzten Tag zurück.
+     *
+     * @param erstesDatum der erste Tag.
+     * @param letzterTag der letzte Tag in Tagen seit dem 1.1.1970.
+     *
+     * @require erstesDatum != null
+     * @require letzterTag >= erstesDatum.getTageSeitEpoche()
+     *
+     * @ensure result != null
+     */
+    static Tagesring von(Datum erstesDatum, int letzterTag)
+    {
+        assert erstesDatum != null : "Vorbedingung verletzt: erstesDatum != null";
+        assert letzterTag >= erstesDatum.getTageSeitEpoche() : "Vorbedingung verletzt: letzterTag >= erstesDatum.getTageSeitEpoche()";
+
+        int ersterTag = erstesDatum.getTageSeitEpoche();
+        int anzahlTage = letzterTag - ersterTag + 1;
+        Tagesplan[] tagesplaene = new Tagesplan[kapazitaetFuer(anzahlTage)];
+        Datum datum = erstesDatum;
+        for (int i = 0; i < anzahlTage; i++)
+        {
+            tagesplaene[(ersterTag + i) & (tagesplaene.length - 1)] = new Tagesplan(
+                    datum);
+            datum = datum.naechsterTag();
+        }
+        return new Tagesring(tagesplaene, ersterTag, anzahlTage);
+    }
+
+    /**
+     * Gibt einen Ring mit den Tagesplänen für die angegebenen Vorstellungen
+     * zurück, mit einem Tagesplan für jeden Tag vom ersten bis zum letzten
+     * Tag. Die Vorstellungen werden in einem Durchgang nach Tagen verteilt
+     * (Zählen und Verteilen, also ohne Vergleiche zwischen Tagen); danach
+     * wird jeder Tag für sich sortiert. Bei vielen Vorstellungen geschieht das
+     * parallel im gemeinsamen {@link ForkJoinPool}.
+     *
+     * @param vorstellungen die Vorstellungen.
+     * @param ersterTag der früheste Tag der Vorstellungen in Tagen seit dem
+     *            1.1.1970.
+     * @param letzterTag der späteste Tag der Vorstellungen in Tagen seit dem
+     *            1.1.1970.
+     *
+     * @require vorstellungen != null
+     * @require vorstellungen.length > 0
+     * @require alle Vorstellungen laufen zwischen erstem und letztem Tag
+     *
+     * @ensure result != null
+     */
+    static Tagesring aus(Vorstellung[] vorstellungen, int ersterTag,
+            int letzterTag)
+    {
+        assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
+        assert vorstellungen.length > 0 : "Vorbedingung verletzt: vorstellungen.length > 0";
+
+        int anzahlTage = letzterTag - ersterTag + 1;
+
+        // anfang[i] ist die Stelle der ersten Vorstellung des i-ten Tages
+        int[] anfang = new int[anzahlTage + 1];
+        for (Vorstellung v : vorstellungen)
+        {
+            anfang[v.getDatum().getTageSeitEpoche() - ersterTag + 1]++;
+        }
+        for (int i = 0; i < anzahlTage; i++)
+        {
+            anfang[i + 1] += anfang[i];
+        }
+        int[] naechste = Arrays.copyOf(anfang, anzahlTage);
+        Vorstellung[] nachTag = new Vorstellung[vorstellungen.length];
+        for (Vorstellung v : vorstellungen)
+        {
+            nachTag[naechste[v.getDatum().getTageSeitEpoche() - ersterTag]++] = v;
+        }
+
+        Tagesplan[] tagesplaene = new Tagesplan[kapazitaetFuer(anzahlTage)];
+        TagesplanAufbau aufbau = new TagesplanAufbau(tagesplaene, ersterTag,
+                nachTag, anfang, 0, anzahlTage);
+        if (vorstellungen.length >= PARALLEL_AB)
+        {
+            ForkJoinPool.commonPool().invoke(aufbau);
+        }
+        else
+        {
+            aufbau.baueAuf();
+        }
+        return new Tagesring(tagesplaene, ersterTag, anzahlTage);
+    }
+
+    /**
+     * Gibt die kleinste Zweierpotenz zurück, die mindestens so groß ist wie
+     * die angegebene Anzahl Tage.
+     */
+    private static int kapazitaetFuer(int anzahlTage)
+    {
+        int kapazitaet = Integer.highestOneBit(anzahlTage);
+        if (kapazitaet < anzahlTage)
+        {
+            kapazitaet <<= 1;
+        }
+        return kapazitaet;
+    }
+
+    /**
+     * Gibt einen Ring zurück, der alle Tage dieses Rings und den angegebenen
+     * Tag umfasst. Die Tagespläne dieses Rings werden übernommen, für die
+     * neuen Tage werden leere angelegt. Reicht die Kapazität nicht aus, ziehen
+     * die Pläne in ein ausreichend großes Feld um.
+     *
+     * @param datum der Tag, den der Ring umfassen soll.
+     *
+     * @require datum != null
+     *
+     * @ensure result.liegtImRing(datum.getTageSeitEpoche())
+     */
+    Tagesring erweitertUm(Datum datum)
+    {
+        assert datum != null : "Vorbedingung verletzt: datum != null";
+
+        int tag = datum.getTageSeitEpoche();
+        if (liegtImRing(tag))
+        {
+            return this;
+        }
+        if (_anzahlTage == 0)
+        {
+            return von(datum, tag);
+        }
+
+        int neuerErsterTag = Math.min(_ersterTag, tag);
+        int neueAnzahlTage = Math.max(_ersterTag + _anzahlTage - 1, tag)
+                - neuerErsterTag + 1;
+        Tagesplan[] tagesplaene = _tagesplaene;
+        if (neueAnzahlTage > tagesplaene.length)
+        {
+            tagesplaene = new Tagesplan[kapazitaetFuer(neueAnzahlTage)];
+            for (int i = 0; i < _anzahlTage; i++)
+            {
+                int t = _ersterTag + i;
+                tagesplaene[t & (tagesplaene.length - 1)] = _tagesplaene[fach(t)];
+            }
+        }
+        for (int i = 0; i < neueAnzahlTage; i++)
+        {
+            int t = neuerErsterTag + i;
+            if (!liegtImRing(t))
+            {
+                tagesplaene[t & (tagesplaene.length - 1)] = new Tagesplan(
+                        Datum.ausTagenSeitEpoche(t));
+            }
+        }
+        return new Tagesring(tagesplaene, neuerErsterTag, neueAnzahlTage);
+    }
+
+    /**
+     * Gibt den Tagesplan für den angegebenen Tag zurück.
+     *
+     * @param tageSeitEpoche der Tag in Tagen seit dem 1.1.1970.
+     *
+     * @require liegtImRing(tageSeitEpoche)
+     *
+     * @ensure result != null
+     */
+    Tagesplan get(int tageSeitEpoche)
+    {
+        assert liegtImRing(tageSeitEpoche) : "Vorbedingung verletzt: liegtImRing(tageSeitEpoche)";
+
+        return _tagesplaene[fach(tageSeitEpoche)];
+    }
+
+    /**
+     * Gibt an, ob der angegebene Tag im Ring liegt.
+     */
+    boolean liegtImRing(int tageSeitEpoche)
+    {
+        return tageSeitEpoche >= _ersterTag
+                && tageSeitEpoche - _ersterTag < _anzahlTage;
+    }
+
+    /**
+     * Gibt den ersten Tag des Rings in Tagen seit dem 1.1.1970 zurück.
+     */
+    int getErsterTag()
+    {
+        return _ersterTag;
+    }
+
+    /**
+     * Gibt die Anzahl der Tage im Ring zurück.
+     */
+    int getAnzahlTage()
+    {
+        return _anzahlTage;
+    }
+
+    /**
+     * Gibt das Fach zurück, in dem der Tagesplan für den angegebenen Tag
+     * liegt.
+     */
+    private int fach(int tageSeitEpoche)
+    {
+        return tageSeitEpoche & (_tagesplaene.length - 1);
+    }
+
+    /**
+     * Baut die Tagespläne für einen Bereich von Tagen auf und teilt große
+     * Bereiche in zwei Hälften, die parallel bearbeitet werden. Jede
+     * Teilaufgabe schreibt nur in die Fächer ihrer eigenen Tage.
+     */
+    private static final class TagesplanAufbau extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Tagesplan[] _tagesplaene;
+        private final int _ersterTag;
+        private final Vorstellung[] _nachTag;
+        private final int[] _anfang;
+        private final int _von;
+        private final int _bis;
+
+        TagesplanAufbau(Tagesplan[] tagesplaene, int ersterTag,
+                Vorstellung[] nachTag, int[] anfang, int von, int bis)
+        {
+            _tagesplaene = tagesplaene;
+            _ersterTag = ersterTag;
+            _nachTag = nachTag;
+            _anfang = anfang;
+            _von = von;
+            _bis = bis;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (_bis - _von <= TAGE_PRO_TEILAUFGABE)
+            {
+                baueAuf();
+            }
+            else
+            {
+                int mitte = (_von + _bis) >>> 1;
+                invokeAll(new TagesplanAufbau(_tagesplaene, _ersterTag,
+                        _nachTag, _anfang, _von, mitte), new TagesplanAufbau(
+                        _tagesplaene, _ersterTag, _nachTag, _anfang, mitte,
+                        _bis));
+            }
+        }
+
+        /**
+         * Baut die Tagespläne dieses Bereichs im aufrufenden Thread auf.
+         */
+        void baueAuf()
+        {
+            for (int i = _von; i < _bis; i++)
+            {
+                int tag = _ersterTag + i;
+                _tagesplaene[tag & (_tagesplaene.length - 1)] = new Tagesplan(
+                        Datum.ausTagenSeitEpoche(tag), _nachTag, _anfang[i],
+                        _anfang[i + 1]);
+            }
+        }
+    }
+}
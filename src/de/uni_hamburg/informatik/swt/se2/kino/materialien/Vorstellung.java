@@ -1,10 +1,13 @@
 package de.uni_hamburg.informatik.swt.se2.kino.materialien;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Zeitpunkt;
 
 /**
  * Eine Vorstellung, für die Plätze verkauft und storniert werden können. Die
@@ -12,6 +15,14 @@ import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
  * und wo läuft welcher Film) und zum anderen, welche Plätze für diese
  * Vorstellung bereits verkauft wurden.
  * 
+ * Mehrere Kassen können gleichzeitig Plätze derselben Vorstellung verkaufen
+ * und stornieren. Ein Verkauf mehrerer Plätze gelingt dabei immer ganz oder gar
+ * nicht, siehe {@link #versucheVerkauf(Set)}. Solange an einer Kasse bezahlt
+ * wird, können Plätze reserviert werden; reservierte Plätze sind weder
+ * verkaufbar noch stornierbar. Wer die Belegung liest, bekommt über
+ * {@link #getBelegungsstand()} einen unveränderlichen Stand, der Verkäufe
+ * weder aufhält noch von ihnen aufgehalten wird.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -22,12 +33,13 @@ public class Vorstellung
     private Uhrzeit _anfangszeit;
     private Uhrzeit _endzeit;
     private Datum _datum;
+    private Zeitpunkt _anfang;
+    private Zeitpunkt _ende;
     /**
      * @TODO: durch @Geldbetrag ersetzen
      */
     private int _preis;
-    private boolean[][] _verkauft;
-    private int _anzahlVerkauftePlaetze;
+    private Platzbelegung _belegung;
 
     /**
      * Erstellt eine neue Vorstellung.
@@ -52,6 +64,7 @@ public class Vorstellung
      * @ensure getEndzeit() == endzeit
      * @ensure getDatum() == datum
      * @ensure getPreis() == preis
+     * @ensure getAnfang().equals(Zeitpunkt.get(datum, anfangszeit))
      */
     public Vorstellung(Kinosaal kinosaal, Film film, Uhrzeit anfangszeit,
             Uhrzeit endzeit, Datum datum, int preis)
@@ -68,10 +81,11 @@ public class Vorstellung
         _anfangszeit = anfangszeit;
         _endzeit = endzeit;
         _datum = datum;
+        _anfang = Zeitpunkt.get(datum, anfangszeit);
+        _ende = _anfang.plusMinuten(endzeit.minutenSeit(anfangszeit));
         _preis = preis;
-        _verkauft = new boolean[kinosaal.getAnzahlReihen()][kinosaal
-                .getAnzahlSitzeProReihe()];
-        _anzahlVerkauftePlaetze = 0;
+        _belegung = new Platzbelegung(kinosaal.getAnzahlReihen(),
+                kinosaal.getAnzahlSitzeProReihe());
     }
 
     /**
@@ -114,6 +128,28 @@ public class Vorstellung
         return _endzeit;
     }
 
+    /**
+     * Gibt den Zeitpunkt zurück, zu dem diese Vorstellung beginnt.
+     * 
+     * @ensure result != null
+     */
+    public Zeitpunkt getAnfang()
+    {
+        return _anfang;
+    }
+
+    /**
+     * Gibt den Zeitpunkt zurück, zu dem diese Vorstellung endet. Liegt die
+     * Endzeit vor der Anfangszeit, endet die Vorstellung am folgenden Tag.
+     * 
+     * @ensure result != null
+     * @ensure !result.istVor(getAnfang())
+     */
+    public Zeitpunkt getEnde()
+    {
+        return _ende;
+    }
+
     /**
      * Gibt das Datum zurück, an dem diese Vorstellung läuft.
      * 
@@ -139,7 +175,104 @@ public class Vorstellung
      */
     public int getAnzahlVerkauftePlaetze()
     {
-        return _anzahlVerkauftePlaetze;
+        return _belegung.getStand().getAnzahlVerkauftePlaetze();
+    }
+
+    /**
+     * Addiert den Umsatz dieser Vorstellung, also den Preis aller verkauften
+     * Plätze, zu der angegebenen Summe.
+     * 
+     * @require summe != null
+     */
+    public void addiereUmsatzZu(Geldsumme summe)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+
+        summe.addiereVielfaches(_preis, getAnzahlVerkauftePlaetze());
+    }
+
+    /**
+     * Gibt den aktuellen Stand der Platzbelegung zurück. Der Stand ändert sich
+     * nicht mehr; wer mehrere Plätze oder Zahlen nacheinander abfragt, etwa um
+     * den Platzplan anzuzeigen, bekommt so ein in sich stimmiges Bild, ohne
+     * gleichzeitige Verkäufe aufzuhalten.
+     * 
+     * @ensure result != null
+     */
+    public Belegungsstand getBelegungsstand()
+    {
+        return _belegung.getStand();
+    }
+
+    /**
+     * Gibt das Journal zurück, in dem jeder Verkauf, jedes Storno und jede
+     * Reservierung dieser Vorstellung mit fortlaufender Sequenznummer
+     * festgehalten wird. Zusammen mit {@link #getBelegungsstand()} kann so die
+     * Belegung verfolgt werden, ohne sie immer wieder ganz zu lesen.
+     * 
+     * @ensure result != null
+     */
+    public Belegungsjournal getBelegungsjournal()
+    {
+        return _belegung.getJournal();
+    }
+
+    /**
+     * Gibt die Anzahl der Plätze zurück, die gerade verkauft werden können,
+     * also weder verkauft noch reserviert sind.
+     */
+    public int getAnzahlFreiePlaetze()
+    {
+        return _belegung.getStand().getAnzahlFreiePlaetze();
+    }
+
+    /**
+     * Gibt die Anzahl der Plätze in einer Reihe zurück, die gerade verkauft
+     * werden können.
+     * 
+     * @param reihe die Reihe, gezählt ab 0.
+     * 
+     * @require reihe >= 0 && reihe < getKinosaal().getAnzahlReihen()
+     */
+    public int getAnzahlFreiePlaetze(int reihe)
+    {
+        assert reihe >= 0 && reihe < _kinosaal.getAnzahlReihen() : "Vorbedingung verletzt: reihe >= 0 && reihe < getKinosaal().getAnzahlReihen()";
+
+        return _belegung.getStand().getAnzahlFreiePlaetze(reihe);
+    }
+
+    /**
+     * Gibt zurück, wie viele verkaufbare Plätze in einer Reihe höchstens
+     * nebeneinander liegen.
+     * 
+     * @param reihe die Reihe, gezählt ab 0.
+     * 
+     * @require reihe >= 0 && reihe < getKinosaal().getAnzahlReihen()
+     */
+    public int getLaengsterFreierBlock(int reihe)
+    {
+        assert reihe >= 0 && reihe < _kinosaal.getAnzahlReihen() : "Vorbedingung verletzt: reihe >= 0 && reihe < getKinosaal().getAnzahlReihen()";
+
+        return _belegung.getStand().getLaengsterFreierBlock(reihe);
+    }
+
+    /**
+     * Gibt zurück, wie viele verkaufbare Plätze in irgendeiner Reihe höchstens
+     * nebeneinander liegen.
+     */
+    public int getLaengsterFreierBlock()
+    {
+        return _belegung.getStand().getLaengsterFreierBlock();
+    }
+
+    /**
+     * Gibt an, ob die Vorstellung ausverkauft ist, also kein Platz mehr
+     * verkauft werden kann. Reservierte Plätze zählen dabei als nicht
+     * verkaufbar.
+     */
+    public boolean istAusverkauft()
+    {
+        return _belegung.getStand().istAusverkauft();
     }
 
     /**
@@ -197,6 +330,37 @@ public class Vorstellung
         return _preis * plaetze.size();
     }
 
+    /**
+     * Prüft, ob es zu allen angegebenen Platzindizes in dieser Vorstellung
+     * einen Platz gibt, siehe {@link Kinosaal#getPlatzindex(Platz)}.
+     * 
+     * @param platzindizes die Platzindizes.
+     * 
+     * @require platzindizes != null
+     */
+    public boolean hatPlaetze(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        return _kinosaal.hatPlatzindizes(platzindizes);
+    }
+
+    /**
+     * Gibt den Gesamtpreis für die Plätze mit den angegebenen Platzindizes
+     * zurück. Jeder Index zählt einmal, die Indizes sollten also verschieden
+     * sein.
+     * 
+     * @return Gesamtpreis in Eurocent
+     * 
+     * @require hatPlaetze(platzindizes)
+     */
+    public int getPreisFuerPlaetze(int[] platzindizes)
+    {
+        assert hatPlaetze(platzindizes) : "Vorbedingung verletzt: hatPlaetze(platzindizes)";
+
+        return _preis * platzindizes.length;
+    }
+
     /**
      * Verkauft einen Platz.
      * 
@@ -211,8 +375,9 @@ public class Vorstellung
     {
         assert istVerkaufbar(platz) : "Vorbedingung verletzt: istVerkaufbar(platz)";
 
-        _verkauft[platz.getReihe()][platz.getSitz()] = true;
-        _anzahlVerkauftePlaetze++;
+        long[] konflikte = _belegung.verkaufeFallsFrei(_belegung.erzeugeMaske(
+                platz.getReihe(), platz.getSitz()));
+        assert konflikte == null : "Vorbedingung verletzt: istVerkaufbar(platz)";
     }
 
     /**
@@ -227,15 +392,72 @@ public class Vorstellung
     {
         assert sindVerkaufbar(plaetze) : "Vorbedingung verletzt: sindVerkaufbar(plaetze)";
 
-        for (Platz platz : plaetze)
-        {
-            verkaufePlatz(platz);
-        }
+        Set<Platz> konflikte = versucheVerkauf(plaetze);
+        assert konflikte.isEmpty() : "Vorbedingung verletzt: sindVerkaufbar(plaetze)";
+    }
+
+    /**
+     * Verkauft die Plätze mit den gegebenen Platzindizes.
+     * 
+     * @require sindVerkaufbar(platzindizes)
+     * 
+     * @ensure sindStornierbar(platzindizes)
+     */
+    public void verkaufePlaetze(int[] platzindizes)
+    {
+        assert sindVerkaufbar(platzindizes) : "Vorbedingung verletzt: sindVerkaufbar(platzindizes)";
+
+        boolean verkauft = versucheVerkauf(platzindizes);
+        assert verkauft : "Vorbedingung verletzt: sindVerkaufbar(platzindizes)";
+    }
+
+    /**
+     * Versucht, die Plätze mit den gegebenen Platzindizes zu verkaufen, ganz
+     * oder gar nicht wie {@link #versucheVerkauf(Set)}.
+     * 
+     * @return true, wenn alle Plätze verkauft wurden, false, wenn mindestens
+     *         einer bereits verkauft oder reserviert war oder nicht zum Saal
+     *         gehört und darum keiner verkauft wurde.
+     * 
+     * @require platzindizes != null
+     */
+    public boolean versucheVerkauf(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        long[] maske = _belegung.erzeugeMaskeFallsGueltig(platzindizes);
+        return maske != null && _belegung.verkaufeFallsFrei(maske) == null;
+    }
+
+    /**
+     * Versucht, die gegebenen Plätze zu verkaufen. Der Verkauf gelingt ganz
+     * oder gar nicht: Ist einer der Plätze bereits verkauft oder reserviert,
+     * etwa weil eine andere Kasse ihn gerade verkauft hat, wird keiner der
+     * Plätze verkauft. Prüfung und Verkauf sind atomar, auch wenn mehrere
+     * Kassen gleichzeitig für diese Vorstellung verkaufen.
+     * 
+     * @param plaetze die zu verkaufenden Plätze.
+     * 
+     * @return die Plätze, die bereits verkauft oder reserviert waren. Ist die
+     *         Menge leer, wurden alle Plätze verkauft.
+     * 
+     * @require hatPlaetze(plaetze)
+     * 
+     * @ensure result != null
+     * @ensure result.isEmpty() impliziert sindStornierbar(plaetze)
+     */
+    public Set<Platz> versucheVerkauf(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+        assert hatPlaetze(plaetze) : "Vorbedingung verletzt: hatPlaetze(plaetze)";
+
+        return alsPlaetze(_belegung.verkaufeFallsFrei(_belegung
+                .erzeugeMaske(plaetze)));
     }
 
     /**
      * Prüft, ob ein gegebener Platz verkauft werden kann. Dafür wird geschaut,
-     * ob der gegebene Platz bisher verkauft ist.
+     * ob der gegebene Platz bisher weder verkauft noch reserviert ist.
      * 
      * @return true, wenn ein Plätze verkaufbar ist, sonst false.
      * 
@@ -245,12 +467,27 @@ public class Vorstellung
     {
         assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
 
-        return !istPlatzVerkauft(platz);
+        return _belegung.getStand().istVerkaufbar(platz);
+    }
+
+    /**
+     * Prüft, ob ein gegebener Platz gerade reserviert ist.
+     * 
+     * @return true, wenn der Platz reserviert ist, sonst false.
+     * 
+     * @require hatPlatz(platz)
+     */
+    public boolean istReserviert(Platz platz)
+    {
+        assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
+
+        return _belegung.getStand().istReserviert(platz);
     }
 
     /**
      * Prüft, ob gegebene Plätze alle verkauft werden können. Dafür wird
-     * geschaut, ob keiner der gegebenen Plätze bisher verkauft ist.
+     * geschaut, ob keiner der gegebenen Plätze bisher verkauft oder reserviert
+     * ist.
      * 
      * @return true, wenn alle Plätze verkaufbar sind, sonst false.
      * 
@@ -261,12 +498,42 @@ public class Vorstellung
         assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
         assert hatPlaetze(plaetze) : "Vorbedingung verletzt: hatPlaetze(plaetze)";
 
-        boolean result = true;
-        for (Platz platz : plaetze)
-        {
-            result &= istVerkaufbar(platz);
-        }
-        return result;
+        return _belegung.sindAlleFrei(_belegung.erzeugeMaske(plaetze));
+    }
+
+    /**
+     * Prüft, ob die Plätze mit den gegebenen Platzindizes alle verkauft werden
+     * können, also weder verkauft noch reserviert sind.
+     * 
+     * @require hatPlaetze(platzindizes)
+     */
+    public boolean sindVerkaufbar(int[] platzindizes)
+    {
+        assert hatPlaetze(platzindizes) : "Vorbedingung verletzt: hatPlaetze(platzindizes)";
+
+        return _belegung.sindAlleFrei(platzindizes);
+    }
+
+    /**
+     * Schlägt die besten <code>anzahl</code> nebeneinander liegenden
+     * verkaufbaren Plätze in einer Reihe vor. Reihen nahe der Saalmitte werden
+     * bevorzugt, innerhalb der Reihe der Block nahe der Reihenmitte.
+     *
+     * Die Plätze werden dabei weder verkauft noch reserviert.
+     *
+     * @param anzahl die Anzahl der gewünschten Plätze.
+     *
+     * @return die vorgeschlagenen Plätze oder eine leere Menge, wenn keine
+     *         Reihe genug freie Plätze nebeneinander hat.
+     *
+     * @require anzahl > 0
+     * @ensure result != null
+     */
+    public Set<Platz> findeFreiePlaetzeNebeneinander(int anzahl)
+    {
+        assert anzahl > 0 : "Vorbedingung verletzt: anzahl > 0";
+
+        return alsPlaetze(_belegung.findeFreienBlock(anzahl));
     }
 
     /**
@@ -283,8 +550,9 @@ public class Vorstellung
     {
         assert istStornierbar(platz) : "Vorbedingung verletzt: istStornierbar(platz)";
 
-        _verkauft[platz.getReihe()][platz.getSitz()] = false;
-        _anzahlVerkauftePlaetze--;
+        long[] konflikte = _belegung.storniereFallsVerkauft(_belegung
+                .erzeugeMaske(platz.getReihe(), platz.getSitz()));
+        assert konflikte == null : "Vorbedingung verletzt: istStornierbar(platz)";
     }
 
     /**
@@ -299,10 +567,206 @@ public class Vorstellung
     {
         assert sindStornierbar(plaetze) : "Vorbedingung verletzt: sindStornierbar(plaetze)";
 
-        for (Platz platz : plaetze)
+        Set<Platz> konflikte = versucheStorno(plaetze);
+        assert konflikte.isEmpty() : "Vorbedingung verletzt: sindStornierbar(plaetze)";
+    }
+
+    /**
+     * Storniert die Plätze mit den gegebenen Platzindizes.
+     * 
+     * @require sindStornierbar(platzindizes)
+     * 
+     * @ensure sindVerkaufbar(platzindizes)
+     */
+    public void stornierePlaetze(int[] platzindizes)
+    {
+        assert sindStornierbar(platzindizes) : "Vorbedingung verletzt: sindStornierbar(platzindizes)";
+
+        boolean storniert = versucheStorno(platzindizes);
+        assert storniert : "Vorbedingung verletzt: sindStornierbar(platzindizes)";
+    }
+
+    /**
+     * Versucht, die Plätze mit den gegebenen Platzindizes zu stornieren, ganz
+     * oder gar nicht wie {@link #versucheStorno(Set)}.
+     * 
+     * @return true, wenn alle Plätze storniert wurden, false, wenn mindestens
+     *         einer nicht verkauft war oder nicht zum Saal gehört und darum
+     *         keiner storniert wurde.
+     * 
+     * @require platzindizes != null
+     */
+    public boolean versucheStorno(int[] platzindizes)
+    {
+        assert platzindizes != null : "Vorbedingung verletzt: platzindizes != null";
+
+        long[] maske = _belegung.erzeugeMaskeFallsGueltig(platzindizes);
+        return maske != null
+                && _belegung.storniereFallsVerkauft(maske) == null;
+    }
+
+    /**
+     * Versucht, die gegebenen Plätze zu stornieren. Wie beim Verkauf gelingt
+     * die Stornierung ganz oder gar nicht: Ist einer der Plätze nicht verkauft,
+     * wird keiner der Plätze storniert.
+     * 
+     * @param plaetze die zu stornierenden Plätze.
+     * 
+     * @return die Plätze, die nicht verkauft waren. Ist die Menge leer, wurden
+     *         alle Plätze storniert.
+     * 
+     * @require hatPlaetze(plaetze)
+     * 
+     * @ensure result != null
+     */
+    public Set<Platz> versucheStorno(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+        assert hatPlaetze(plaetze) : "Vorbedingung verletzt: hatPlaetze(plaetze)";
+
+        return alsPlaetze(_belegung.storniereFallsVerkauft(_belegung
+                .erzeugeMaske(plaetze)));
+    }
+
+    /**
+     * Führt eine Platzbuchung aus, also einen Verkauf oder ein Storno. Anders
+     * als bei {@link #verkaufePlaetze(Set)} und {@link #stornierePlaetze(Set)}
+     * gibt es keine Vorbedingungen an die Plätze: Sie werden hier genau einmal
+     * geprüft, und wenn einer nicht zum Saal gehört oder nicht gebucht werden
+     * kann, wird keiner gebucht und das Ergebnis sagt, warum.
+     * 
+     * @param buchung die auszuführende Buchung.
+     * 
+     * @require buchung != null
+     * 
+     * @ensure result != null
+     */
+    public Buchungsergebnis fuehreAus(Platzbuchung buchung)
+    {
+        assert buchung != null : "Vorbedingung verletzt: buchung != null";
+
+        Set<Platz> plaetze = buchung.getPlaetze();
+        long[] maske = _belegung.erzeugeMaskeFallsGueltig(plaetze);
+        if (maske == null)
+        {
+            Set<Platz> ungueltige = new HashSet<Platz>();
+            for (Platz platz : plaetze)
+            {
+                if (!hatPlatz(platz))
+                {
+                    ungueltige.add(platz);
+                }
+            }
+            return Buchungsergebnis.gescheitert(
+                    Buchungsergebnis.Status.UNGUELTIGE_PLAETZE, ungueltige);
+        }
+
+        long[] konflikte;
+        Buchungsergebnis.Status status;
+        if (buchung.getArt() == Platzbuchung.Art.VERKAUF)
+        {
+            konflikte = _belegung.verkaufeFallsFrei(maske);
+            status = Buchungsergebnis.Status.NICHT_VERKAUFBAR;
+        }
+        else
+        {
+            konflikte = _belegung.storniereFallsVerkauft(maske);
+            status = Buchungsergebnis.Status.NICHT_STORNIERBAR;
+        }
+        if (konflikte == null)
+        {
+            return Buchungsergebnis.ok();
+        }
+        return Buchungsergebnis.gescheitert(status, alsPlaetze(konflikte));
+    }
+
+    /**
+     * Reserviert die gegebenen Plätze bis zu einem Ablaufzeitpunkt, zum
+     * Beispiel während an einer Kasse bezahlt wird. Wie beim Verkauf gelingt
+     * die Reservierung ganz oder gar nicht. Nach Ablauf muss die Reservierung
+     * mit {@link #gibReservierungFrei(Platzreservierung)} freigegeben werden;
+     * die Vorstellung selbst beobachtet den Ablaufzeitpunkt nicht.
+     * 
+     * @param plaetze die zu reservierenden Plätze.
+     * @param inhaber wer reserviert, zum Beispiel die Kasse.
+     * @param ablaufzeitpunkt wann die Reservierung abläuft, in Millisekunden
+     *            seit 1970.
+     * 
+     * @return die Reservierung oder <code>null</code>, wenn nicht alle Plätze
+     *         verkaufbar waren.
+     * 
+     * @require hatPlaetze(plaetze)
+     * @require inhaber != null
+     * 
+     * @ensure result == null || result.istAktiv()
+     */
+    public Platzreservierung versucheReservierung(Set<Platz> plaetze,
+            Object inhaber, long ablaufzeitpunkt)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+        assert hatPlaetze(plaetze) : "Vorbedingung verletzt: hatPlaetze(plaetze)";
+        assert inhaber != null : "Vorbedingung verletzt: inhaber != null";
+
+        long[] maske = _belegung.erzeugeMaske(plaetze);
+        if (_belegung.reserviereFallsFrei(maske) != null)
+        {
+            return null;
+        }
+        return new Platzreservierung(this, new HashSet<Platz>(plaetze), maske,
+                inhaber, ablaufzeitpunkt);
+    }
+
+    /**
+     * Verkauft die Plätze einer Reservierung und beendet sie. Ist die
+     * Reservierung nicht mehr aktiv, etwa weil sie abgelaufen ist, wird nichts
+     * verkauft.
+     * 
+     * @param reservierung die Reservierung.
+     * 
+     * @return true, wenn die Plätze verkauft wurden, sonst false.
+     * 
+     * @require reservierung != null
+     * @require reservierung.getVorstellung() == this
+     */
+    public boolean verkaufeReservierung(Platzreservierung reservierung)
+    {
+        assert reservierung != null : "Vorbedingung verletzt: reservierung != null";
+        assert reservierung.getVorstellung() == this : "Vorbedingung verletzt: reservierung.getVorstellung() == this";
+
+        if (!reservierung.beende())
+        {
+            return false;
+        }
+        long[] konflikte = _belegung.verkaufeReservierte(reservierung
+                .getMaske());
+        assert konflikte == null : "Reservierte Plätze müssen reserviert sein";
+        return true;
+    }
+
+    /**
+     * Gibt die Plätze einer Reservierung wieder frei und beendet sie. Ist die
+     * Reservierung nicht mehr aktiv, wird nichts geändert.
+     * 
+     * @param reservierung die Reservierung.
+     * 
+     * @return true, wenn die Plätze freigegeben wurden, sonst false.
+     * 
+     * @require reservierung != null
+     * @require reservierung.getVorstellung() == this
+     */
+    public boolean gibReservierungFrei(Platzreservierung reservierung)
+    {
+        assert reservierung != null : "Vorbedingung verletzt: reservierung != null";
+        assert reservierung.getVorstellung() == this : "Vorbedingung verletzt: reservierung.getVorstellung() == this";
+
+        if (!reservierung.beende())
         {
-            stornierePlatz(platz);
+            return false;
         }
+        long[] konflikte = _belegung.gibReservierteFrei(reservierung
+                .getMaske());
+        assert konflikte == null : "Reservierte Plätze müssen reserviert sein";
+        return true;
     }
 
     /**
@@ -332,12 +796,43 @@ public class Vorstellung
     {
         assert hatPlaetze(plaetze) : "Vorbedingung verletzt: hatPlaetze(plaetze)";
 
-        boolean result = true;
-        for (Platz platz : plaetze)
-        {
-            result &= istStornierbar(platz);
-        }
-        return result;
+        return _belegung.sindAlleVerkauft(_belegung.erzeugeMaske(plaetze));
+    }
+
+    /**
+     * Prüft, ob die Plätze mit den gegebenen Platzindizes alle stornierbar,
+     * also verkauft sind.
+     * 
+     * @require hatPlaetze(platzindizes)
+     */
+    public boolean sindStornierbar(int[] platzindizes)
+    {
+        assert hatPlaetze(platzindizes) : "Vorbedingung verletzt: hatPlaetze(platzindizes)";
+
+        return _belegung.sindAlleVerkauft(platzindizes);
+    }
+
+    /**
+     * Gibt an, ob die Platzbelegung dieser Vorstellung geschlossen ist, etwa
+     * weil sie verlegt wurde. Dann scheitert jeder Verkauf, jedes Storno und
+     * jede Reservierung.
+     */
+    public boolean istGeschlossen()
+    {
+        return _belegung.getStand().istGeschlossen();
+    }
+
+    /**
+     * Schließt die Platzbelegung dieser Vorstellung, sofern noch kein Platz
+     * verkauft oder reserviert ist. Prüfung und Schließen sind atomar: Ein
+     * gleichzeitiger Verkauf gelingt entweder vorher, dann wird nicht
+     * geschlossen, oder er scheitert.
+     * 
+     * @return true, wenn geschlossen wurde, sonst false.
+     */
+    boolean schliesseFallsFrei()
+    {
+        return _belegung.schliesseFallsFrei();
     }
 
     @Override
@@ -359,6 +854,23 @@ public class Vorstellung
     {
         assert hatPlatz(platz) : "Vorbedingung verletzt: hatPlatz(platz)";
 
-        return _verkauft[platz.getReihe()][platz.getSitz()];
+        return _belegung.getStand().istVerkauft(platz);
+    }
+
+    /**
+     * Wandelt eine Maske der Platzbelegung, etwa eine Konfliktmaske, in eine
+     * Platzmenge um.
+     * 
+     * @param konflikte die Maske, kann null sein.
+     * 
+     * @ensure result != null
+     */
+    private Set<Platz> alsPlaetze(long[] konflikte)
+    {
+        if (konflikte == null)
+        {
+            return Collections.emptySet();
+        }
+        return _belegung.zuPlaetzen(konflikte);
     }
 }
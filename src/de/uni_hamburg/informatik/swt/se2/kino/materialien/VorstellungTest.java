@@ -6,8 +6,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +22,7 @@ import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.FSK;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Zeitpunkt;
 
 public class VorstellungTest
 {
@@ -48,6 +55,30 @@ public class VorstellungTest
         assertNotNull(v.toString());
     }
 
+    @Test
+    public void testeAnfangUndEnde()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        assertEquals(Zeitpunkt.get(_11_07_2008, _16_45), v.getAnfang());
+        assertEquals(Zeitpunkt.get(_11_07_2008, _20_15), v.getEnde());
+        assertEquals(210, v.getEnde().minutenSeit(v.getAnfang()));
+    }
+
+    @Test
+    public void testeEndeNachMitternacht()
+    {
+        Vorstellung spaet = new Vorstellung(_kinoA, _hdR1, Uhrzeit.get(22, 30),
+                Uhrzeit.get(1, 0), _11_07_2008, 1230);
+        assertEquals(_11_07_2008, spaet.getAnfang().getDatum());
+        assertEquals(_11_07_2008.naechsterTag(), spaet.getEnde().getDatum());
+        assertEquals(150, spaet.getEnde().minutenSeit(spaet.getAnfang()));
+
+        Vorstellung nacht = new Vorstellung(_kinoA, _hdR1, Uhrzeit.get(1, 0),
+                Uhrzeit.get(3, 0), _11_07_2008, 1230);
+        assertTrue(nacht.getAnfang().istVor(spaet.getAnfang()));
+    }
+
     @Test
     public void testHatPlatzHatPlaetze()
     {
@@ -204,4 +235,335 @@ public class VorstellungTest
         }
         assertEquals(30, v.getAnzahlVerkauftePlaetze());
     }
+
+    @Test
+    public void testeVersucheVerkaufGelingtGanzOderGarNicht()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        v.verkaufePlatz(Platz.get(1, 2));
+
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(1, 1));
+        plaetze.add(Platz.get(1, 2));
+        plaetze.add(Platz.get(1, 3));
+
+        Set<Platz> konflikte = v.versucheVerkauf(plaetze);
+        assertEquals(1, konflikte.size());
+        assertTrue(konflikte.contains(Platz.get(1, 2)));
+        assertTrue(v.istVerkaufbar(Platz.get(1, 1)));
+        assertTrue(v.istVerkaufbar(Platz.get(1, 3)));
+        assertEquals(1, v.getAnzahlVerkauftePlaetze());
+
+        v.stornierePlatz(Platz.get(1, 2));
+        assertTrue(v.versucheVerkauf(plaetze).isEmpty());
+        assertTrue(v.sindStornierbar(plaetze));
+        assertEquals(3, v.getAnzahlVerkauftePlaetze());
+
+        plaetze.add(Platz.get(1, 4));
+        konflikte = v.versucheStorno(plaetze);
+        assertEquals(1, konflikte.size());
+        assertTrue(konflikte.contains(Platz.get(1, 4)));
+        assertEquals(3, v.getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeGleichzeitigerVerkaufVerkauftKeinenPlatzDoppelt()
+            throws InterruptedException
+    {
+        final Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        final int sitze = _kinoA.getAnzahlSitzeProReihe();
+        // Merkt sich pro Platz, welche Kasse ihn gerade verkauft hat (0 = frei)
+        final AtomicIntegerArray inhaber = new AtomicIntegerArray(
+                _kinoA.getAnzahlReihen() * sitze);
+        final AtomicReference<String> fehler = new AtomicReference<String>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> kassen = new ArrayList<Thread>();
+        for (int k = 1; k <= 8; k++)
+        {
+            final int kasse = k;
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Random zufall = new Random(kasse);
+                    List<Set<Platz>> verkauft = new ArrayList<Set<Platz>>();
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    for (int i = 0; i < 5000; i++)
+                    {
+                        if (!verkauft.isEmpty() && zufall.nextInt(3) == 0)
+                        {
+                            Set<Platz> plaetze = verkauft.remove(0);
+                            for (Platz p : plaetze)
+                            {
+                                inhaber.set(p.getReihe() * sitze + p.getSitz(), 0);
+                            }
+                            if (!v.versucheStorno(plaetze).isEmpty())
+                            {
+                                fehler.set("Storno eigener Plätze gescheitert");
+                            }
+                            continue;
+                        }
+                        int reihe = zufall.nextInt(_kinoA.getAnzahlReihen());
+                        int sitz = zufall.nextInt(sitze - 3);
+                        Set<Platz> plaetze = new HashSet<Platz>();
+                        for (int j = 0; j <= zufall.nextInt(4); j++)
+                        {
+                            plaetze.add(Platz.get(reihe, sitz + j));
+                        }
+                        if (v.versucheVerkauf(plaetze).isEmpty())
+                        {
+                            for (Platz p : plaetze)
+                            {
+                                if (!inhaber.compareAndSet(p.getReihe() * sitze
+                                        + p.getSitz(), 0, kasse))
+                                {
+                                    fehler.set("Platz doppelt verkauft: " + p);
+                                }
+                            }
+                            verkauft.add(plaetze);
+                        }
+                    }
+                }
+            });
+            kassen.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : kassen)
+        {
+            thread.join();
+        }
+
+        assertEquals(null, fehler.get());
+        int belegt = 0;
+        for (int i = 0; i < inhaber.length(); i++)
+        {
+            if (inhaber.get(i) != 0)
+            {
+                belegt++;
+                assertFalse(v.istVerkaufbar(Platz.get(i / sitze, i % sitze)));
+            }
+        }
+        assertEquals(belegt, v.getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeReservierung()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(1, 1));
+        plaetze.add(Platz.get(1, 2));
+
+        Platzreservierung r = v.versucheReservierung(plaetze, "Kasse 1", 0);
+        assertNotNull(r);
+        assertTrue(r.istAktiv());
+        assertTrue(v.istReserviert(Platz.get(1, 1)));
+        assertFalse(v.istVerkaufbar(Platz.get(1, 1)));
+        assertFalse(v.istStornierbar(Platz.get(1, 1)));
+        assertEquals(0, v.getAnzahlVerkauftePlaetze());
+        assertEquals(null, v.versucheReservierung(plaetze, "Kasse 2", 0));
+        assertFalse(v.versucheVerkauf(plaetze).isEmpty());
+
+        assertTrue(v.gibReservierungFrei(r));
+        assertFalse(r.istAktiv());
+        assertTrue(v.sindVerkaufbar(plaetze));
+        assertFalse(v.verkaufeReservierung(r));
+        assertTrue(v.sindVerkaufbar(plaetze));
+
+        r = v.versucheReservierung(plaetze, "Kasse 2", 0);
+        assertTrue(v.verkaufeReservierung(r));
+        assertTrue(v.sindStornierbar(plaetze));
+        assertFalse(v.istReserviert(Platz.get(1, 1)));
+        assertEquals(2, v.getAnzahlVerkauftePlaetze());
+        assertFalse(v.gibReservierungFrei(r));
+        assertTrue(v.sindStornierbar(plaetze));
+    }
+
+    @Test
+    public void testeFindeFreiePlaetzeNebeneinander()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        Set<Platz> erwartet = new HashSet<Platz>();
+        erwartet.add(Platz.get(9, 23));
+        erwartet.add(Platz.get(9, 24));
+        erwartet.add(Platz.get(9, 25));
+        Set<Platz> vorschlag = v.findeFreiePlaetzeNebeneinander(3);
+        assertEquals(erwartet, vorschlag);
+        assertTrue(v.sindVerkaufbar(vorschlag));
+
+        v.verkaufePlaetze(vorschlag);
+        erwartet.clear();
+        erwartet.add(Platz.get(9, 26));
+        erwartet.add(Platz.get(9, 27));
+        erwartet.add(Platz.get(9, 28));
+        assertEquals(erwartet, v.findeFreiePlaetzeNebeneinander(3));
+        assertTrue(v.findeFreiePlaetzeNebeneinander(51).isEmpty());
+    }
+
+    @Test
+    public void testeFreiePlaetzeUndAusverkauft()
+    {
+        Kinosaal klein = new Kinosaal("K", 2, 3);
+        Vorstellung v = new Vorstellung(klein, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        assertEquals(6, v.getAnzahlFreiePlaetze());
+        assertFalse(v.istAusverkauft());
+
+        v.verkaufePlatz(Platz.get(0, 1));
+        assertEquals(5, v.getAnzahlFreiePlaetze());
+        assertEquals(2, v.getAnzahlFreiePlaetze(0));
+        assertEquals(1, v.getLaengsterFreierBlock(0));
+        assertEquals(3, v.getLaengsterFreierBlock());
+
+        // Reihe 1 verkaufen, den Rest von Reihe 0 reservieren
+        v.verkaufePlaetze(new HashSet<Platz>(klein.getPlaetze().subList(3, 6)));
+        Set<Platz> rest = new HashSet<Platz>();
+        rest.add(Platz.get(0, 0));
+        rest.add(Platz.get(0, 2));
+        assertNotNull(v.versucheReservierung(rest, "Kasse 1", 0));
+        assertTrue(v.istAusverkauft());
+        assertEquals(0, v.getLaengsterFreierBlock());
+        assertEquals(4, v.getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeBelegungsstandBleibtUnveraendert()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        Belegungsstand stand = v.getBelegungsstand();
+        v.verkaufePlatz(Platz.get(3, 4));
+
+        assertTrue(stand.istVerkaufbar(Platz.get(3, 4)));
+        assertEquals(1000, stand.getAnzahlFreiePlaetze());
+        assertFalse(v.getBelegungsstand().istVerkaufbar(Platz.get(3, 4)));
+        assertEquals(stand.getVersion() + 1, v.getBelegungsstand().getVersion());
+    }
+
+    @Test
+    public void testeBelegungsjournal()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        long version = v.getBelegungsstand().getVersion();
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(2, 3));
+        plaetze.add(Platz.get(2, 4));
+
+        v.verkaufePlaetze(plaetze);
+        v.versucheVerkauf(plaetze);
+        v.stornierePlatz(Platz.get(2, 3));
+
+        List<Belegungsereignis> ereignisse = v.getBelegungsjournal().leseNach(
+                version);
+        assertEquals(2, ereignisse.size());
+        assertEquals(Belegungsereignis.Art.VERKAUF, ereignisse.get(0).getArt());
+        assertEquals(plaetze, ereignisse.get(0).getPlaetze());
+        assertEquals(Belegungsereignis.Art.STORNO, ereignisse.get(1).getArt());
+        assertEquals(v.getBelegungsstand().getVersion(), ereignisse.get(1)
+                .getSequenznummer());
+    }
+
+    @Test
+    public void testeVerkaufUndStornoMitPlatzindizes()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        // Saal A hat 50 Sitze pro Reihe
+        int[] platzindizes = {0, 51, 999};
+        assertTrue(v.hatPlaetze(platzindizes));
+        assertFalse(v.hatPlaetze(new int[] {1000}));
+        assertEquals(3690, v.getPreisFuerPlaetze(platzindizes));
+        assertTrue(v.sindVerkaufbar(platzindizes));
+        assertFalse(v.sindStornierbar(platzindizes));
+
+        v.verkaufePlaetze(platzindizes);
+        assertTrue(v.sindStornierbar(platzindizes));
+        assertFalse(v.istVerkaufbar(Platz.get(1, 1)));
+        assertFalse(v.istVerkaufbar(Platz.get(19, 49)));
+        assertEquals(3, v.getAnzahlVerkauftePlaetze());
+
+        // Ein bereits verkaufter Platz verhindert den ganzen Verkauf
+        assertFalse(v.versucheVerkauf(new int[] {2, 51}));
+        assertTrue(v.istVerkaufbar(Platz.get(0, 2)));
+
+        assertFalse(v.versucheStorno(new int[] {0, 2}));
+
+        // Ungültige Platzindizes werden abgelehnt, ohne etwas zu ändern
+        Belegungsstand vorher = v.getBelegungsstand();
+        assertFalse(v.versucheVerkauf(new int[] {2, -1}));
+        assertFalse(v.versucheVerkauf(new int[] {1000}));
+        assertFalse(v.versucheStorno(new int[] {0, -1}));
+        assertFalse(v.versucheStorno(new int[] {0, 1000}));
+        assertSame(vorher, v.getBelegungsstand());
+        assertEquals(49, v.getAnzahlFreiePlaetze(0));
+        assertEquals(49, v.getLaengsterFreierBlock(0));
+
+        v.stornierePlaetze(platzindizes);
+        assertTrue(v.sindVerkaufbar(platzindizes));
+        assertEquals(0, v.getAnzahlVerkauftePlaetze());
+    }
+
+    @Test
+    public void testeFuehreAusPlatzbuchung()
+    {
+        Vorstellung v = new Vorstellung(_kinoA, _hdR1, _16_45, _20_15,
+                _11_07_2008, 1230);
+        Set<Platz> plaetze = new HashSet<Platz>();
+        plaetze.add(Platz.get(5, 5));
+        plaetze.add(Platz.get(5, 6));
+
+        Buchungsergebnis ergebnis = v.fuehreAus(Platzbuchung.verkauf(plaetze));
+        assertTrue(ergebnis.istErfolgreich());
+        assertEquals(Buchungsergebnis.Status.OK, ergebnis.getStatus());
+        assertTrue(ergebnis.getBetroffenePlaetze().isEmpty());
+        assertTrue(v.sindStornierbar(plaetze));
+
+        Set<Platz> teilweiseVerkauft = new HashSet<Platz>();
+        teilweiseVerkauft.add(Platz.get(5, 6));
+        teilweiseVerkauft.add(Platz.get(5, 7));
+        ergebnis = v.fuehreAus(Platzbuchung.verkauf(teilweiseVerkauft));
+        assertEquals(Buchungsergebnis.Status.NICHT_VERKAUFBAR,
+                ergebnis.getStatus());
+        assertEquals(1, ergebnis.getBetroffenePlaetze().size());
+        assertTrue(ergebnis.getBetroffenePlaetze().contains(Platz.get(5, 6)));
+        assertTrue(v.istVerkaufbar(Platz.get(5, 7)));
+
+        Set<Platz> ausserhalb = new HashSet<Platz>();
+        ausserhalb.add(Platz.get(5, 7));
+        ausserhalb.add(Platz.get(20, 0));
+        ausserhalb.add(Platz.get(0, 50));
+        ergebnis = v.fuehreAus(Platzbuchung.verkauf(ausserhalb));
+        assertEquals(Buchungsergebnis.Status.UNGUELTIGE_PLAETZE,
+                ergebnis.getStatus());
+        assertEquals(2, ergebnis.getBetroffenePlaetze().size());
+        assertTrue(v.istVerkaufbar(Platz.get(5, 7)));
+
+        ergebnis = v.fuehreAus(Platzbuchung.storno(teilweiseVerkauft));
+        assertEquals(Buchungsergebnis.Status.NICHT_STORNIERBAR,
+                ergebnis.getStatus());
+        assertTrue(ergebnis.getBetroffenePlaetze().contains(Platz.get(5, 7)));
+
+        assertTrue(v.fuehreAus(Platzbuchung.storno(plaetze)).istErfolgreich());
+        assertEquals(0, v.getAnzahlVerkauftePlaetze());
+
+        long version = v.getBelegungsstand().getVersion();
+        assertTrue(v.fuehreAus(Platzbuchung.verkauf(new HashSet<Platz>()))
+                .istErfolgreich());
+        assertEquals(version, v.getBelegungsstand().getVersion());
+    }
 }
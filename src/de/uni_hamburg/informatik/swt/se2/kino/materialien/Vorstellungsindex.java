@@ -0,0 +1,231 @@
+package de.uni_hamburg.informatik.swt.se2.kino.materialien;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Ein nach Anfang sortiertes Verzeichnis von Vorstellungen, in dem sich alle
+ * Vorstellungen eines Zeitraums in O(log n + Treffer) finden lassen. Das Kino
+ * führt ein solches Verzeichnis für alle Vorstellungen sowie je eines pro Film
+ * und pro Kinosaal.
+ *
+ * Schlüssel ist der Anfang in Minuten seit dem 1.1.1970; Vorstellungen mit
+ * gleichem Anfang stehen in der Reihenfolge, in der sie hinzugefügt wurden.
+ *
+ * Überschneiden sich die Vorstellungen im Verzeichnis nicht, wie im
+ * Verzeichnis eines Kinosaals, lässt sich mit
+ * {@link #getUeberschneidung(long, long)} in O(log n) prüfen, ob ein weiterer
+ * Zeitraum noch frei ist.
+ *
+ * Lesen ist jederzeit ohne Sperre möglich, auch während geändert wird: Das
+ * Verzeichnis ist eine {@link ConcurrentSkipListMap}, deren Einträge
+ * unveränderliche Listen sind und bei jeder Änderung ersetzt werden.
+ * Änderungen dagegen müssen von außen nacheinander ausgeführt werden; das Kino
+ * tut dies unter seiner Schreibsperre.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Vorstellungsindex
+{
+    private final ConcurrentNavigableMap<Long, List<Vorstellung>> _nachAnfang;
+    private volatile int _anzahl;
+
+    /**
+     * Initialisiert ein leeres Verzeichnis.
+     */
+    Vorstellungsindex()
+    {
+        _nachAnfang = new ConcurrentSkipListMap<Long, List<Vorstellung>>();
+    }
+
+    /**
+     * Fügt eine Vorstellung hinzu.
+     *
+     * @require v != null
+     */
+    void fuegeHinzu(Vorstellung v)
+    {
+        assert v != null : "Vorbedingung verletzt: v != null";
+
+        Long anfang = v.getAnfang().getMinutenSeitEpoche();
+        List<Vorstellung> gleicherAnfang = _nachAnfang.get(anfang);
+        if (gleicherAnfang == null)
+        {
+            _nachAnfang.put(anfang, Collections.singletonList(v));
+        }
+        else
+        {
+            Vorstellung[] neu = gleicherAnfang
+                    .toArray(new Vorstellung[gleicherAnfang.size() + 1]);
+            neu[neu.length - 1] = v;
+            _nachAnfang.put(anfang, Collections.unmodifiableList(Arrays
+                    .asList(neu)));
+        }
+        _anzahl++;
+    }
+
+    /**
+     * Entfernt eine Vorstellung.
+     *
+     * @return ob die Vorstellung im Verzeichnis stand.
+     *
+     * @require v != null
+     */
+    boolean entferne(Vorstellung v)
+    {
+        assert v != null : "Vorbedingung verletzt: v != null";
+
+        Long anfang = v.getAnfang().getMinutenSeitEpoche();
+        List<Vorstellung> gleicherAnfang = _nachAnfang.get(anfang);
+        if (gleicherAnfang == null || !gleicherAnfang.contains(v))
+        {
+            return false;
+        }
+        if (gleicherAnfang.size() == 1)
+        {
+            _nachAnfang.remove(anfang);
+        }
+        else
+        {
+            List<Vorstellung> rest = new ArrayList<Vorstellung>(gleicherAnfang);
+            rest.remove(v);
+            _nachAnfang.put(anfang, Collections.unmodifiableList(rest));
+        }
+        _anzahl--;
+        return true;
+    }
+
+    /**
+     * Gibt die Anzahl der Vorstellungen in diesem Verzeichnis zurück.
+     */
+    int getAnzahl()
+    {
+        return _anzahl;
+    }
+
+    /**
+     * Addiert den Umsatz aller Vorstellungen in diesem Verzeichnis zu der
+     * angegebenen Summe.
+     *
+     * @require summe != null
+     */
+    void addiereUmsatzZu(Geldsumme summe)
+    {
+        assert summe != null : "Vorbedingung verletzt: summe != null";
+
+        for (List<Vorstellung> gleicherAnfang : _nachAnfang.values())
+        {
+            for (int i = 0; i < gleicherAnfang.size(); i++)
+            {
+                gleicherAnfang.get(i).addiereUmsatzZu(summe);
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Vorstellungen zurück, die im angegebenen Zeitraum anfangen,
+     * sortiert nach ihrem Anfang.
+     *
+     * @param von der Beginn des Zeitraums in Minuten seit dem 1.1.1970
+     *            (einschließlich).
+     * @param bis das Ende des Zeitraums in Minuten seit dem 1.1.1970
+     *            (ausschließlich).
+     *
+     * @ensure result != null
+     */
+    List<Vorstellung> getVorstellungen(long von, long bis)
+    {
+        List<Vorstellung> ergebnis = new ArrayList<Vorstellung>();
+        if (von < bis)
+        {
+            for (List<Vorstellung> gleicherAnfang : _nachAnfang.subMap(von,
+                    true, bis, false).values())
+            {
+                ergebnis.addAll(gleicherAnfang);
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Gibt eine Vorstellung zurück, die sich mit dem angegebenen Zeitraum
+     * überschneidet, oder <code>null</code>, wenn der Zeitraum frei ist.
+     * Vorstellungen, die über Mitternacht laufen, werden über ihr Ende
+     * berücksichtigt, das am folgenden Tag liegt.
+     *
+     * Das Ergebnis ist nur verlässlich, wenn sich die Vorstellungen im
+     * Verzeichnis untereinander nicht überschneiden: Dann kann nur die letzte
+     * Vorstellung, die nicht später anfängt, noch in den Zeitraum
+     * hineinreichen, und nur die erste, die später anfängt, vor seinem Ende
+     * beginnen.
+     *
+     * @param anfang der Anfang des Zeitraums in Minuten seit dem 1.1.1970
+     *            (einschließlich).
+     * @param ende das Ende des Zeitraums in Minuten seit dem 1.1.1970
+     *            (ausschließlich).
+     * @param ausgenommen eine Vorstellung, die nicht berücksichtigt wird,
+     *            etwa weil sie verlegt werden soll, oder <code>null</code>.
+     *
+     * @require anfang <= ende
+     */
+    Vorstellung getUeberschneidung(long anfang, long ende,
+            Vorstellung ausgenommen)
+    {
+        assert anfang <= ende : "Vorbedingung verletzt: anfang <= ende";
+
+        Vorstellung davor = letzteBis(anfang, ausgenommen);
+        if (davor != null
+                && (davor.getAnfang().getMinutenSeitEpoche() == anfang || davor
+                        .getEnde().getMinutenSeitEpoche() > anfang))
+        {
+            return davor;
+        }
+        return ersteDanach(anfang, ende, ausgenommen);
+    }
+
+    /**
+     * Gibt die letzte Vorstellung zurück, die nicht später als zum
+     * angegebenen Zeitpunkt anfängt, oder <code>null</code>.
+     */
+    private Vorstellung letzteBis(long anfang, Vorstellung ausgenommen)
+    {
+        for (List<Vorstellung> gleicherAnfang : _nachAnfang.headMap(anfang,
+                true).descendingMap().values())
+        {
+            for (int i = gleicherAnfang.size() - 1; i >= 0; i--)
+            {
+                if (gleicherAnfang.get(i) != ausgenommen)
+                {
+                    return gleicherAnfang.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gibt die erste Vorstellung zurück, die nach dem Anfang, aber vor dem
+     * Ende des Zeitraums anfängt, oder <code>null</code>.
+     */
+    private Vorstellung ersteDanach(long anfang, long ende,
+            Vorstellung ausgenommen)
+    {
+        for (List<Vorstellung> gleicherAnfang : _nachAnfang.subMap(anfang,
+                false, ende, false).values())
+        {
+            for (Vorstellung v : gleicherAnfang)
+            {
+                if (v != ausgenommen)
+                {
+                    return v;
+                }
+            }
+        }
+        return null;
+    }
+}
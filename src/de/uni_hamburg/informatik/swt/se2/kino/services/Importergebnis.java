@@ -0,0 +1,123 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kino;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+
+/**
+ * Das Ergebnis eines Spielplan-Imports: das erzeugte Kino, wie viele Zeilen
+ * gelesen wurden, welche Vorstellungen wegen Überschneidungen abgelehnt wurden
+ * und wie lange der Import gedauert hat.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class Importergebnis
+{
+    private final Kino _kino;
+    private final int _anzahlSaele;
+    private final int _anzahlFilme;
+    private final int _anzahlVorstellungen;
+    private final List<Vorstellung> _abgelehnt;
+    private final long _dauerInNanosekunden;
+
+    /**
+     * Initialisiert ein Importergebnis.
+     *
+     * @require kino != null
+     * @require abgelehnt != null
+     * @require dauerInNanosekunden >= 0
+     */
+    Importergebnis(Kino kino, int anzahlSaele, int anzahlFilme,
+            int anzahlVorstellungen, List<Vorstellung> abgelehnt,
+            long dauerInNanosekunden)
+    {
+        assert kino != null : "Vorbedingung verletzt: kino != null";
+        assert abgelehnt != null : "Vorbedingung verletzt: abgelehnt != null";
+        assert dauerInNanosekunden >= 0 : "Vorbedingung verletzt: dauerInNanosekunden >= 0";
+
+        _kino = kino;
+        _anzahlSaele = anzahlSaele;
+        _anzahlFilme = anzahlFilme;
+        _anzahlVorstellungen = anzahlVorstellungen;
+        _abgelehnt = Collections.unmodifiableList(abgelehnt);
+        _dauerInNanosekunden = dauerInNanosekunden;
+    }
+
+    /**
+     * Gibt das importierte Kino zurück.
+     *
+     * @ensure result != null
+     */
+    public Kino getKino()
+    {
+        return _kino;
+    }
+
+    /**
+     * Gibt die Anzahl der gelesenen Kinosäle zurück.
+     */
+    public int getAnzahlSaele()
+    {
+        return _anzahlSaele;
+    }
+
+    /**
+     * Gibt die Anzahl der gelesenen Filme zurück.
+     */
+    public int getAnzahlFilme()
+    {
+        return _anzahlFilme;
+    }
+
+    /**
+     * Gibt die Anzahl der gelesenen Vorstellungen zurück, einschließlich der
+     * abgelehnten.
+     */
+    public int getAnzahlVorstellungen()
+    {
+        return _anzahlVorstellungen;
+    }
+
+    /**
+     * Gibt die Vorstellungen zurück, die nicht ins Kino übernommen wurden,
+     * weil sie sich im selben Kinosaal mit einer anderen überschneiden.
+     *
+     * @ensure result != null
+     */
+    public List<Vorstellung> getAbgelehnteVorstellungen()
+    {
+        return _abgelehnt;
+    }
+
+    /**
+     * Gibt die Dauer des Imports in Nanosekunden zurück.
+     */
+    public long getDauerInNanosekunden()
+    {
+        return _dauerInNanosekunden;
+    }
+
+    /**
+     * Gibt zurück, wie viele Zeilen pro Sekunde über alle Dateien gelesen
+     * wurden.
+     */
+    public double getZeilenProSekunde()
+    {
+        long zeilen = (long) _anzahlSaele + _anzahlFilme + _anzahlVorstellungen;
+        return _dauerInNanosekunden == 0 ? 0 : zeilen * 1e9
+                / _dauerInNanosekunden;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(
+                "Import: %d Säle, %d Filme, %d Vorstellungen (%d abgelehnt) "
+                        + "in %.1f ms, %.0f Zeilen/s", _anzahlSaele,
+                _anzahlFilme, _anzahlVorstellungen, _abgelehnt.size(),
+                _dauerInNanosekunden / 1e6, getZeilenProSekunde());
+    }
+}
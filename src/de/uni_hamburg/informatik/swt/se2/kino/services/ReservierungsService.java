@@ -0,0 +1,163 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Platzreservierung;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+
+/**
+ * Dieser Service reserviert Plätze für eine feste Haltedauer, zum Beispiel
+ * solange an einer Kasse bar bezahlt wird, und gibt abgelaufene Reservierungen
+ * automatisch wieder frei.
+ *
+ * Die Abläufe aller Reservierungen werden gemeinsam in einem {@link Zeitrad}
+ * verwaltet, das ein einzelner Hintergrund-Thread einmal pro Takt
+ * weiterschaltet. Auch viele tausend gleichzeitige Reservierungen kosten
+ * deshalb weder je einen Timer noch Rechenzeit, solange sie nicht ablaufen.
+ * Verkaufte oder freigegebene Reservierungen bleiben bis zu ihrem Ablauf im
+ * Zeitrad und werden dann übersprungen.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class ReservierungsService
+{
+    private static final int ANZAHL_FAECHER = 512;
+    private static final long TAKTDAUER = 1000;
+
+    private final long _haltedauer;
+    private final Zeitrad<Platzreservierung> _zeitrad;
+    private final ScheduledExecutorService _taktgeber;
+
+    /**
+     * Initialisiert den Service und startet den Hintergrund-Thread, der
+     * abgelaufene Reservierungen freigibt.
+     *
+     * @param haltedauer wie lange eine Reservierung gilt, in Millisekunden.
+     *
+     * @require haltedauer > 0
+     */
+    public ReservierungsService(long haltedauer)
+    {
+        assert haltedauer > 0 : "Vorbedingung verletzt: haltedauer > 0";
+
+        _haltedauer = haltedauer;
+        _zeitrad = new Zeitrad<Platzreservierung>(ANZAHL_FAECHER, TAKTDAUER,
+                System.currentTimeMillis());
+        _taktgeber = Executors
+                .newSingleThreadScheduledExecutor(new ThreadFactory()
+                {
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable,
+                                "Reservierungsablauf");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        _taktgeber.scheduleAtFixedRate(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                gibAbgelaufeneFrei(System.currentTimeMillis());
+            }
+        }, TAKTDAUER, TAKTDAUER, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reserviert die angegebenen Plätze einer Vorstellung für die Haltedauer
+     * dieses Services.
+     *
+     * @param vorstellung die Vorstellung.
+     * @param plaetze die zu reservierenden Plätze.
+     * @param inhaber wer reserviert, zum Beispiel die Kasse.
+     *
+     * @return die Reservierung oder <code>null</code>, wenn nicht alle Plätze
+     *         verkaufbar waren.
+     *
+     * @require vorstellung != null
+     * @require vorstellung.hatPlaetze(plaetze)
+     * @require inhaber != null
+     */
+    public Platzreservierung reserviere(Vorstellung vorstellung,
+            Set<Platz> plaetze, Object inhaber)
+    {
+        assert vorstellung != null : "Vorbedingung verletzt: vorstellung != null";
+
+        long ablaufzeitpunkt = System.currentTimeMillis() + _haltedauer;
+        Platzreservierung reservierung = vorstellung.versucheReservierung(
+                plaetze, inhaber, ablaufzeitpunkt);
+        if (reservierung != null)
+        {
+            _zeitrad.plane(reservierung, ablaufzeitpunkt);
+        }
+        return reservierung;
+    }
+
+    /**
+     * Verkauft die Plätze einer Reservierung.
+     *
+     * @return true, wenn die Plätze verkauft wurden, false, wenn die
+     *         Reservierung inzwischen abgelaufen oder beendet war.
+     *
+     * @require reservierung != null
+     */
+    public boolean verkaufe(Platzreservierung reservierung)
+    {
+        assert reservierung != null : "Vorbedingung verletzt: reservierung != null";
+
+        return reservierung.getVorstellung().verkaufeReservierung(reservierung);
+    }
+
+    /**
+     * Gibt die Plätze einer Reservierung vorzeitig frei.
+     *
+     * @return true, wenn die Plätze freigegeben wurden, false, wenn die
+     *         Reservierung inzwischen abgelaufen oder beendet war.
+     *
+     * @require reservierung != null
+     */
+    public boolean gibFrei(Platzreservierung reservierung)
+    {
+        assert reservierung != null : "Vorbedingung verletzt: reservierung != null";
+
+        return reservierung.getVorstellung().gibReservierungFrei(reservierung);
+    }
+
+    /**
+     * Beendet den Hintergrund-Thread. Danach laufen Reservierungen nicht mehr
+     * automatisch ab.
+     */
+    public void beende()
+    {
+        _taktgeber.shutdownNow();
+    }
+
+    /**
+     * Gibt alle Reservierungen frei, die bis zum angegebenen Zeitpunkt
+     * abgelaufen sind.
+     *
+     * @return die Anzahl der freigegebenen Reservierungen.
+     */
+    int gibAbgelaufeneFrei(long jetzt)
+    {
+        int anzahl = 0;
+        List<Platzreservierung> abgelaufen = _zeitrad.schalteWeiter(jetzt);
+        for (Platzreservierung reservierung : abgelaufen)
+        {
+            if (reservierung.getVorstellung().gibReservierungFrei(reservierung))
+            {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+}
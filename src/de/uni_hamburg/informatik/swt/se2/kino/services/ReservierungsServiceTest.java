@@ -0,0 +1,92 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.FSK;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Film;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kinosaal;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Platzreservierung;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+
+public class ReservierungsServiceTest
+{
+    private static final long HALTEDAUER = 60 * 1000;
+
+    private Vorstellung _vorstellung;
+    private Set<Platz> _plaetze;
+
+    @Before
+    public void setUp()
+    {
+        _vorstellung = new Vorstellung(new Kinosaal("Saal 1", 10, 10),
+                new Film("Rio", 96, FSK.FSK0, false), Uhrzeit.get(17, 30),
+                Uhrzeit.get(20, 0), Datum.get(1, 1, 2021), 800);
+        _plaetze = new HashSet<Platz>();
+        _plaetze.add(Platz.get(2, 3));
+        _plaetze.add(Platz.get(2, 4));
+    }
+
+    @Test
+    public void testeReservierenUndVerkaufen()
+    {
+        ReservierungsService service = new ReservierungsService(HALTEDAUER);
+        Platzreservierung reservierung = service.reserviere(_vorstellung,
+                _plaetze, "Kasse 1");
+
+        assertNotNull(reservierung);
+        assertEquals("Kasse 1", reservierung.getInhaber());
+        assertFalse(_vorstellung.sindVerkaufbar(_plaetze));
+        assertNull(service.reserviere(_vorstellung, _plaetze, "Kasse 2"));
+
+        assertTrue(service.verkaufe(reservierung));
+        assertTrue(_vorstellung.sindStornierbar(_plaetze));
+        assertFalse(reservierung.istAktiv());
+        service.beende();
+    }
+
+    @Test
+    public void testeAbgelaufeneReservierungWirdFreigegeben()
+    {
+        ReservierungsService service = new ReservierungsService(HALTEDAUER);
+        Platzreservierung reservierung = service.reserviere(_vorstellung,
+                _plaetze, "Kasse 1");
+
+        assertEquals(0, service.gibAbgelaufeneFrei(System.currentTimeMillis()));
+        assertEquals(1, service.gibAbgelaufeneFrei(reservierung
+                .getAblaufzeitpunkt() + 1000));
+
+        assertFalse(reservierung.istAktiv());
+        assertTrue(_vorstellung.sindVerkaufbar(_plaetze));
+        // Eine abgelaufene Reservierung kann nicht mehr verkauft werden
+        assertFalse(service.verkaufe(reservierung));
+        assertTrue(_vorstellung.sindVerkaufbar(_plaetze));
+        service.beende();
+    }
+
+    @Test
+    public void testeVerkaufteReservierungLaeuftNichtAb()
+    {
+        ReservierungsService service = new ReservierungsService(HALTEDAUER);
+        Platzreservierung reservierung = service.reserviere(_vorstellung,
+                _plaetze, "Kasse 1");
+        service.verkaufe(reservierung);
+
+        assertEquals(0, service.gibAbgelaufeneFrei(reservierung
+                .getAblaufzeitpunkt() + 1000));
+        assertTrue(_vorstellung.sindStornierbar(_plaetze));
+        service.beende();
+    }
+}
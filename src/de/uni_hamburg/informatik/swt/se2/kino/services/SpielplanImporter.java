@@ -0,0 +1,595 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.FSK;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Geldbetrag;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Film;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kino;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kinosaal;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+
+/**
+ * Dieser Service liest einen Spielplan aus drei Textdateien und erzeugt daraus
+ * ein Kino. Jede Zeile ist ein Datensatz, die Felder sind durch Semikolon
+ * getrennt; leere Zeilen und Zeilen, die mit # beginnen, werden übersprungen.
+ *
+ * <pre>
+ * Säle:          Name;Reihen;SitzeProReihe             Saal 1;20;25
+ * Filme:         Titel;Länge;FSK;Überlänge             Rio;96;FSK0;nein
+ * Vorstellungen: Saal;Film;Anfang;Ende;Datum;Preis     Saal 1;Rio;17:30;20:00;20.05.2021;9,95
+ * </pre>
+ *
+ * Säle und Filme werden zuerst gelesen; jeder Name und jeder Titel ergibt
+ * genau ein Objekt, das sich alle Vorstellungen teilen. Uhrzeiten kommen aus
+ * der Tabelle von {@link Uhrzeit}, gleiche Daten werden ebenfalls nur einmal
+ * erzeugt.
+ *
+ * Die Vorstellungen werden als Strom gelesen: Ein Thread liest Blöcke von
+ * Zeilen, die ein Pool von Threads parallel in Vorstellungen übersetzt. Die
+ * Blöcke werden in ihrer Reihenfolge blockweise ins Kino übernommen, und es
+ * sind höchstens doppelt so viele Blöcke unterwegs, wie es Threads gibt. Ein
+ * Feld aller Vorstellungen entsteht dabei nicht.
+ *
+ * Alle Vorstellungen müssen innerhalb eines Horizonts um das Datum der
+ * ersten Vorstellung der Datei liegen. Das Kino legt für jeden Tag zwischen
+ * der frühesten und der spätesten Vorstellung einen Tagesplan an; ohne diese
+ * Grenze könnte eine einzige Zeile mit dem Jahr 99999 Millionen davon
+ * erzwingen.
+ *
+ * Ebenso darf ein Saal höchstens {@link Platz#MAX_REIHEN} Reihen und
+ * {@link Platz#MAX_SITZE} Sitze pro Reihe haben, da ein Kinosaal alle seine
+ * Plätze beim Erzeugen anlegt.
+ *
+ * Fehlerhafte Zeilen brechen den Import mit einer {@link IOException} ab, die
+ * Datei und Zeilennummer nennt. Vorstellungen, die sich im selben Kinosaal
+ * überschneiden, werden dagegen nur abgelehnt und im {@link Importergebnis}
+ * aufgeführt.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public class SpielplanImporter
+{
+    private static final char TRENNZEICHEN = ';';
+    private static final int ZEILEN_PRO_BLOCK = 4096;
+
+    /**
+     * Der Horizont, wenn keiner angegeben wird: fünf Jahre in Tagen.
+     */
+    public static final int STANDARDHORIZONT_IN_TAGEN = 5 * 366;
+
+    private final int _anzahlThreads;
+    private final int _horizontInTagen;
+
+    /**
+     * Initialisiert einen Importer, der so viele Threads nutzt, wie es
+     * Prozessoren gibt.
+     */
+    public SpielplanImporter()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initialisiert einen Importer mit dem Standardhorizont.
+     *
+     * @param anzahlThreads
+     *            wie viele Threads die Vorstellungen übersetzen.
+     *
+     * @require anzahlThreads > 0
+     */
+    public SpielplanImporter(int anzahlThreads)
+    {
+        this(anzahlThreads, STANDARDHORIZONT_IN_TAGEN);
+    }
+
+    /**
+     * Initialisiert einen Importer.
+     *
+     * @param anzahlThreads
+     *            wie viele Threads die Vorstellungen übersetzen.
+     * @param horizontInTagen
+     *            wie viele Tage eine Vorstellung höchstens vor oder nach der
+     *            ersten Vorstellung der Datei liegen darf.
+     *
+     * @require anzahlThreads > 0
+     * @require horizontInTagen >= 0
+     */
+    public SpielplanImporter(int anzahlThreads, int horizontInTagen)
+    {
+        assert anzahlThreads > 0 : "Vorbedingung verletzt: anzahlThreads > 0";
+        assert horizontInTagen >= 0 : "Vorbedingung verletzt: horizontInTagen >= 0";
+
+        _anzahlThreads = anzahlThreads;
+        _horizontInTagen = horizontInTagen;
+    }
+
+    /**
+     * Liest Säle, Filme und Vorstellungen und gibt das Kino mit diesem
+     * Spielplan zurück. Die Reader werden nicht geschlossen.
+     *
+     * @param saele
+     *            die Säle.
+     * @param filme
+     *            die Filme.
+     * @param vorstellungen
+     *            die Vorstellungen.
+     *
+     * @throws IOException
+     *             wenn nicht gelesen werden kann, eine Zeile fehlerhaft ist
+     *             oder eine Vorstellung außerhalb des Horizonts liegt.
+     *
+     * @require saele != null
+     * @require filme != null
+     * @require vorstellungen != null
+     *
+     * @ensure result != null
+     */
+    public Importergebnis importiere(Reader saele, Reader filme,
+            Reader vorstellungen) throws IOException
+    {
+        assert saele != null : "Vorbedingung verletzt: saele != null";
+        assert filme != null : "Vorbedingung verletzt: filme != null";
+        assert vorstellungen != null : "Vorbedingung verletzt: vorstellungen != null";
+
+        long start = System.nanoTime();
+        Map<String, Kinosaal> saalNachName = leseSaele(new BufferedReader(
+                saele));
+        Map<String, Film> filmNachTitel = leseFilme(new BufferedReader(filme));
+        Kino kino = new Kino(saalNachName.values().toArray(
+                new Kinosaal[saalNachName.size()]), new Vorstellung[0]);
+
+        ConcurrentMap<Integer, Datum> datumNachTag = new ConcurrentHashMap<Integer, Datum>();
+        List<Vorstellung> abgelehnt = new ArrayList<Vorstellung>();
+        Deque<Future<List<Vorstellung>>> inArbeit = new ArrayDeque<Future<List<Vorstellung>>>();
+        int anzahl = 0;
+        ExecutorService uebersetzer = Executors.newFixedThreadPool(
+                _anzahlThreads, new ThreadFactory()
+                {
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable, "Spielplanimport");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        try
+        {
+            BufferedReader zeilen = new BufferedReader(vorstellungen);
+            List<String> block = new ArrayList<String>(ZEILEN_PRO_BLOCK);
+            int ersteZeile = 1;
+            // Der Bezugspunkt des Horizonts; steht fest, bevor der erste
+            // Block mit einem Datensatz abgegeben wird.
+            Datum erstesDatum = null;
+            String zeile;
+            while ((zeile = zeilen.readLine()) != null)
+            {
+                block.add(zeile);
+                if (erstesDatum == null && istDatensatz(zeile))
+                {
+                    erstesDatum = leseDatum(zeile, ersteZeile + block.size()
+                            - 1);
+                }
+                if (block.size() == ZEILEN_PRO_BLOCK)
+                {
+                    inArbeit.add(uebersetzer.submit(new Vorstellungsblock(
+                            block, ersteZeile, saalNachName, filmNachTitel,
+                            datumNachTag, erstesDatum, _horizontInTagen)));
+                    ersteZeile += block.size();
+                    block = new ArrayList<String>(ZEILEN_PRO_BLOCK);
+                    if (inArbeit.size() >= 2 * _anzahlThreads)
+                    {
+                        anzahl += uebernimm(inArbeit.poll(), kino, abgelehnt);
+                    }
+                }
+            }
+            if (!block.isEmpty())
+            {
+                inArbeit.add(uebersetzer.submit(new Vorstellungsblock(block,
+                        ersteZeile, saalNachName, filmNachTitel, datumNachTag,
+                        erstesDatum, _horizontInTagen)));
+            }
+            while (!inArbeit.isEmpty())
+            {
+                anzahl += uebernimm(inArbeit.poll(), kino, abgelehnt);
+            }
+        }
+        finally
+        {
+            uebersetzer.shutdownNow();
+        }
+
+        return new Importergebnis(kino, saalNachName.size(),
+                filmNachTitel.size(), anzahl, abgelehnt, System.nanoTime()
+                        - start);
+    }
+
+    /**
+     * Wartet auf einen übersetzten Block und übernimmt ihn ins Kino.
+     *
+     * @return die Anzahl der Vorstellungen im Block.
+     */
+    private static int uebernimm(Future<List<Vorstellung>> block, Kino kino,
+            List<Vorstellung> abgelehnt) throws IOException
+    {
+        List<Vorstellung> vorstellungen;
+        try
+        {
+            vorstellungen = block.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import unterbrochen");
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        abgelehnt.addAll(kino.fuegeVorstellungenHinzu(vorstellungen));
+        return vorstellungen.size();
+    }
+
+    /**
+     * Liest die Säle in der Reihenfolge der Datei.
+     */
+    private static Map<String, Kinosaal> leseSaele(BufferedReader zeilen)
+            throws IOException
+    {
+        Map<String, Kinosaal> saalNachName = new LinkedHashMap<String, Kinosaal>();
+        int[] grenzen = new int[4];
+        int nummer = 0;
+        String zeile;
+        while ((zeile = zeilen.readLine()) != null)
+        {
+            nummer++;
+            if (!istDatensatz(zeile))
+            {
+                continue;
+            }
+            trenne(zeile, grenzen, "Säle", nummer);
+            String name = feld(zeile, grenzen, 0);
+            int reihen = zahl(zeile, grenzen, 1, "Säle", nummer);
+            int sitze = zahl(zeile, grenzen, 2, "Säle", nummer);
+            if (name.isEmpty() || reihen == 0 || sitze == 0)
+            {
+                throw fehler("Säle", nummer, "Name, Reihen und Sitze dürfen nicht leer oder 0 sein");
+            }
+            if (reihen > Platz.MAX_REIHEN || sitze > Platz.MAX_SITZE)
+            {
+                throw fehler("Säle", nummer, "höchstens " + Platz.MAX_REIHEN
+                        + " Reihen und " + Platz.MAX_SITZE
+                        + " Sitze pro Reihe erlaubt");
+            }
+            if (saalNachName.put(name, new Kinosaal(name, reihen, sitze)) != null)
+            {
+                throw fehler("Säle", nummer, "Saal \"" + name + "\" doppelt");
+            }
+        }
+        return saalNachName;
+    }
+
+    /**
+     * Liest die Filme.
+     */
+    private static Map<String, Film> leseFilme(BufferedReader zeilen)
+            throws IOException
+    {
+        Map<String, Film> filmNachTitel = new LinkedHashMap<String, Film>();
+        int[] grenzen = new int[5];
+        int nummer = 0;
+        String zeile;
+        while ((zeile = zeilen.readLine()) != null)
+        {
+            nummer++;
+            if (!istDatensatz(zeile))
+            {
+                continue;
+            }
+            trenne(zeile, grenzen, "Filme", nummer);
+            String titel = feld(zeile, grenzen, 0);
+            int laenge = zahl(zeile, grenzen, 1, "Filme", nummer);
+            FSK fsk = fsk(feld(zeile, grenzen, 2), nummer);
+            String ueberlaenge = feld(zeile, grenzen, 3);
+            if (laenge == 0)
+            {
+                throw fehler("Filme", nummer, "Länge 0");
+            }
+            if (!ueberlaenge.equals("ja") && !ueberlaenge.equals("nein"))
+            {
+                throw fehler("Filme", nummer, "Überlänge muss ja oder nein sein");
+            }
+            if (filmNachTitel.put(titel, new Film(titel, laenge, fsk,
+                    ueberlaenge.equals("ja"))) != null)
+            {
+                throw fehler("Filme", nummer, "Film \"" + titel + "\" doppelt");
+            }
+        }
+        return filmNachTitel;
+    }
+
+    private static FSK fsk(String text, int nummer) throws IOException
+    {
+        for (FSK fsk : FSK.values())
+        {
+            if (fsk.name().equals(text))
+            {
+                return fsk;
+            }
+        }
+        throw fehler("Filme", nummer, "unbekannte FSK \"" + text + "\"");
+    }
+
+    /**
+     * Ein Block von Zeilen der Vorstellungsdatei, der in einem eigenen Thread
+     * übersetzt wird. Säle und Filme werden nur gelesen; Daten werden über die
+     * gemeinsame Tabelle geteilt.
+     */
+    private static final class Vorstellungsblock implements
+            Callable<List<Vorstellung>>
+    {
+        private final List<String> _zeilen;
+        private final int _ersteZeile;
+        private final Map<String, Kinosaal> _saalNachName;
+        private final Map<String, Film> _filmNachTitel;
+        private final ConcurrentMap<Integer, Datum> _datumNachTag;
+        private final Datum _erstesDatum;
+        private final int _horizontInTagen;
+
+        Vorstellungsblock(List<String> zeilen, int ersteZeile,
+                Map<String, Kinosaal> saalNachName,
+                Map<String, Film> filmNachTitel,
+                ConcurrentMap<Integer, Datum> datumNachTag,
+                Datum erstesDatum, int horizontInTagen)
+        {
+            _zeilen = zeilen;
+            _ersteZeile = ersteZeile;
+            _saalNachName = saalNachName;
+            _filmNachTitel = filmNachTitel;
+            _datumNachTag = datumNachTag;
+            _erstesDatum = erstesDatum;
+            _horizontInTagen = horizontInTagen;
+        }
+
+        @Override
+        public List<Vorstellung> call() throws IOException
+        {
+            List<Vorstellung> vorstellungen = new ArrayList<Vorstellung>(
+                    _zeilen.size());
+            int[] grenzen = new int[7];
+            for (int i = 0; i < _zeilen.size(); i++)
+            {
+                String zeile = _zeilen.get(i);
+                if (istDatensatz(zeile))
+                {
+                    vorstellungen.add(uebersetze(zeile, grenzen, _ersteZeile
+                            + i));
+                }
+            }
+            return vorstellungen;
+        }
+
+        private Vorstellung uebersetze(String zeile, int[] grenzen, int nummer)
+                throws IOException
+        {
+            trenne(zeile, grenzen, "Vorstellungen", nummer);
+            String name = feld(zeile, grenzen, 0);
+            Kinosaal saal = _saalNachName.get(name);
+            if (saal == null)
+            {
+                throw fehler("Vorstellungen", nummer, "unbekannter Saal \""
+                        + name + "\"");
+            }
+            String titel = feld(zeile, grenzen, 1);
+            Film film = _filmNachTitel.get(titel);
+            if (film == null)
+            {
+                throw fehler("Vorstellungen", nummer, "unbekannter Film \""
+                        + titel + "\"");
+            }
+            Uhrzeit anfang = uhrzeit(zeile, grenzen, 2, nummer);
+            Uhrzeit ende = uhrzeit(zeile, grenzen, 3, nummer);
+            Datum datum = datum(zeile, grenzen, 4, nummer);
+            long preis = Geldbetrag.leseEurocent(zeile.subSequence(
+                    grenzen[5] + 1, grenzen[6]));
+            if (preis < 0 || preis > Integer.MAX_VALUE)
+            {
+                throw fehler("Vorstellungen", nummer, "ungültiger Preis");
+            }
+            return new Vorstellung(saal, film, anfang, ende, datum,
+                    (int) preis);
+        }
+
+        /**
+         * Liest eine Uhrzeit der Form H:MM oder HH:MM.
+         */
+        private static Uhrzeit uhrzeit(String zeile, int[] grenzen, int feld,
+                int nummer) throws IOException
+        {
+            int von = grenzen[feld] + 1;
+            int bis = grenzen[feld + 1];
+            int doppelpunkt = zeile.indexOf(':', von);
+            if (doppelpunkt < 0 || doppelpunkt >= bis || bis - doppelpunkt != 3)
+            {
+                throw fehler("Vorstellungen", nummer, "ungültige Uhrzeit");
+            }
+            int stunden = ziffern(zeile, von, doppelpunkt);
+            int minuten = ziffern(zeile, doppelpunkt + 1, bis);
+            if (!Uhrzeit.istGueltig(stunden, minuten))
+            {
+                throw fehler("Vorstellungen", nummer, "ungültige Uhrzeit");
+            }
+            return Uhrzeit.get(stunden, minuten);
+        }
+
+        /**
+         * Liest das Datum einer Vorstellung, prüft, ob es im Horizont liegt,
+         * und gibt das gemeinsame Objekt für diesen Tag zurück.
+         */
+        private Datum datum(String zeile, int[] grenzen, int feld, int nummer)
+                throws IOException
+        {
+            Datum datum = leseDatum(zeile, grenzen, feld, nummer);
+            if (Math.abs(datum.tageSeit(_erstesDatum)) > _horizontInTagen)
+            {
+                throw fehler("Vorstellungen", nummer, "Datum liegt mehr als "
+                        + _horizontInTagen + " Tage vom ersten Datum entfernt");
+            }
+            Datum bekannt = _datumNachTag.putIfAbsent(
+                    datum.getTageSeitEpoche(), datum);
+            return bekannt == null ? datum : bekannt;
+        }
+    }
+
+    /**
+     * Liest das Datum aus einer Zeile der Vorstellungsdatei.
+     */
+    private static Datum leseDatum(String zeile, int nummer)
+            throws IOException
+    {
+        int[] grenzen = new int[7];
+        trenne(zeile, grenzen, "Vorstellungen", nummer);
+        return leseDatum(zeile, grenzen, 4, nummer);
+    }
+
+    /**
+     * Liest ein Datum der Form T.M.JJJJ, jeweils auch mit führenden Nullen.
+     * Jahre außerhalb der Grenzen von {@link Datum#istGueltig} werden nicht
+     * angenommen.
+     */
+    private static Datum leseDatum(String zeile, int[] grenzen, int feld,
+            int nummer) throws IOException
+    {
+        int von = grenzen[feld] + 1;
+        int bis = grenzen[feld + 1];
+        int punkt1 = zeile.indexOf('.', von);
+        int punkt2 = punkt1 < 0 ? -1 : zeile.indexOf('.', punkt1 + 1);
+        if (punkt2 < 0 || punkt2 >= bis)
+        {
+            throw fehler("Vorstellungen", nummer, "ungültiges Datum");
+        }
+        int tag = ziffern(zeile, von, punkt1);
+        int monat = ziffern(zeile, punkt1 + 1, punkt2);
+        int jahr = ziffern(zeile, punkt2 + 1, bis);
+        if (!Datum.istGueltig(tag, monat, jahr))
+        {
+            throw fehler("Vorstellungen", nummer, "ungültiges Datum");
+        }
+        return Datum.get(tag, monat, jahr);
+    }
+
+    /**
+     * Gibt an, ob die Zeile ein Datensatz ist und nicht leer oder ein
+     * Kommentar.
+     */
+    private static boolean istDatensatz(String zeile)
+    {
+        return !zeile.isEmpty() && zeile.charAt(0) != '#';
+    }
+
+    /**
+     * Sucht die Feldgrenzen einer Zeile. Feld i reicht danach von
+     * grenzen[i] + 1 bis ausschließlich grenzen[i + 1].
+     *
+     * @throws IOException
+     *             wenn die Zeile nicht genau grenzen.length - 1 Felder hat.
+     */
+    private static void trenne(String zeile, int[] grenzen, String datei,
+            int nummer) throws IOException
+    {
+        int anzahl = 0;
+        grenzen[0] = -1;
+        for (int i = 0; i < zeile.length(); i++)
+        {
+            if (zeile.charAt(i) == TRENNZEICHEN)
+            {
+                if (++anzahl == grenzen.length - 1)
+                {
+                    break;
+                }
+                grenzen[anzahl] = i;
+            }
+        }
+        if (anzahl != grenzen.length - 2)
+        {
+            throw fehler(datei, nummer, (grenzen.length - 1)
+                    + " Felder erwartet");
+        }
+        grenzen[grenzen.length - 1] = zeile.length();
+    }
+
+    private static String feld(String zeile, int[] grenzen, int feld)
+    {
+        return zeile.substring(grenzen[feld] + 1, grenzen[feld + 1]);
+    }
+
+    /**
+     * Liest ein Feld, das nur aus Ziffern besteht.
+     */
+    private static int zahl(String zeile, int[] grenzen, int feld,
+            String datei, int nummer) throws IOException
+    {
+        int zahl = ziffern(zeile, grenzen[feld] + 1, grenzen[feld + 1]);
+        if (zahl < 0)
+        {
+            throw fehler(datei, nummer, "Feld " + (feld + 1)
+                    + " ist keine Zahl");
+        }
+        return zahl;
+    }
+
+    /**
+     * Gibt den Wert der Ziffern von einschließlich bis ausschließlich zurück
+     * oder -1, wenn dort etwas anderes steht, nichts steht oder die Zahl mehr
+     * als neun Stellen hat.
+     */
+    private static int ziffern(String zeile, int von, int bis)
+    {
+        if (von >= bis || bis - von > 9)
+        {
+            return -1;
+        }
+        int wert = 0;
+        for (int i = von; i < bis; i++)
+        {
+            char c = zeile.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return -1;
+            }
+            wert = wert * 10 + (c - '0');
+        }
+        return wert;
+    }
+
+    private static IOException fehler(String datei, int nummer, String grund)
+    {
+        return new IOException(datei + ", Zeile " + nummer + ": " + grund);
+    }
+}
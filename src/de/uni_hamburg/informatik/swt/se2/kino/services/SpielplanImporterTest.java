@@ -0,0 +1,185 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.FSK;
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Uhrzeit;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kino;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+
+public class SpielplanImporterTest
+{
+    private static final String SAELE = "# Name;Reihen;Sitze\n"
+            + "Saal 1;20;25\n" + "Saal 2;16;20\n";
+    private static final String FILME = "Rio;96;FSK0;nein\n"
+            + "Thor;115;FSK12;ja\n";
+
+    private Importergebnis importiere(String saele, String filme,
+            String vorstellungen, int threads) throws IOException
+    {
+        return new SpielplanImporter(threads).importiere(new StringReader(
+                saele), new StringReader(filme), new StringReader(
+                vorstellungen));
+    }
+
+    @Test
+    public void testImportiereKleinenSpielplan() throws IOException
+    {
+        Importergebnis ergebnis = importiere(SAELE, FILME,
+                "Saal 1;Thor;20:00;22:00;20.05.2021;9,95\n" + "\n"
+                        + "Saal 1;Rio;17:30;19:30;20.05.2021;7,50\n"
+                        + "Saal 2;Rio;17:30;19:30;20.05.2021;7\n"
+                        + "Saal 2;Thor;9:00;11:00;21.5.2021;5,00\n", 1);
+
+        assertEquals(2, ergebnis.getAnzahlSaele());
+        assertEquals(2, ergebnis.getAnzahlFilme());
+        assertEquals(4, ergebnis.getAnzahlVorstellungen());
+        assertTrue(ergebnis.getAbgelehnteVorstellungen().isEmpty());
+        assertTrue(ergebnis.getZeilenProSekunde() > 0);
+
+        Kino kino = ergebnis.getKino();
+        assertEquals(2, kino.getKinosaele().size());
+        List<Vorstellung> tag = kino.getTagesplan(Datum.get(20, 5, 2021))
+                .getVorstellungen();
+        assertEquals(3, tag.size());
+        Vorstellung rio1 = tag.get(0);
+        Vorstellung rio2 = tag.get(1);
+        Vorstellung thor = tag.get(2);
+        assertEquals("Saal 1", rio1.getKinosaal().getName());
+        assertEquals("Saal 2", rio2.getKinosaal().getName());
+        assertEquals(750, rio1.getPreis());
+        assertEquals(700, rio2.getPreis());
+        assertEquals(995, thor.getPreis());
+        assertEquals(Uhrzeit.get(22, 0), thor.getEndzeit());
+        assertEquals(FSK.FSK12, thor.getFilm().getFSK());
+
+        // Gleiche Werte werden geteilt
+        assertSame(rio1.getFilm(), rio2.getFilm());
+        assertSame(rio1.getKinosaal(), thor.getKinosaal());
+        assertSame(rio1.getDatum(), thor.getDatum());
+        assertSame(rio1.getAnfangszeit(), rio2.getAnfangszeit());
+
+        assertEquals(1, kino.getTagesplan(Datum.get(21, 5, 2021))
+                .getVorstellungen().size());
+    }
+
+    @Test
+    public void testImportiereGrossenSpielplanInBloecken() throws IOException
+    {
+        StringBuilder vorstellungen = new StringBuilder();
+        Datum erster = Datum.get(1, 1, 2021);
+        int tage = 1000;
+        for (int t = 0; t < tage; t++)
+        {
+            String datum = erster.plus(t).getFormatiertenString();
+            for (int z = 0; z < 5; z++)
+            {
+                vorstellungen.append("Saal 1;Rio;" + (10 + 2 * z) + ":00;"
+                        + (11 + 2 * z) + ":30;" + datum + ";8,00\n");
+                vorstellungen.append("Saal 2;Thor;" + (10 + 2 * z) + ":15;"
+                        + (12 + 2 * z) + ":00;" + datum + ";9,00\n");
+            }
+        }
+        // Überschneidet sich mit der ersten Vorstellung in Saal 1
+        vorstellungen.append("Saal 1;Thor;10:30;12:00;01.01.2021;9,00\n");
+
+        Importergebnis ergebnis = importiere(SAELE, FILME,
+                vorstellungen.toString(), 3);
+
+        assertEquals(tage * 10 + 1, ergebnis.getAnzahlVorstellungen());
+        assertEquals(1, ergebnis.getAbgelehnteVorstellungen().size());
+        assertEquals(Uhrzeit.get(10, 30), ergebnis
+                .getAbgelehnteVorstellungen().get(0).getAnfangszeit());
+        Kino kino = ergebnis.getKino();
+        for (int t = 0; t < tage; t += 97)
+        {
+            List<Vorstellung> tag = kino.getTagesplan(erster.plus(t))
+                    .getVorstellungen();
+            assertEquals(10, tag.size());
+            for (int i = 1; i < tag.size(); i++)
+            {
+                assertTrue(tag.get(i - 1).getAnfang()
+                        .istVor(tag.get(i).getAnfang()));
+            }
+        }
+    }
+
+    @Test
+    public void testFehlerNenntDateiUndZeile() throws IOException
+    {
+        assertFehler("Vorstellungen, Zeile 2: unbekannter Film \"Rambo\"",
+                SAELE, FILME, "Saal 1;Rio;17:30;19:30;20.05.2021;7,50\n"
+                        + "Saal 1;Rambo;20:00;22:00;20.05.2021;7,50\n");
+        assertFehler("Vorstellungen, Zeile 1: ungültige Uhrzeit", SAELE,
+                FILME, "Saal 1;Rio;25:30;19:30;20.05.2021;7,50\n");
+        assertFehler("Vorstellungen, Zeile 1: ungültiges Datum", SAELE,
+                FILME, "Saal 1;Rio;17:30;19:30;31.02.2021;7,50\n");
+        assertFehler("Vorstellungen, Zeile 1: ungültiges Datum", SAELE,
+                FILME, "Saal 1;Rio;17:30;19:30;1.1.99999;7,50\n");
+        assertFehler("Vorstellungen, Zeile 3: Datum liegt mehr als "
+                + SpielplanImporter.STANDARDHORIZONT_IN_TAGEN
+                + " Tage vom ersten Datum entfernt", SAELE, FILME,
+                "# Saal;Film;Anfang;Ende;Datum;Preis\n"
+                        + "Saal 1;Rio;17:30;19:30;20.05.2021;7,50\n"
+                        + "Saal 1;Rio;17:30;19:30;20.05.2035;7,50\n");
+        assertFehler("Vorstellungen, Zeile 1: ungültiger Preis", SAELE,
+                FILME, "Saal 1;Rio;17:30;19:30;20.05.2021;7,5\n");
+        assertFehler("Vorstellungen, Zeile 1: 6 Felder erwartet", SAELE,
+                FILME, "Saal 1;Rio;17:30;19:30;20.05.2021;7,50;x\n");
+        assertFehler("Filme, Zeile 1: unbekannte FSK \"FSK7\"", SAELE,
+                "Rio;96;FSK7;nein\n", "");
+        assertFehler("Säle, Zeile 4: Saal \"Saal 1\" doppelt", SAELE
+                + "Saal 1;5;5\n", FILME, "");
+        assertFehler("Säle, Zeile 4: höchstens 128 Reihen und 128 Sitze pro "
+                + "Reihe erlaubt", SAELE + "Saal X;100000;100000\n", FILME, "");
+        assertFehler("Säle, Zeile 4: höchstens 128 Reihen und 128 Sitze pro "
+                + "Reihe erlaubt", SAELE + "Saal X;20;129\n", FILME, "");
+    }
+
+    private void assertFehler(String erwartet, String saele, String filme,
+            String vorstellungen)
+    {
+        try
+        {
+            importiere(saele, filme, vorstellungen, 2);
+            assertTrue("Fehler erwartet: " + erwartet, false);
+        }
+        catch (IOException e)
+        {
+            assertEquals(erwartet, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHorizontIstEinstellbar() throws IOException
+    {
+        String vorstellungen = "Saal 1;Rio;17:30;19:30;20.05.2021;7,50\n"
+                + "Saal 1;Rio;17:30;19:30;10.05.2021;7,50\n"
+                + "Saal 1;Rio;17:30;19:30;30.05.2021;7,50\n";
+        Importergebnis ergebnis = new SpielplanImporter(1, 10).importiere(
+                new StringReader(SAELE), new StringReader(FILME),
+                new StringReader(vorstellungen));
+        assertEquals(3, ergebnis.getAnzahlVorstellungen());
+
+        try
+        {
+            new SpielplanImporter(1, 9).importiere(new StringReader(SAELE),
+                    new StringReader(FILME), new StringReader(vorstellungen));
+            assertTrue("Fehler erwartet", false);
+        }
+        catch (IOException e)
+        {
+            assertEquals("Vorstellungen, Zeile 2: Datum liegt mehr als 9 "
+                    + "Tage vom ersten Datum entfernt", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ein Zeitrad (hashed timing wheel), das Einträge zu einem Fälligkeitszeitpunkt
+ * wieder herausgibt. Die Zeit ist in Takte fester Dauer eingeteilt, jeder Takt
+ * gehört zu einem Fach des Rades. Ein Eintrag wird in das Fach seines
+ * Fälligkeitstakts gelegt und merkt sich, wie viele volle Umdrehungen er noch
+ * warten muss.
+ *
+ * Einplanen kostet damit konstante Zeit, und jedes Weiterschalten betrachtet
+ * nur die Einträge eines Fachs, egal wie viele Einträge insgesamt warten. Es
+ * gibt keinen eigenen Timer pro Eintrag. Fällige Einträge werden frühestens zu
+ * ihrem Fälligkeitszeitpunkt herausgegeben und, wenn das Rad mindestens einmal
+ * pro Takt weitergeschaltet wird, spätestens einen Takt danach.
+ *
+ * Das Zeitrad hat keine eigene Uhr: Es wird von außen mit der aktuellen Zeit
+ * weitergeschaltet. Alle Methoden sind threadsicher.
+ *
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Zeitrad<T>
+{
+    private final List<List<Eintrag<T>>> _faecher;
+    private final int _maske;
+    private final long _taktdauer;
+    private final long _startzeit;
+    private long _naechsterTakt;
+    private int _anzahlEintraege;
+
+    /**
+     * Initialisiert ein leeres Zeitrad.
+     *
+     * @param anzahlFaecher die Anzahl der Fächer, eine Zweierpotenz.
+     * @param taktdauer die Dauer eines Takts.
+     * @param startzeit der Zeitpunkt, zu dem der erste Takt beginnt.
+     *
+     * @require anzahlFaecher > 0 und eine Zweierpotenz
+     * @require taktdauer > 0
+     */
+    Zeitrad(int anzahlFaecher, long taktdauer, long startzeit)
+    {
+        assert anzahlFaecher > 0 && Integer.bitCount(anzahlFaecher) == 1 : "Vorbedingung verletzt: anzahlFaecher > 0 und eine Zweierpotenz";
+        assert taktdauer > 0 : "Vorbedingung verletzt: taktdauer > 0";
+
+        _faecher = new ArrayList<List<Eintrag<T>>>(anzahlFaecher);
+        for (int i = 0; i < anzahlFaecher; i++)
+        {
+            _faecher.add(new ArrayList<Eintrag<T>>());
+        }
+        _maske = anzahlFaecher - 1;
+        _taktdauer = taktdauer;
+        _startzeit = startzeit;
+        _naechsterTakt = 0;
+        _anzahlEintraege = 0;
+    }
+
+    /**
+     * Plant einen Eintrag ein. Liegt der Fälligkeitszeitpunkt schon in der
+     * Vergangenheit, wird der Eintrag beim nächsten Weiterschalten fällig.
+     *
+     * @param eintrag der Eintrag.
+     * @param faelligkeit der Zeitpunkt, zu dem der Eintrag fällig wird.
+     *
+     * @require eintrag != null
+     */
+    synchronized void plane(T eintrag, long faelligkeit)
+    {
+        assert eintrag != null : "Vorbedingung verletzt: eintrag != null";
+
+        long takt = Math.max(taktAufgerundet(faelligkeit), _naechsterTakt);
+        long umdrehungen = (takt - _naechsterTakt) / _faecher.size();
+        _faecher.get((int) (takt & _maske)).add(
+                new Eintrag<T>(eintrag, umdrehungen));
+        _anzahlEintraege++;
+    }
+
+    /**
+     * Schaltet das Zeitrad bis zur angegebenen Zeit weiter und gibt alle
+     * Einträge heraus, die dabei fällig geworden sind.
+     *
+     * @param jetzt die aktuelle Zeit.
+     *
+     * @ensure result != null
+     */
+    synchronized List<T> schalteWeiter(long jetzt)
+    {
+        List<T> faellig = new ArrayList<T>();
+        while (_startzeit + _naechsterTakt * _taktdauer <= jetzt)
+        {
+            Iterator<Eintrag<T>> iterator = _faecher.get(
+                    (int) (_naechsterTakt & _maske)).iterator();
+            while (iterator.hasNext())
+            {
+                Eintrag<T> eintrag = iterator.next();
+                if (eintrag._umdrehungen == 0)
+                {
+                    faellig.add(eintrag._wert);
+                    iterator.remove();
+                    _anzahlEintraege--;
+                }
+                else
+                {
+                    eintrag._umdrehungen--;
+                }
+            }
+            _naechsterTakt++;
+        }
+        return faellig;
+    }
+
+    /**
+     * Gibt die Anzahl der Einträge zurück, die noch nicht fällig geworden
+     * sind.
+     */
+    synchronized int getAnzahlEintraege()
+    {
+        return _anzahlEintraege;
+    }
+
+    /**
+     * Gibt den ersten Takt zurück, der zum angegebenen Zeitpunkt schon
+     * begonnen hat.
+     */
+    private long taktAufgerundet(long zeitpunkt)
+    {
+        long seitStart = zeitpunkt - _startzeit;
+        if (seitStart <= 0)
+        {
+            return 0;
+        }
+        return (seitStart + _taktdauer - 1) / _taktdauer;
+    }
+
+    /**
+     * Ein Eintrag in einem Fach des Zeitrads.
+     */
+    private static final class Eintrag<T>
+    {
+        private final T _wert;
+        private long _umdrehungen;
+
+        Eintrag(T wert, long umdrehungen)
+        {
+            _wert = wert;
+            _umdrehungen = umdrehungen;
+        }
+    }
+}
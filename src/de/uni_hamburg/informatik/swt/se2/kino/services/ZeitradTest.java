@@ -0,0 +1,67 @@
+package de.uni_hamburg.informatik.swt.se2.kino.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class ZeitradTest
+{
+    @Test
+    public void testeEintragWirdNichtVorFaelligkeitHerausgegeben()
+    {
+        Zeitrad<String> zeitrad = new Zeitrad<String>(8, 10, 1000);
+        zeitrad.plane("a", 1025);
+
+        assertTrue(zeitrad.schalteWeiter(1024).isEmpty());
+        assertEquals(1, zeitrad.getAnzahlEintraege());
+
+        List<String> faellig = zeitrad.schalteWeiter(1030);
+        assertEquals(1, faellig.size());
+        assertEquals("a", faellig.get(0));
+        assertEquals(0, zeitrad.getAnzahlEintraege());
+    }
+
+    @Test
+    public void testeEintraegeUeberMehrereUmdrehungen()
+    {
+        Zeitrad<String> zeitrad = new Zeitrad<String>(4, 10, 0);
+        // 95 liegt im selben Fach wie 15, aber zwei Umdrehungen später
+        zeitrad.plane("frueh", 15);
+        zeitrad.plane("spaet", 95);
+
+        List<String> faellig = zeitrad.schalteWeiter(20);
+        assertEquals(1, faellig.size());
+        assertEquals("frueh", faellig.get(0));
+
+        assertTrue(zeitrad.schalteWeiter(90).isEmpty());
+        faellig = zeitrad.schalteWeiter(100);
+        assertEquals(1, faellig.size());
+        assertEquals("spaet", faellig.get(0));
+    }
+
+    @Test
+    public void testeVergangeneFaelligkeitBeimNaechstenTakt()
+    {
+        Zeitrad<String> zeitrad = new Zeitrad<String>(4, 10, 0);
+        zeitrad.schalteWeiter(50);
+        zeitrad.plane("a", 5);
+
+        assertEquals(1, zeitrad.schalteWeiter(60).size());
+    }
+
+    @Test
+    public void testeVieleEintraege()
+    {
+        Zeitrad<Integer> zeitrad = new Zeitrad<Integer>(64, 10, 0);
+        for (int i = 0; i < 10000; i++)
+        {
+            zeitrad.plane(i, i);
+        }
+        assertEquals(10000, zeitrad.getAnzahlEintraege());
+        assertEquals(5001, zeitrad.schalteWeiter(5000).size());
+        assertEquals(4999, zeitrad.schalteWeiter(10000).size());
+    }
+}
@@ -1,5 +1,12 @@
 package de.uni_hamburg.informatik.swt.se2.kino.startup;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
 import javax.swing.SwingUtilities;
 
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
@@ -9,6 +16,8 @@ import de.uni_hamburg.informatik.swt.se2.kino.materialien.Film;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kino;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kinosaal;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+import de.uni_hamburg.informatik.swt.se2.kino.services.Importergebnis;
+import de.uni_hamburg.informatik.swt.se2.kino.services.SpielplanImporter;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.kasse.KassenWerkzeug;
 
 /**
@@ -20,20 +29,23 @@ import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.kasse.KassenWerkzeug;
 public class StartupKinoticketverkauf
 {
     /**
-     * Die Main-Methode prüft, ob Assertions aktiviert sind und startet das
-     * KassenWerkzeug mit einem Default-Kino.
+     * Die Main-Methode startet das KassenWerkzeug mit einem Default-Kino.
+     * Assertions müssen dafür nicht aktiviert sein: Verkauf und Storno laufen
+     * über {@link de.uni_hamburg.informatik.swt.se2.kino.materialien.Platzbuchung
+     * Platzbuchungen}, die ihre Plätze selbst prüfen. Während der Entwicklung
+     * sollten sie trotzdem mit -ea aktiviert werden.
+     * 
+     * @param args Ist ein Verzeichnis angegeben, wird der Spielplan aus den
+     *            Dateien saele.csv, filme.csv und vorstellungen.csv darin
+     *            importiert, siehe {@link SpielplanImporter}. Sonst startet
+     *            das Kino mit Beispieldaten.
      * 
-     * @param args Aufrufparameter werden ignoriert.
+     * @throws IOException wenn der Spielplan nicht importiert werden kann.
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
-        if (!assertsEnabled())
-        {
-            throw new IllegalStateException(
-                    "Asserts müssen aktiviert sein: Window > Preferences > Java > Installed JREs -> ausgewaehlte JRE markieren und auf Edit klicken > im erscheinenden Dialog bei Default VM Arguments -ea eingeben");
-        }
-
-        final Kino kino = erzeugeKinoMitBeispieldaten();
+        final Kino kino = args.length > 0 ? importiereKino(new File(args[0]))
+                : erzeugeKinoMitBeispieldaten();
         SwingUtilities.invokeLater(new Runnable()
         {
             public void run()
@@ -43,6 +55,36 @@ public class StartupKinoticketverkauf
         });
     }
 
+    /**
+     * Importiert das Kino aus dem angegebenen Verzeichnis und gibt den
+     * Importbericht aus.
+     */
+    private static Kino importiereKino(File verzeichnis) throws IOException
+    {
+        try (Reader saele = leser(new File(verzeichnis, "saele.csv"));
+                Reader filme = leser(new File(verzeichnis, "filme.csv"));
+                Reader vorstellungen = leser(new File(verzeichnis,
+                        "vorstellungen.csv")))
+        {
+            Importergebnis ergebnis = new SpielplanImporter().importiere(
+                    saele, filme, vorstellungen);
+            System.out.println(ergebnis);
+            for (Vorstellung abgelehnt : ergebnis.getAbgelehnteVorstellungen())
+            {
+                System.out.println("Abgelehnt wegen Überschneidung: "
+                        + abgelehnt + " am "
+                        + abgelehnt.getDatum().getFormatiertenString());
+            }
+            return ergebnis.getKino();
+        }
+    }
+
+    private static Reader leser(File datei) throws IOException
+    {
+        return new InputStreamReader(new FileInputStream(datei),
+                StandardCharsets.UTF_8);
+    }
+
     /**
      * Erzeugt ein Kino mit einigen Vorstellungen.
      */
@@ -122,16 +164,4 @@ public class StartupKinoticketverkauf
 
         return new Kino(saele, vorstellungen);
     }
-
-    /**
-     * 
-     * @return true, wenn asserts enabled sind, ansonsten false.
-     */
-    private static boolean assertsEnabled()
-    {
-        boolean assertsEnabled = false;
-        assert assertsEnabled = true;
-        return assertsEnabled;
-
-    }
 }
@@ -7,6 +7,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
+import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Geldbetrag;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.ObservableSubwerkzeug;
 
 /**
@@ -161,25 +162,25 @@ public class BarzahlungsWerkzeug extends ObservableSubwerkzeug
      * Entertaste gedrückt worden sein. Die Esc-Taste beendet den Bezahlvorgang
      * erfolglos.
      * 
+     * Die Eingabe wird in Euro mit Komma erwartet, etwa "20" oder "12,50".
+     * Sie wird bei jedem Tastendruck gelesen, deshalb ohne Ausnahmen und ohne
+     * neue Objekte.
+     * 
      * @param eingabePreis der bisher eingegebene Preis
      */
     private void reagiereAufEingabeText(String eingabePreis)
     {
-        if (eingabePreis.isEmpty())
+        long eingabeBetrag = eingabePreis.isEmpty() ? 0 : Geldbetrag
+                .leseEurocent(eingabePreis);
+        if (eingabeBetrag == Geldbetrag.KEIN_GELDBETRAG)
         {
-            eingabePreis = "0";
+            _ausreichenderGeldbetrag = false;
+            zeigeFehlertext();
         }
-        try
+        else
         {
-            int eingabeBetrag = Integer.parseInt(eingabePreis);
             _ausreichenderGeldbetrag = (eingabeBetrag >= _preis);
-            int differenz = Math.abs(eingabeBetrag - _preis);
-            zeigeRestbetrag(differenz);
-        }
-        catch (NumberFormatException ignore)
-        {
-            _ausreichenderGeldbetrag = false;
-            zeigeFehlertext();
+            zeigeRestbetrag(Math.abs(eingabeBetrag - _preis));
         }
         zeigeAusreichenderGeldbetragStatus();
     }
@@ -245,13 +246,22 @@ public class BarzahlungsWerkzeug extends ObservableSubwerkzeug
     }
 
     /**
-     * Setzt eine übergebene Differenz im Restbetrag-Textfeld
+     * Setzt eine übergebene Differenz im Restbetrag-Textfeld. Häufige Beträge
+     * sind bereits formatiert, die Anzeige erzeugt dann keinen neuen Text.
      * 
-     * @param differenz ein eingegebener Betrag
+     * @param differenz ein eingegebener Betrag in Eurocent
      */
-    private void zeigeRestbetrag(int differenz)
+    private void zeigeRestbetrag(long differenz)
     {
-        _ui.getRestbetragTextfield().setText(differenz + " Eurocent");
+        if (differenz > Integer.MAX_VALUE)
+        {
+            zeigeFehlertext();
+        }
+        else
+        {
+            _ui.getRestbetragTextfield().setText(
+                    Geldbetrag.select((int) differenz).toString());
+        }
     }
 
     /**
@@ -259,6 +269,6 @@ public class BarzahlungsWerkzeug extends ObservableSubwerkzeug
      */
     private void zeigePreis()
     {
-        _ui.getPreisTextfield().setText(_preis + " Eurocent");
+        _ui.getPreisTextfield().setText(Geldbetrag.select(_preis).toString());
     }
 }
@@ -31,8 +31,8 @@ class BarzahlungsWerkzeugUI
 {
     private static final String OK_BUTTON_TEXT = "Geld erhalten";
     private static final String BARZAHLUNG_TITEL = "Barzahlung";
-    private static final String NOCH_ZU_ZAHLEN = "Noch zu zahlen";
-    private static final String RUECKGELD = "Rückgeld";
+    private static final String NOCH_ZU_ZAHLEN = "Noch zu zahlen (€)";
+    private static final String RUECKGELD = "Rückgeld (€)";
 
     private static final Color SCHRIFTFARBE_NORMAL = new Color(95, 247, 0);
     private static final Color SCHRIFTFARBE_FEHLER = new Color(255, 148, 148);
@@ -216,9 +216,9 @@ class BarzahlungsWerkzeugUI
         JPanel betraege = new JPanel();
         betraege.setLayout(new BoxLayout(betraege, BoxLayout.Y_AXIS));
         initPreisTextfeld();
-        betraege.add(erstelleLayoutPanel("Preis", _preisTextfield));
+        betraege.add(erstelleLayoutPanel("Preis (€)", _preisTextfield));
         initGezahltTextfield();
-        betraege.add(erstelleLayoutPanel("Gezahlt", _gezahltTextfield));
+        betraege.add(erstelleLayoutPanel("Gezahlt (€)", _gezahltTextfield));
         initRestbetragTextfield();
         betraege.add(erstelleRestbetragPanel());
 
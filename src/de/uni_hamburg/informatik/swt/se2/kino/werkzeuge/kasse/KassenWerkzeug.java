@@ -7,6 +7,7 @@ import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Datum;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kino;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Tagesplan;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+import de.uni_hamburg.informatik.swt.se2.kino.services.ReservierungsService;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.SubwerkzeugObserver;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.datumsauswaehler.DatumAuswaehlWerkzeug;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.platzverkauf.PlatzVerkaufsWerkzeug;
@@ -22,9 +23,14 @@ import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.vorstellungsauswaehler.V
  */
 public class KassenWerkzeug
 {
+    // Wie lange Plätze während einer Barzahlung reserviert bleiben
+    private static final long HALTEDAUER_BARZAHLUNG = 10 * 60 * 1000;
+
     // Das Material dieses Werkzeugs
     private Kino _kino;
 
+    private ReservierungsService _reservierungsService;
+
     // UI dieses Werkzeugs
     private KassenWerkzeugUI _ui;
 
@@ -45,9 +51,12 @@ public class KassenWerkzeug
         assert kino != null : "Vorbedingung verletzt: kino != null";
 
         _kino = kino;
+        _reservierungsService = new ReservierungsService(
+                HALTEDAUER_BARZAHLUNG);
 
         // Subwerkzeuge erstellen
-        _platzVerkaufsWerkzeug = new PlatzVerkaufsWerkzeug();
+        _platzVerkaufsWerkzeug = new PlatzVerkaufsWerkzeug(
+                _reservierungsService);
         _datumAuswaehlWerkzeug = new DatumAuswaehlWerkzeug();
         _vorstellungAuswaehlWerkzeug = new VorstellungsAuswaehlWerkzeug();
 
@@ -128,6 +137,7 @@ public class KassenWerkzeug
      */
     private void reagiereAufBeendenButton()
     {
+        _reservierungsService.beende();
         _ui.schliesseFenster();
     }
 
@@ -35,6 +35,7 @@ class JPlatzplan extends JComponent
     private JPlatzButton[][] _buttons;
     private ActionListener _buttonListener;
     private Set<Platz> _ausgewaehltePlaetze;
+    private int _anzahlSitzeProReihe;
     private List<PlatzSelectionListener> _selectionListener;
 
     /**
@@ -128,6 +129,9 @@ class JPlatzplan extends JComponent
      * angeboten werden. Achtung, nach dem Aufruf dieser Methode werden zunächst
      * alle Plätze als frei angezeigt!
      * 
+     * Hat der Platzplan schon die angegebene Größe, werden die vorhandenen
+     * Buttons weiterverwendet und nur zurückgesetzt.
+     * 
      * @param anzahlReihen
      *            die Anzahl der Reihen
      * @param anzahlSitzeProReihe
@@ -141,9 +145,54 @@ class JPlatzplan extends JComponent
         assert anzahlReihen >= 0 : "Vorbedingung verletzt: anzahlReihen >= 0";
         assert anzahlSitzeProReihe >= 0 : "Vorbedingung verletzt: anzahlSitzeProReihe >= 0";
 
+        if (hatGroesse(anzahlReihen, anzahlSitzeProReihe))
+        {
+            setzeButtonsZurueck();
+        }
+        else
+        {
+            erzeugeButtons(anzahlReihen, anzahlSitzeProReihe);
+        }
+
+        // Nach der Änderung ist kein Platz ausgewählt
+        _ausgewaehltePlaetze.clear();
+        informiereSelectionListener(_ausgewaehltePlaetze);
+    }
+
+    /**
+     * Prüft, ob die vorhandenen Buttons genau die angegebene Größe abdecken.
+     */
+    private boolean hatGroesse(int anzahlReihen, int anzahlSitzeProReihe)
+    {
+        return _buttons != null && _buttons.length == anzahlReihen
+                && _anzahlSitzeProReihe == anzahlSitzeProReihe;
+    }
+
+    /**
+     * Zeigt alle vorhandenen Buttons als frei und nicht ausgewählt an.
+     */
+    private void setzeButtonsZurueck()
+    {
+        for (JPlatzButton[] reihe : _buttons)
+        {
+            for (JPlatzButton button : reihe)
+            {
+                button.setAusgewaehlt(false);
+                button.setVerkauft(false);
+            }
+        }
+    }
+
+    /**
+     * Ersetzt alle vorhandenen Buttons durch neue für die angegebene Größe.
+     */
+    private void erzeugeButtons(int anzahlReihen, int anzahlSitzeProReihe)
+    {
         // Alle vorhandenen Buttons etc. entfernen
         removeAll();
 
+        _anzahlSitzeProReihe = anzahlSitzeProReihe;
+
         // Neue Buttons für Plätze erstellen
         _buttons = new JPlatzButton[anzahlReihen][anzahlSitzeProReihe];
         for (int reihe = 0; reihe < anzahlReihen; reihe++)
@@ -162,10 +211,6 @@ class JPlatzplan extends JComponent
         }
         revalidate();
         repaint();
-
-        // Nach der Änderung ist kein Platz ausgewählt
-        _ausgewaehltePlaetze.clear();
-        informiereSelectionListener(_ausgewaehltePlaetze);
     }
 
     /**
@@ -195,6 +240,24 @@ class JPlatzplan extends JComponent
         return new HashSet<Platz>(_ausgewaehltePlaetze);
     }
 
+    /**
+     * Gibt die Platzindizes der ausgewählten Plätze zurück, also
+     * <code>reihe * anzahlSitzeProReihe + sitz</code> für jeden Platz.
+     * 
+     * @ensure result != null
+     */
+    public int[] getAusgewaehltePlatzindizes()
+    {
+        int[] platzindizes = new int[_ausgewaehltePlaetze.size()];
+        int i = 0;
+        for (Platz platz : _ausgewaehltePlaetze)
+        {
+            platzindizes[i++] = platz.getReihe() * _anzahlSitzeProReihe
+                    + platz.getSitz();
+        }
+        return platzindizes;
+    }
+
     /**
      * Entfernt die Auswahl, sodass keine Plätze mehr ausgewählt sind.
      */
@@ -208,6 +271,28 @@ class JPlatzplan extends JComponent
         repaint();
     }
 
+    /**
+     * Ersetzt die Auswahl durch die angegebenen Plätze.
+     * 
+     * @param plaetze
+     *            die auszuwählenden Plätze.
+     * 
+     * @require plaetze != null
+     */
+    public void waehleAus(Set<Platz> plaetze)
+    {
+        assert plaetze != null : "Vorbedingung verletzt: plaetze != null";
+
+        entferneAuswahl();
+        for (Platz platz : plaetze)
+        {
+            _buttons[platz.getReihe()][platz.getSitz()].setAusgewaehlt(true);
+            _ausgewaehltePlaetze.add(platz);
+        }
+        repaint();
+        informiereSelectionListener(_ausgewaehltePlaetze);
+    }
+
     /**
      * Markiert den angegebenen Platz als verkauft.
      * 
@@ -8,8 +8,13 @@ import java.util.Set;
 import javax.swing.JPanel;
 
 import de.uni_hamburg.informatik.swt.se2.kino.fachwerte.Platz;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Belegungsstand;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Buchungsergebnis;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Kinosaal;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Platzbuchung;
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Platzreservierung;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
+import de.uni_hamburg.informatik.swt.se2.kino.services.ReservierungsService;
 import de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.barzahlung.BarzahlungsWerkzeug;
 
 /**
@@ -35,11 +40,22 @@ public class PlatzVerkaufsWerkzeug
 
     private BarzahlungsWerkzeug _barzahlungsWerkzeug;
 
+    // Hält die ausgewählten Plätze, solange bar bezahlt wird.
+    private ReservierungsService _reservierungsService;
+
     /**
      * Initialisiert das PlatzVerkaufsWerkzeug.
+     * 
+     * @param reservierungsService der Service, über den die Plätze während der
+     *            Barzahlung reserviert werden.
+     * 
+     * @require reservierungsService != null
      */
-    public PlatzVerkaufsWerkzeug()
+    public PlatzVerkaufsWerkzeug(ReservierungsService reservierungsService)
     {
+        assert reservierungsService != null : "Vorbedingung verletzt: reservierungsService != null";
+
+        _reservierungsService = reservierungsService;
         _barzahlungsWerkzeug = new BarzahlungsWerkzeug();
 
         _ui = new PlatzVerkaufsWerkzeugUI();
@@ -75,6 +91,15 @@ public class PlatzVerkaufsWerkzeug
             }
         });
 
+        _ui.getVorschlagenButton().addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                schlagePlaetzeVor();
+            }
+        });
+
         _ui.getStornierenButton().addActionListener(new ActionListener()
         {
             @Override
@@ -90,22 +115,65 @@ public class PlatzVerkaufsWerkzeug
                     @Override
                     public void auswahlGeaendert(PlatzSelectionEvent event)
                     {
-                        reagiereAufNeuePlatzAuswahl(event
-                                .getAusgewaehltePlaetze());
+                        reagiereAufNeuePlatzAuswahl(_ui.getPlatzplan()
+                                .getAusgewaehltePlatzindizes());
                     }
                 });
     }
 
     /**
-     * Startet die Barzahlung.
+     * Startet die Barzahlung. Solange bezahlt wird, sind die ausgewählten
+     * Plätze reserviert, so dass keine andere Kasse sie verkaufen kann.
      */
     private void fuehreBarzahlungDurch()
     {
         // TODO für Blatt 8: Verkaufen ohne Barzahlungswerkzeug
+        Set<Platz> plaetze = _ui.getPlatzplan().getAusgewaehltePlaetze();
+        Platzreservierung reservierung = _reservierungsService.reserviere(
+                _vorstellung, plaetze, this);
+        if (reservierung == null)
+        {
+            aktualisierePlatzplan();
+            _ui.getPreisLabel().setText(
+                    "Plätze inzwischen vergeben, bitte neu auswählen");
+            return;
+        }
+
         _barzahlungsWerkzeug.fuehreBarzahlungDurch(_ausgewaehlterGesamtbetrag);
         if (_barzahlungsWerkzeug.barzahlungErfolgreich())
         {
-            verkaufePlaetze(_vorstellung);
+            boolean verkauft = _reservierungsService.verkaufe(reservierung);
+            aktualisierePlatzplan();
+            if (!verkauft)
+            {
+                _ui.getPreisLabel().setText(
+                        "Reservierung abgelaufen, Plätze nicht verkauft");
+            }
+        }
+        else
+        {
+            _reservierungsService.gibFrei(reservierung);
+            aktualisierePlatzplan();
+        }
+    }
+
+    /**
+     * Wählt die besten freien Plätze nebeneinander aus, so viele, wie im
+     * Anzahlfeld angegeben sind.
+     */
+    private void schlagePlaetzeVor()
+    {
+        if (_vorstellung == null)
+        {
+            return;
+        }
+        int anzahl = (Integer) _ui.getAnzahlSpinner().getValue();
+        Set<Platz> plaetze = _vorstellung.findeFreiePlaetzeNebeneinander(anzahl);
+        _ui.getPlatzplan().waehleAus(plaetze);
+        if (plaetze.isEmpty())
+        {
+            _ui.getPreisLabel().setText(
+                    "Keine " + anzahl + " Plätze nebeneinander frei");
         }
     }
 
@@ -113,9 +181,9 @@ public class PlatzVerkaufsWerkzeug
      * Reagiert darauf, dass sich die Menge der ausgewählten Plätze geändert
      * hat.
      * 
-     * @param plaetze die jetzt ausgewählten Plätze.
+     * @param plaetze die Platzindizes der jetzt ausgewählten Plätze.
      */
-    private void reagiereAufNeuePlatzAuswahl(Set<Platz> plaetze)
+    private void reagiereAufNeuePlatzAuswahl(int[] plaetze)
     {
         _ui.getVerkaufenButton().setEnabled(istVerkaufenMoeglich(plaetze));
         _ui.getStornierenButton().setEnabled(istStornierenMoeglich(plaetze));
@@ -125,7 +193,7 @@ public class PlatzVerkaufsWerkzeug
     /**
      * Aktualisiert den anzuzeigenden Gesamtpreis
      */
-    private void aktualisierePreisanzeige(Set<Platz> plaetze)
+    private void aktualisierePreisanzeige(int[] plaetze)
     {
         _ausgewaehlterGesamtbetrag = 0;
         if (istVerkaufenMoeglich(plaetze))
@@ -141,7 +209,7 @@ public class PlatzVerkaufsWerkzeug
             _ui.getPreisLabel().setText(
                     "Gesamtstorno: " + preis + " Eurocent");
         }
-        else if (!plaetze.isEmpty())
+        else if (plaetze.length > 0)
         {
             _ui.getPreisLabel().setText(
                     "Verkauf und Storno nicht gleichzeitig möglich!");
@@ -158,9 +226,9 @@ public class PlatzVerkaufsWerkzeug
      * 
      * @return true, wenn der Platz sowohl leer als auch die Vorstellung stornierbar ist
      */
-    private boolean istStornierenMoeglich(Set<Platz> plaetze)
+    private boolean istStornierenMoeglich(int[] plaetze)
     {
-        return !plaetze.isEmpty() && _vorstellung.sindStornierbar(plaetze);
+        return plaetze.length > 0 && _vorstellung.sindStornierbar(plaetze);
     }
 
     /**
@@ -168,9 +236,9 @@ public class PlatzVerkaufsWerkzeug
      * 
      * @return true, wenn der Platz sowohl leer als auch die Vorstellung zum Verkauf steht
      */
-    private boolean istVerkaufenMoeglich(Set<Platz> plaetze)
+    private boolean istVerkaufenMoeglich(int[] plaetze)
     {
-        return !plaetze.isEmpty() && _vorstellung.sindVerkaufbar(plaetze);
+        return plaetze.length > 0 && _vorstellung.sindVerkaufbar(plaetze);
     }
 
     /**
@@ -194,7 +262,8 @@ public class PlatzVerkaufsWerkzeug
             Kinosaal saal = _vorstellung.getKinosaal();
             initialisierePlatzplan(saal.getAnzahlReihen(),
                     saal.getAnzahlSitzeProReihe());
-            markiereNichtVerkaufbarePlaetze(saal.getPlaetze());
+            markiereNichtVerkaufbarePlaetze(saal.getPlaetze(),
+                    _vorstellung.getBelegungsstand());
         }
         else
         {
@@ -216,12 +285,14 @@ public class PlatzVerkaufsWerkzeug
      * Markiert alle nicht verkaufbaren Plätze im Platzplan als verkauft.
      * 
      * @param plaetze Eine Liste mit allen Plaetzen im Saal.
+     * @param stand Der Belegungsstand, nach dem alle Plätze markiert werden.
      */
-    private void markiereNichtVerkaufbarePlaetze(List<Platz> plaetze)
+    private void markiereNichtVerkaufbarePlaetze(List<Platz> plaetze,
+            Belegungsstand stand)
     {
         for (Platz platz : plaetze)
         {
-            if (!_vorstellung.istVerkaufbar(platz))
+            if (!stand.istVerkaufbar(platz))
             {
                 _ui.getPlatzplan().markierePlatzAlsVerkauft(platz);
             }
@@ -229,22 +300,20 @@ public class PlatzVerkaufsWerkzeug
     }
 
     /**
-     * Verkauft die ausgewählten Plaetze.
-     */
-    private void verkaufePlaetze(Vorstellung vorstellung)
-    {
-        Set<Platz> plaetze = _ui.getPlatzplan().getAusgewaehltePlaetze();
-        vorstellung.verkaufePlaetze(plaetze);
-        aktualisierePlatzplan();
-    }
-
-    /**
-     * Storniert die ausgewählten Plaetze.
+     * Storniert die ausgewählten Plaetze. Hat eine andere Kasse inzwischen
+     * einen der Plätze storniert, wird keiner storniert und die betroffenen
+     * Plätze werden angezeigt.
      */
     private void stornierePlaetze(Vorstellung vorstellung)
     {
         Set<Platz> plaetze = _ui.getPlatzplan().getAusgewaehltePlaetze();
-        vorstellung.stornierePlaetze(plaetze);
+        Buchungsergebnis ergebnis = vorstellung.fuehreAus(Platzbuchung
+                .storno(plaetze));
         aktualisierePlatzplan();
+        if (!ergebnis.istErfolgreich())
+        {
+            _ui.getPreisLabel().setText(
+                    "Nicht verkauft: " + ergebnis.getBetroffenePlaetze());
+        }
     }
 }
@@ -8,6 +8,8 @@ import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 
 /**
  * Die UI des {@link PlatzVerkaufsWerkzeug}.
@@ -20,6 +22,8 @@ class PlatzVerkaufsWerkzeugUI
     // Die Widgets, aus denen das UI sich zusammensetzt
     private JPanel _hauptPanel;
     private JLabel _preisLabel;
+    private JSpinner _anzahlSpinner;
+    private JButton _vorschlagenButton;
     private JButton _verkaufenButton;
     private JButton _stornierenButton;
     private JPlatzplan _platzplan;
@@ -51,6 +55,10 @@ class PlatzVerkaufsWerkzeugUI
         preisPanel.add(_preisLabel, BorderLayout.CENTER);
         
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        _anzahlSpinner = new JSpinner(new SpinnerNumberModel(2, 1, 99, 1));
+        buttonPanel.add(_anzahlSpinner);
+        _vorschlagenButton = new JButton("Beste Plätze");
+        buttonPanel.add(_vorschlagenButton);
         _verkaufenButton = new JButton("Verkaufen");
         buttonPanel.add(_verkaufenButton);    
         _stornierenButton = new JButton("Stornieren");
@@ -80,6 +88,23 @@ class PlatzVerkaufsWerkzeugUI
         return _preisLabel;
     }
     
+    /**
+     * Gibt das Eingabefeld für die Anzahl vorzuschlagender Plätze zurück.
+     */
+    public JSpinner getAnzahlSpinner()
+    {
+        return _anzahlSpinner;
+    }
+
+    /**
+     * Gibt den Button zurück, mit dem die besten freien Plätze nebeneinander
+     * ausgewählt werden.
+     */
+    public JButton getVorschlagenButton()
+    {
+        return _vorschlagenButton;
+    }
+
     /**
      * Gibt den Stornieren-Button zurück.
      */
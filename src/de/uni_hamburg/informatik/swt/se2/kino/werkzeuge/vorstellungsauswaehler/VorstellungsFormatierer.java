@@ -1,5 +1,6 @@
 package de.uni_hamburg.informatik.swt.se2.kino.werkzeuge.vorstellungsauswaehler;
 
+import de.uni_hamburg.informatik.swt.se2.kino.materialien.Belegungsstand;
 import de.uni_hamburg.informatik.swt.se2.kino.materialien.Vorstellung;
 
 /**
@@ -34,8 +35,11 @@ class VorstellungsFormatierer
     @Override
     public String toString()
     {
+        Belegungsstand stand = _vorstellung.getBelegungsstand();
+        String plaetze = stand.istAusverkauft() ? "ausverkauft"
+                : stand.getAnzahlFreiePlaetze() + " frei";
         return _vorstellung.getAnfangszeit().getFormatiertenString() + " - "
                 + _vorstellung.getFilm().getFormatiertenString() + ", "
-                + _vorstellung.getKinosaal().getName();
+                + _vorstellung.getKinosaal().getName() + " (" + plaetze + ")";
     }
 }